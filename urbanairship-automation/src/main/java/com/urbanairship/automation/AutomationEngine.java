@@ -36,6 +36,7 @@ import com.urbanairship.automation.storage.AutomationDao;
 import com.urbanairship.automation.storage.AutomationDaoWrapper;
 import com.urbanairship.automation.storage.AutomationDatabase;
 import com.urbanairship.automation.storage.FullSchedule;
+import com.urbanairship.automation.storage.IndexedAutomationDao;
 import com.urbanairship.automation.storage.LegacyDataMigrator;
 import com.urbanairship.automation.storage.ScheduleEntity;
 import com.urbanairship.automation.storage.ScheduleState;
@@ -66,7 +67,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -79,6 +79,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class AutomationEngine {
 
     private long SCHEDULE_LIMIT = 1000;
+
+    /**
+     * Delay before trigger progress is written to the database. Progress changes within the delay
+     * are coalesced into a single write.
+     */
+    private static final long TRIGGER_FLUSH_DELAY_MS = 1000;
+
+    /**
+     * Max number of decoded schedules to keep in memory.
+     */
+    private static final int SCHEDULE_CACHE_SIZE = 100;
+
     private final List<Integer> COMPOUND_TRIGGER_TYPES = Arrays.asList(Trigger.ACTIVE_SESSION, Trigger.VERSION);
 
     /**
@@ -112,13 +124,27 @@ public class AutomationEngine {
     HandlerThread backgroundThread;
     private final List<ScheduleOperation> pendingAlarmOperations = new ArrayList<>();
 
+    // Readiness checks in flight by schedule ID. Guards the check flags between the main and
+    // background threads.
+    private final Map<String, ReadinessResult> pendingReadinessChecks = new HashMap<>();
+
     private String screen;
     private String regionId;
 
     private Subject<TriggerUpdate> stateObservableUpdates;
     private Subscription compoundTriggerSubscription;
     private Scheduler backgroundScheduler;
-    private final AutomationDao dao;
+    private final IndexedAutomationDao dao;
+    private final ScheduleCache scheduleCache = new ScheduleCache(SCHEDULE_CACHE_SIZE);
+    private boolean isTriggerFlushScheduled;
+
+    private final Runnable triggerFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isTriggerFlushScheduled = false;
+            dao.flushTriggers();
+        }
+    };
 
     private final ApplicationListener applicationListener = new ApplicationListener() {
         @Override
@@ -261,7 +287,7 @@ public class AutomationEngine {
         this.activityMonitor = activityMonitor;
         this.scheduler = scheduler;
         this.mainHandler = new Handler(Looper.getMainLooper());
-        this.dao = dao;
+        this.dao = new IndexedAutomationDao(dao);
         this.legacyDataMigrator = legacyDataMigrator;
         this.pausedManager = new PausedManager();
     }
@@ -279,7 +305,7 @@ public class AutomationEngine {
         this.backgroundThread = new AirshipHandlerThread("automation");
         this.backgroundThread.start();
         this.backgroundHandler = new Handler(this.backgroundThread.getLooper());
-        this.backgroundScheduler = Schedulers.looper(backgroundThread.getLooper());
+        this.backgroundScheduler = Schedulers.serial(backgroundThread.getLooper());
 
         this.networkMonitor = new NetworkMonitor();
         networkMonitor.setConnectionListener(connectionListener);
@@ -337,7 +363,10 @@ public class AutomationEngine {
         analytics.removeAnalyticsListener(analyticsListener);
         networkMonitor.teardown();
         cancelAlarms();
-        backgroundThread.quit();
+
+        // Write any pending trigger progress before the thread exits
+        backgroundHandler.post(triggerFlushRunnable);
+        backgroundThread.quitSafely();
         backgroundThread = null;
         isStarted = false;
     }
@@ -364,6 +393,7 @@ public class AutomationEngine {
                 }
 
                 FullSchedule entry = ScheduleConverters.convert(schedule);
+                scheduleCache.invalidate(entry.schedule.scheduleId);
                 dao.insert(entry);
                 subscribeStateObservables(Collections.singletonList(entry));
 
@@ -404,6 +434,10 @@ public class AutomationEngine {
                     return;
                 }
 
+                for (FullSchedule entry : entries) {
+                    scheduleCache.invalidate(entry.schedule.scheduleId);
+                }
+
                 dao.insert(entries);
                 subscribeStateObservables(entries);
 
@@ -439,7 +473,7 @@ public class AutomationEngine {
 
                 Logger.verbose("Cancelled schedules: %s", ids);
 
-                dao.deleteSchedules(entries);
+                deleteSchedules(entries);
                 notifyCancelledSchedule(entries);
                 cancelScheduleAlarms(ids);
                 pendingResult.setResult(true);
@@ -468,7 +502,7 @@ public class AutomationEngine {
                 }
 
                 Logger.verbose("Cancelled schedules: %s", ids);
-                dao.deleteSchedules(entries);
+                deleteSchedules(entries);
                 notifyCancelledSchedule(entries);
                 cancelScheduleAlarms(ids);
                 pendingResult.setResult(true);
@@ -497,7 +531,7 @@ public class AutomationEngine {
                     Logger.verbose("Failed to cancel schedule group: %s", group);
                     pendingResult.setResult(false);
                 } else {
-                    dao.deleteSchedules(entries);
+                    deleteSchedules(entries);
                     cancelGroupAlarms(Collections.singletonList(group));
                     notifyCancelledSchedule(entries);
                 }
@@ -640,43 +674,110 @@ public class AutomationEngine {
                     return;
                 }
 
-                applyEdits(entry, edits);
+                Long stateChangeTimeStamp = applyEditsAndUpdateState(entry, edits);
+                dao.update(entry);
 
-                boolean subscribeForStateChanges = false;
-                long stateChangeTimeStamp = -1;
+                if (stateChangeTimeStamp != null) {
+                    subscribeStateObservables(entry, stateChangeTimeStamp);
+                }
 
-                boolean isOverLimit = isOverLimit(entry);
-                boolean isExpired = isExpired(entry);
+                Logger.verbose("Updated schedule: %s", scheduleId);
+                pendingResult.setResult(true);
+            }
+        });
 
-                // Check if the schedule needs to be rehabilitated or finished due to the edits
-                if (entry.schedule.executionState == ScheduleState.FINISHED && !isOverLimit && !isExpired) {
-                    subscribeForStateChanges = true;
-                    stateChangeTimeStamp = entry.schedule.executionStateChangeDate;
-                    updateExecutionState(entry, ScheduleState.IDLE);
-                } else if (entry.schedule.executionState != ScheduleState.FINISHED && (isOverLimit || isExpired)) {
-                    updateExecutionState(entry, ScheduleState.FINISHED);
+        return pendingResult;
+    }
+
+    /**
+     * Edits multiple schedules. The schedules are loaded and saved in a single transaction.
+     *
+     * @param edits The schedule edits by schedule ID.
+     * @return Pending result with {@code true} if every schedule was edited, or {@code false} if
+     * any of the schedules no longer exist.
+     */
+    @NonNull
+    public PendingResult<Boolean> editSchedules(@NonNull final Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+        final PendingResult<Boolean> pendingResult = new PendingResult<>();
+
+        backgroundHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (edits.isEmpty()) {
+                    pendingResult.setResult(true);
+                    return;
+                }
 
-                    if (isOverLimit) {
-                        notifyScheduleLimitReached(entry);
-                    } else {
-                        notifyExpiredSchedules(Collections.singleton(entry));
+                List<FullSchedule> entries = dao.getSchedules(edits.keySet());
+                Map<String, Long> stateChangeTimeStamps = new HashMap<>();
+
+                for (FullSchedule entry : entries) {
+                    Long stateChangeTimeStamp = applyEditsAndUpdateState(entry, edits.get(entry.schedule.scheduleId));
+                    if (stateChangeTimeStamp != null) {
+                        stateChangeTimeStamps.put(entry.schedule.scheduleId, stateChangeTimeStamp);
                     }
                 }
 
-                dao.update(entry);
+                dao.updateSchedules(entries);
 
-                if (subscribeForStateChanges) {
-                    subscribeStateObservables(entry, stateChangeTimeStamp);
+                // Subscribe the rehabilitated schedules once everything is saved
+                for (FullSchedule entry : entries) {
+                    Long stateChangeTimeStamp = stateChangeTimeStamps.get(entry.schedule.scheduleId);
+                    if (stateChangeTimeStamp != null) {
+                        subscribeStateObservables(entry, stateChangeTimeStamp);
+                    }
                 }
 
-                Logger.verbose("Updated schedule: %s", scheduleId);
-                pendingResult.setResult(true);
+                if (entries.size() != edits.size()) {
+                    Logger.error("AutomationEngine - Unable to edit schedules that no longer exist. Edited %s of %s.", entries.size(), edits.size());
+                    pendingResult.setResult(false);
+                } else {
+                    Logger.verbose("Updated schedules: %s", edits.keySet());
+                    pendingResult.setResult(true);
+                }
             }
         });
 
         return pendingResult;
     }
 
+    /**
+     * Applies edits to a schedule and rehabilitates or finishes it if needed. The entry is not saved.
+     *
+     * @param entry The schedule entry.
+     * @param edits The schedule edits.
+     * @return The state change time to resubscribe state observables with if the schedule was
+     * rehabilitated, otherwise {@code null}.
+     */
+    @WorkerThread
+    @Nullable
+    private Long applyEditsAndUpdateState(@NonNull FullSchedule entry, @NonNull ScheduleEdits<? extends ScheduleData> edits) {
+        applyEdits(entry, edits);
+        scheduleCache.invalidate(entry.schedule.scheduleId);
+        invalidateReadinessChecks(Collections.singleton(entry));
+
+        Long stateChangeTimeStamp = null;
+
+        boolean isOverLimit = isOverLimit(entry);
+        boolean isExpired = isExpired(entry);
+
+        // Check if the schedule needs to be rehabilitated or finished due to the edits
+        if (entry.schedule.executionState == ScheduleState.FINISHED && !isOverLimit && !isExpired) {
+            stateChangeTimeStamp = entry.schedule.executionStateChangeDate;
+            updateExecutionState(entry, ScheduleState.IDLE);
+        } else if (entry.schedule.executionState != ScheduleState.FINISHED && (isOverLimit || isExpired)) {
+            updateExecutionState(entry, ScheduleState.FINISHED);
+
+            if (isOverLimit) {
+                notifyScheduleLimitReached(entry);
+            } else {
+                notifyExpiredSchedules(Collections.singleton(entry));
+            }
+        }
+
+        return stateChangeTimeStamp;
+    }
+
     /**
      * Triggers the engine to recheck all pending schedules.
      */
@@ -946,7 +1047,7 @@ public class AutomationEngine {
 
         if (!schedulesToDelete.isEmpty()) {
             Logger.verbose("Deleting finished schedules: %s", schedulesToDelete);
-            dao.deleteSchedules(schedulesToDelete);
+            deleteSchedules(schedulesToDelete);
         }
     }
 
@@ -1065,9 +1166,7 @@ public class AutomationEngine {
                 }
 
                 sortSchedulesByPriority(entries);
-                for (FullSchedule entry : entries) {
-                    attemptExecution(entry);
-                }
+                attemptExecution(entries);
             }
         });
     }
@@ -1084,7 +1183,7 @@ public class AutomationEngine {
             @Override
             public void run() {
                 Logger.debug("Updating triggers with type: %s", type);
-                List<TriggerEntity> triggerEntities = dao.getActiveTriggers(type);
+                List<TriggerEntity> triggerEntities = dao.getActiveTriggers(type, json);
                 if (triggerEntities.isEmpty()) {
                     return;
                 }
@@ -1116,8 +1215,11 @@ public class AutomationEngine {
 
                 List<TriggerEntity> triggersToUpdate = new ArrayList<>();
 
+                // Resolve the event once instead of once per trigger predicate
+                JsonValue jsonValue = json.toJsonValue();
+
                 for (TriggerEntity trigger : triggerEntities) {
-                    if (trigger.jsonPredicate != null && !trigger.jsonPredicate.apply(json)) {
+                    if (trigger.jsonPredicate != null && !trigger.jsonPredicate.apply(jsonValue)) {
                         continue;
                     }
 
@@ -1137,7 +1239,10 @@ public class AutomationEngine {
                     }
                 }
 
-                dao.updateTriggers(triggersToUpdate);
+                if (!triggersToUpdate.isEmpty()) {
+                    dao.updateTriggers(triggersToUpdate);
+                    scheduleTriggerFlush();
+                }
 
                 if (!cancelledSchedules.isEmpty()) {
                     handleCancelledSchedules(dao.getSchedules(cancelledSchedules));
@@ -1150,6 +1255,17 @@ public class AutomationEngine {
         });
     }
 
+    /**
+     * Schedules writing the pending trigger progress, if not already scheduled.
+     */
+    @WorkerThread
+    private void scheduleTriggerFlush() {
+        if (!isTriggerFlushScheduled && dao.hasPendingTriggers()) {
+            isTriggerFlushScheduled = true;
+            backgroundHandler.postDelayed(triggerFlushRunnable, TRIGGER_FLUSH_DELAY_MS);
+        }
+    }
+
     /**
      * Processes a list of cancelled schedule entries.
      *
@@ -1265,7 +1381,7 @@ public class AutomationEngine {
 
                             switch (result) {
                                 case AutomationDriver.PREPARE_RESULT_CANCEL:
-                                    dao.delete(entry);
+                                    deleteSchedule(entry);
                                     notifyCancelledSchedule(Collections.singleton(entry));
                                     break;
 
@@ -1302,7 +1418,7 @@ public class AutomationEngine {
         }
 
         try {
-            return ScheduleConverters.convert(entry);
+            return scheduleCache.get(entry);
         } catch (ClassCastException e) {
             Logger.error(e, "Exception converting entity to schedule %s", entry.schedule.scheduleId);
         } catch (Exception e) {
@@ -1342,73 +1458,185 @@ public class AutomationEngine {
      * @param entry The schedule entry.
      */
     @WorkerThread
-    private void attemptExecution(@NonNull final FullSchedule entry) {
-        if (entry.schedule.executionState != ScheduleState.WAITING_SCHEDULE_CONDITIONS) {
-            Logger.error("Unable to execute schedule when state is %s scheduleID: %s", entry.schedule.executionState, entry.schedule.scheduleId);
-            return;
+    private void attemptExecution(@NonNull FullSchedule entry) {
+        attemptExecution(Collections.singletonList(entry));
+    }
+
+    /**
+     * Called to attempt executing schedule entries. The readiness of every entry is checked in a
+     * single pass on the main thread, in the order given, and the results are applied back on the
+     * background thread.
+     *
+     * @param entries The schedule entries.
+     */
+    @WorkerThread
+    private void attemptExecution(@NonNull List<FullSchedule> entries) {
+        final List<ReadinessResult> candidates = new ArrayList<>();
+        List<FullSchedule> expiredEntries = new ArrayList<>();
+
+        for (FullSchedule entry : entries) {
+            if (entry.schedule.executionState != ScheduleState.WAITING_SCHEDULE_CONDITIONS) {
+                Logger.error("Unable to execute schedule when state is %s scheduleID: %s", entry.schedule.executionState, entry.schedule.scheduleId);
+                continue;
+            }
+
+            // Verify the schedule is not expired
+            if (isExpired(entry)) {
+                expiredEntries.add(entry);
+                continue;
+            }
+
+            synchronized (pendingReadinessChecks) {
+                // Already being checked, the pending result will be applied first
+                if (pendingReadinessChecks.containsKey(entry.schedule.scheduleId)) {
+                    continue;
+                }
+
+                ReadinessResult readiness = new ReadinessResult(entry, scheduleCache.getVersion(entry.schedule.scheduleId));
+                pendingReadinessChecks.put(entry.schedule.scheduleId, readiness);
+                candidates.add(readiness);
+            }
         }
 
-        // Verify the schedule is not expired
-        if (isExpired(entry)) {
-            handleExpiredEntry(entry);
+        handleExpiredEntries(expiredEntries);
+
+        if (candidates.isEmpty()) {
             return;
         }
 
-        final CountDownLatch latch = new CountDownLatch(1);
-        ScheduleRunnable<Integer> runnable = new ScheduleRunnable<Integer>(entry.schedule.scheduleId, entry.schedule.group) {
+        mainHandler.post(new Runnable() {
             @Override
             public void run() {
-                Schedule<? extends ScheduleData> schedule = null;
-                result = AutomationDriver.READY_RESULT_NOT_READY;
+                checkExecutionReadiness(candidates);
+            }
+        });
+    }
 
-                if (pausedManager.isPaused()) {
-                    return;
+    /**
+     * Checks the readiness of schedule entries and executes the ones that are ready. The entries
+     * are snapshots from the background thread, so a schedule is only checked if it was not
+     * cancelled, edited or expired since the check was queued.
+     *
+     * @param checks The readiness checks.
+     */
+    @MainThread
+    private void checkExecutionReadiness(@NonNull List<ReadinessResult> checks) {
+        List<ReadinessResult> results = new ArrayList<>();
+
+        for (ReadinessResult readiness : checks) {
+            FullSchedule entry = readiness.entry;
+            results.add(readiness);
+
+            // Claim the check before the driver sees the schedule. A cancel, edit or expiry from
+            // now on is applied after the check, as if the schedule was already executing.
+            synchronized (pendingReadinessChecks) {
+                if (readiness.isInvalidated) {
+                    continue;
                 }
+                readiness.isClaimed = true;
+            }
 
-                if (isScheduleConditionsSatisfied(entry)) {
-                    try {
-                        schedule = ScheduleConverters.convert(entry);
-                        result = driver.onCheckExecutionReadiness(schedule);
-                    } catch (Exception e) {
-                        Logger.error(e, "Unable to create schedule.");
-                        this.exception = e;
-                    }
-                }
-                latch.countDown();
+            if (pausedManager.isPaused() || !isScheduleConditionsSatisfied(entry)) {
+                continue;
+            }
 
-                if (AutomationDriver.READY_RESULT_CONTINUE == result && schedule != null) {
-                    driver.onExecuteTriggeredSchedule(schedule, new ScheduleExecutorCallback(entry.schedule.scheduleId));
-                }
+            Schedule<? extends ScheduleData> schedule;
+            try {
+                schedule = scheduleCache.get(entry, readiness.version);
+                readiness.result = driver.onCheckExecutionReadiness(schedule);
+            } catch (Exception e) {
+                Logger.error(e, "Unable to create schedule.");
+                readiness.exception = e;
+                continue;
             }
-        };
 
-        this.mainHandler.post(runnable);
+            if (readiness.result == AutomationDriver.READY_RESULT_CONTINUE) {
+                // Post the results before executing so the schedule is marked as executing
+                // before the execution finished callback reaches the background thread
+                postReadinessResults(results);
+                results = new ArrayList<>();
+                driver.onExecuteTriggeredSchedule(schedule, new ScheduleExecutorCallback(entry.schedule.scheduleId));
+            }
+        }
 
-        try {
-            latch.await();
-        } catch (InterruptedException ex) {
-            Logger.error(ex, "Failed to execute schedule. ");
-            Thread.currentThread().interrupt();
+        postReadinessResults(results);
+    }
+
+    /**
+     * Posts readiness results to the background thread.
+     *
+     * @param results The results.
+     */
+    private void postReadinessResults(@NonNull final List<ReadinessResult> results) {
+        if (results.isEmpty()) {
+            return;
         }
 
-        if (runnable.exception != null) {
-            Logger.error("Failed to check conditions. Deleting schedule: %s", entry.schedule.scheduleId);
-            dao.delete(entry);
-            notifyCancelledSchedule(Collections.singleton(entry));
-        } else {
-            int result = runnable.result == null ? AutomationDriver.READY_RESULT_NOT_READY : runnable.result;
-            switch (result) {
+        backgroundHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                applyReadinessResults(results);
+            }
+        });
+    }
+
+    /**
+     * Applies readiness results to the schedule entries.
+     *
+     * @param results The results.
+     */
+    @WorkerThread
+    private void applyReadinessResults(@NonNull List<ReadinessResult> results) {
+        List<String> scheduleIds = new ArrayList<>(results.size());
+        synchronized (pendingReadinessChecks) {
+            for (ReadinessResult readiness : results) {
+                pendingReadinessChecks.remove(readiness.scheduleId);
+                scheduleIds.add(readiness.scheduleId);
+            }
+        }
+
+        Map<String, FullSchedule> entries = new HashMap<>();
+        for (FullSchedule entry : dao.getSchedules(scheduleIds)) {
+            entries.put(entry.schedule.scheduleId, entry);
+        }
+
+        List<FullSchedule> schedulesToUpdate = new ArrayList<>();
+        List<FullSchedule> schedulesToDelete = new ArrayList<>();
+        List<FullSchedule> schedulesToPrepare = new ArrayList<>();
+        List<FullSchedule> schedulesToAttempt = new ArrayList<>();
+
+        for (ReadinessResult readiness : results) {
+            FullSchedule entry = entries.get(readiness.scheduleId);
+
+            // Make sure the schedule is still waiting on its conditions
+            if (entry == null || entry.schedule.executionState != ScheduleState.WAITING_SCHEDULE_CONDITIONS) {
+                continue;
+            }
+
+            // The schedule changed before it was checked, check it again
+            if (readiness.isInvalidated) {
+                schedulesToAttempt.add(entry);
+                continue;
+            }
+
+            if (readiness.exception != null) {
+                Logger.error("Failed to check conditions. Deleting schedule: %s", entry.schedule.scheduleId);
+                schedulesToDelete.add(entry);
+                continue;
+            }
+
+            switch (readiness.result) {
                 case AutomationDriver.READY_RESULT_INVALIDATE:
                     Logger.verbose("Schedule invalidated: %s", entry.schedule.scheduleId);
                     updateExecutionState(entry, ScheduleState.PREPARING_SCHEDULE);
-                    dao.update(entry);
-                    prepareSchedules(Collections.singletonList(dao.getSchedule(entry.schedule.scheduleId)));
+                    schedulesToUpdate.add(entry);
+                    schedulesToPrepare.add(entry);
                     break;
 
                 case AutomationDriver.READY_RESULT_CONTINUE:
                     Logger.verbose("Schedule executing: %s", entry.schedule.scheduleId);
                     updateExecutionState(entry, ScheduleState.EXECUTING);
-                    dao.update(entry);
+                    schedulesToUpdate.add(entry);
                     break;
 
                 case AutomationDriver.READY_RESULT_NOT_READY:
@@ -1418,10 +1646,46 @@ public class AutomationEngine {
                 case AutomationDriver.READY_RESULT_SKIP:
                     Logger.verbose("Schedule execution skipped: %s", entry.schedule.scheduleId);
                     updateExecutionState(entry, ScheduleState.IDLE);
-                    dao.update(entry);
+                    schedulesToUpdate.add(entry);
                     break;
             }
         }
+
+        dao.updateSchedules(schedulesToUpdate);
+
+        if (!schedulesToDelete.isEmpty()) {
+            deleteSchedules(schedulesToDelete);
+            notifyCancelledSchedule(schedulesToDelete);
+        }
+
+        prepareSchedules(schedulesToPrepare);
+
+        if (!schedulesToAttempt.isEmpty()) {
+            sortSchedulesByPriority(schedulesToAttempt);
+            attemptExecution(schedulesToAttempt);
+        }
+    }
+
+    /**
+     * Invalidates the readiness checks in flight for schedules that were cancelled, edited or
+     * expired. Checks that were already claimed by the main thread are not affected.
+     *
+     * @param entries The schedule entries.
+     */
+    @WorkerThread
+    private void invalidateReadinessChecks(@NonNull Collection<FullSchedule> entries) {
+        synchronized (pendingReadinessChecks) {
+            if (pendingReadinessChecks.isEmpty()) {
+                return;
+            }
+
+            for (FullSchedule entry : entries) {
+                ReadinessResult readiness = pendingReadinessChecks.get(entry.schedule.scheduleId);
+                if (readiness != null && !readiness.isClaimed) {
+                    readiness.isInvalidated = true;
+                }
+            }
+        }
     }
 
     /**
@@ -1546,7 +1810,7 @@ public class AutomationEngine {
 
             // Delete the schedule if its finished and no edit grace period is defined
             if (entry.schedule.editGracePeriod <= 0) {
-                dao.delete(entry);
+                deleteSchedule(entry);
                 return;
             }
 
@@ -1702,6 +1966,7 @@ public class AutomationEngine {
         }
         List<FullSchedule> schedulesToDelete = new ArrayList<>();
         List<FullSchedule> schedulesToUpdate = new ArrayList<>();
+        invalidateReadinessChecks(entries);
 
         for (FullSchedule entry : entries) {
             updateExecutionState(entry, ScheduleState.FINISHED);
@@ -1713,7 +1978,7 @@ public class AutomationEngine {
         }
 
         dao.updateSchedules(schedulesToUpdate);
-        dao.deleteSchedules(schedulesToDelete);
+        deleteSchedules(schedulesToDelete);
         notifyExpiredSchedules(entries);
     }
 
@@ -1730,16 +1995,29 @@ public class AutomationEngine {
 
     }
 
-    private static abstract class ScheduleRunnable<T> implements Runnable {
+    /**
+     * Result of a schedule readiness check.
+     */
+    private static class ReadinessResult {
 
         final String scheduleId;
-        final String group;
-        T result;
+        final FullSchedule entry;
+        final long version;
+
+        @AutomationDriver.ReadyResult
+        int result = AutomationDriver.READY_RESULT_NOT_READY;
+
+        @Nullable
         Exception exception;
 
-        ScheduleRunnable(String scheduleId, String group) {
-            this.scheduleId = scheduleId;
-            this.group = group;
+        // Guarded by pendingReadinessChecks
+        boolean isInvalidated;
+        boolean isClaimed;
+
+        ReadinessResult(@NonNull FullSchedule entry, long version) {
+            this.scheduleId = entry.schedule.scheduleId;
+            this.entry = entry;
+            this.version = version;
         }
 
     }
@@ -1794,6 +2072,22 @@ public class AutomationEngine {
         return entry.schedule.limit > 0 && entry.schedule.count >= entry.schedule.limit;
     }
 
+    @WorkerThread
+    private void deleteSchedule(@NonNull FullSchedule entry) {
+        invalidateReadinessChecks(Collections.singleton(entry));
+        dao.delete(entry);
+        scheduleCache.remove(entry.schedule.scheduleId);
+    }
+
+    @WorkerThread
+    private void deleteSchedules(@NonNull Collection<FullSchedule> entries) {
+        invalidateReadinessChecks(entries);
+        dao.deleteSchedules(entries);
+        for (FullSchedule entry : entries) {
+            scheduleCache.remove(entry.schedule.scheduleId);
+        }
+    }
+
     private void updateExecutionState(@NonNull FullSchedule schedule, int executionState) {
         if (schedule.schedule.executionState != executionState) {
             schedule.schedule.executionState = executionState;
@@ -4,10 +4,10 @@ package com.urbanairship.automation;
 
 import android.content.Context;
 import android.net.Uri;
-import android.os.Looper;
 
 import com.urbanairship.AirshipComponent;
 import com.urbanairship.AirshipComponentGroups;
+import com.urbanairship.AirshipLoopers;
 import com.urbanairship.Logger;
 import com.urbanairship.PendingResult;
 import com.urbanairship.PreferenceDataStore;
@@ -37,9 +37,9 @@ import com.urbanairship.util.RetryingExecutor;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -62,6 +62,11 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
      */
     private final static String PAUSE_KEY = "com.urbanairship.iam.paused";
 
+    /**
+     * Max number of schedules prepared at a time.
+     */
+    private final static int PREPARE_CONCURRENCY = 4;
+
     // State
     private final InAppRemoteDataObserver remoteDataSubscriber;
     private final AirshipChannel airshipChannel;
@@ -76,10 +81,10 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
     private final ActionsScheduleDelegate actionScheduleDelegate;
     private final InAppMessageScheduleDelegate inAppMessageScheduleDelegate;
 
-    private final Map<String, ScheduleDelegate<?>> scheduleDelegateMap = new HashMap<>();
-    private final Map<String, FrequencyChecker> frequencyCheckerMap = new HashMap<>();
+    private final Map<String, ScheduleDelegate<?>> scheduleDelegateMap = new ConcurrentHashMap<>();
+    private final Map<String, FrequencyChecker> frequencyCheckerMap = new ConcurrentHashMap<>();
 
-    private final Map<String, Uri> redirectURLs = new HashMap<>();
+    private final Map<String, Uri> redirectURLs = new ConcurrentHashMap<>();
 
     private final AtomicBoolean isStarted = new AtomicBoolean(false);
     private Subscription subscription;
@@ -119,6 +124,12 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
             return InAppAutomation.this.editSchedule(scheduleId, edits);
         }
 
+        @Override
+        @NonNull
+        public PendingResult<Boolean> editSchedules(@NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+            return InAppAutomation.this.editSchedules(edits);
+        }
+
         @NonNull
         @Override
         public PendingResult<Boolean> schedule(@NonNull List<Schedule<? extends ScheduleData>> schedules) {
@@ -175,7 +186,7 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
         this.remoteDataSubscriber = new InAppRemoteDataObserver(preferenceDataStore, remoteData);
         this.inAppMessageManager = new InAppMessageManager(context, preferenceDataStore, analytics, automationEngine::checkPendingSchedules);
 
-        this.retryingExecutor = RetryingExecutor.newSerialExecutor(Looper.getMainLooper());
+        this.retryingExecutor = RetryingExecutor.newBoundedExecutor(AirshipLoopers.getBackgroundLooper(), PREPARE_CONCURRENCY);
 
         this.deferredScheduleClient = new DeferredScheduleClient(runtimeConfig, new AuthManager(runtimeConfig, airshipChannel));
         this.actionScheduleDelegate = new ActionsScheduleDelegate();
@@ -459,6 +470,18 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
         return automationEngine.editSchedule(scheduleId, edits);
     }
 
+    /**
+     * Edits multiple schedules at once.
+     *
+     * @param edits The schedule edits by schedule ID.
+     * @return Pending result with {@code true} if every schedule was edited, otherwise {@code false}.
+     */
+    @NonNull
+    public PendingResult<Boolean> editSchedules(@NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+        ensureStarted();
+        return automationEngine.editSchedules(edits);
+    }
+
     /**
      * Pauses or unpauses automations.
      *
@@ -576,11 +599,11 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
                 if (isScheduleInvalid(schedule)) {
                     callbackWrapper.onFinish(AutomationDriver.PREPARE_RESULT_INVALIDATE);
                 } else {
-                    retryingExecutor.execute(operations);
+                    retryingExecutor.execute(schedule.getId(), operations);
                 }
             });
         } else {
-            retryingExecutor.execute(operations);
+            retryingExecutor.execute(schedule.getId(), operations);
         }
     }
 
@@ -31,8 +31,10 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -92,6 +94,9 @@ class InAppRemoteDataObserver {
 
     private static final String MIN_SDK_VERSION_KEY = "min_sdk_version";
 
+    // Remote-data metadata key for the request URL, which includes the locale
+    private static final String REMOTE_DATA_URL_KEY = "url";
+
     private final PreferenceDataStore preferenceDataStore;
     private final RemoteData remoteData;
     private final List<Listener> listeners = new ArrayList<>();
@@ -112,6 +117,9 @@ class InAppRemoteDataObserver {
         @NonNull
         PendingResult<Boolean> editSchedule(@NonNull String scheduleId, @NonNull ScheduleEdits<? extends ScheduleData> edits);
 
+        @NonNull
+        PendingResult<Boolean> editSchedules(@NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits);
+
         @NonNull
         PendingResult<Boolean> schedule(@NonNull List<Schedule<? extends ScheduleData>> schedules);
 
@@ -182,7 +190,7 @@ class InAppRemoteDataObserver {
                                  return true;
                              }
 
-                             return !payload.getMetadata().equals(getLastPayloadMetadata());
+                             return !isSameUrl(payload.getMetadata(), getLastPayloadMetadata());
                          })
                          .observeOn(Schedulers.looper(looper))
                          .subscribeOn(Schedulers.looper(looper))
@@ -213,10 +221,21 @@ class InAppRemoteDataObserver {
                                           .put(REMOTE_DATA_METADATA, payload.getMetadata())
                                           .build();
 
-        boolean isMetadataUpToDate = payload.getMetadata().equals(lastPayloadMetadata);
+        boolean isMetadataUpToDate = isSameUrl(payload.getMetadata(), lastPayloadMetadata);
         List<Schedule<? extends ScheduleData>> newSchedules = new ArrayList<>();
+        Map<String, ScheduleEdits<? extends ScheduleData>> scheduleEdits = new HashMap<>();
         List<String> incomingScheduleIds = new ArrayList<>();
         Set<String> scheduledRemoteIds = filterRemoteSchedules(delegate.getSchedules().get());
+        String lastSdkVersion = preferenceDataStore.getString(LAST_SDK_VERSION_KEY, null);
+
+        // The payload timestamp only changes when the in-app payload changes. A locale change
+        // returns localized messages under the same timestamp, so messages are only skipped when
+        // the remote-data URL, which includes the locale, is unchanged too.
+        if (payload.getTimestamp() == lastUpdate && isMetadataUpToDate && sdkVersion.equals(lastSdkVersion)) {
+            onPayloadProcessed(payload);
+            return;
+        }
+
         Collection<FrequencyConstraint> constraints = parseConstraints(payload.getData().opt(CONSTRAINTS_JSON_KEY).optList());
 
         // Update constraints
@@ -224,8 +243,6 @@ class InAppRemoteDataObserver {
             return;
         }
 
-        String lastSdkVersion = preferenceDataStore.getString(LAST_SDK_VERSION_KEY, null);
-
         // Parse messages
         for (JsonValue messageJson : payload.getData().opt(MESSAGES_JSON_KEY).optList()) {
             long createdTimeStamp, lastUpdatedTimeStamp;
@@ -252,11 +269,9 @@ class InAppRemoteDataObserver {
             }
             if (scheduledRemoteIds.contains(scheduleId)) {
                 try {
-                    ScheduleEdits<?> edits = parseEdits(messageJson, scheduleMetadata);
-                    Boolean edited = delegate.editSchedule(scheduleId, edits).get();
-                    if (edited != null && edited) {
-                        Logger.debug("Updated in-app automation: %s with edits: %s", scheduleId, edits);
-                    }
+                    ScheduleEdits<? extends ScheduleData> edits = parseEdits(messageJson, scheduleMetadata);
+                    scheduleEdits.put(scheduleId, edits);
+                    Logger.debug("Updating in-app automation: %s with edits: %s", scheduleId, edits);
                 } catch (JsonException e) {
                     Logger.error(e, "Failed to parse in-app automation edits: %s", scheduleId);
                 }
@@ -276,11 +291,6 @@ class InAppRemoteDataObserver {
             }
         }
 
-        // Schedule new in-app messages
-        if (!newSchedules.isEmpty()) {
-            delegate.schedule(newSchedules).get();
-        }
-
         // End any messages that are no longer in the listing
         Set<String> schedulesToRemove = new HashSet<>(scheduledRemoteIds);
         schedulesToRemove.removeAll(incomingScheduleIds);
@@ -297,11 +307,29 @@ class InAppRemoteDataObserver {
                                                                        .build();
 
             for (String scheduleId : schedulesToRemove) {
-                delegate.editSchedule(scheduleId, edits).get();
+                scheduleEdits.put(scheduleId, edits);
             }
         }
 
-        // Store data
+        // Apply all edits at once
+        if (!scheduleEdits.isEmpty()) {
+            delegate.editSchedules(scheduleEdits).get();
+        }
+
+        // Schedule new in-app messages
+        if (!newSchedules.isEmpty()) {
+            delegate.schedule(newSchedules).get();
+        }
+
+        onPayloadProcessed(payload);
+    }
+
+    /**
+     * Stores the processed payload info and notifies the listeners.
+     *
+     * @param payload The remote data payload.
+     */
+    private void onPayloadProcessed(@NonNull RemoteDataPayload payload) {
         preferenceDataStore.put(LAST_PAYLOAD_TIMESTAMP_KEY, payload.getTimestamp());
         preferenceDataStore.put(LAST_PAYLOAD_METADATA, payload.getMetadata());
         preferenceDataStore.put(LAST_SDK_VERSION_KEY, sdkVersion);
@@ -479,6 +507,18 @@ class InAppRemoteDataObserver {
         return preferenceDataStore.getJsonValue(LAST_PAYLOAD_METADATA).optMap();
     }
 
+    /**
+     * Checks if two remote-data metadata maps were fetched from the same URL and locale. Any
+     * other metadata, such as the last modified time stored by older SDK versions, is ignored.
+     *
+     * @param metadata The metadata.
+     * @param otherMetadata The other metadata.
+     * @return {@code true} if the URLs match, otherwise {@code false}.
+     */
+    private static boolean isSameUrl(@NonNull JsonMap metadata, @NonNull JsonMap otherMetadata) {
+        return metadata.opt(REMOTE_DATA_URL_KEY).equals(otherMetadata.opt(REMOTE_DATA_URL_KEY));
+    }
+
     /**
      * Creates a schedule info from a json value.
      *
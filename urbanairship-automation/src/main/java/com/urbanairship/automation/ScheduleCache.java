@@ -0,0 +1,126 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation;
+
+import android.util.LruCache;
+
+import com.urbanairship.automation.storage.FullSchedule;
+import com.urbanairship.json.JsonException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Bounded cache of schedules decoded from their storage entities.
+ * <p>
+ * Decoding a schedule parses its data, which for in-app messages can be a large layout. The
+ * fields that are decoded only change when a schedule is inserted or edited, so a decoded schedule
+ * is reused until the engine invalidates it. Each invalidation moves the schedule to a new
+ * version. Callers that load an entity on one thread and decode it on another should capture the
+ * version when loading, so a decode of an entity loaded before an edit is never cached.
+ */
+class ScheduleCache {
+
+    private final LruCache<String, Entry> cache;
+    private final Map<String, Long> versions = new HashMap<>();
+    private long nextVersion = 1;
+
+    /**
+     * Default constructor.
+     *
+     * @param maxSize The max number of decoded schedules.
+     */
+    ScheduleCache(int maxSize) {
+        this.cache = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Gets the current version of a schedule.
+     *
+     * @param scheduleId The schedule ID.
+     * @return The version.
+     */
+    synchronized long getVersion(@NonNull String scheduleId) {
+        Long version = versions.get(scheduleId);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Invalidates a schedule. Must be called whenever a schedule is inserted or edited.
+     *
+     * @param scheduleId The schedule ID.
+     */
+    synchronized void invalidate(@NonNull String scheduleId) {
+        versions.put(scheduleId, nextVersion++);
+        cache.remove(scheduleId);
+    }
+
+    /**
+     * Removes a schedule.
+     *
+     * @param scheduleId The schedule ID.
+     */
+    synchronized void remove(@NonNull String scheduleId) {
+        // Dropping the version is safe since inserting the schedule again invalidates it
+        versions.remove(scheduleId);
+        cache.remove(scheduleId);
+    }
+
+    /**
+     * Gets the decoded schedule for an entity at the current version of the schedule.
+     *
+     * @param entry The entity.
+     * @return The schedule.
+     * @throws JsonException If the schedule data is invalid.
+     * @throws IllegalArgumentException If the schedule type is invalid.
+     */
+    @NonNull
+    <T extends ScheduleData> Schedule<T> get(@NonNull FullSchedule entry) throws JsonException {
+        return get(entry, getVersion(entry.schedule.scheduleId));
+    }
+
+    /**
+     * Gets the decoded schedule for an entity.
+     *
+     * @param entry The entity.
+     * @param version The version of the schedule when the entity was loaded.
+     * @return The schedule.
+     * @throws JsonException If the schedule data is invalid.
+     * @throws IllegalArgumentException If the schedule type is invalid.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    <T extends ScheduleData> Schedule<T> get(@NonNull FullSchedule entry, long version) throws JsonException {
+        String scheduleId = entry.schedule.scheduleId;
+
+        Entry cached = cache.get(scheduleId);
+        if (cached != null && cached.version == version) {
+            return (Schedule<T>) cached.schedule;
+        }
+
+        Schedule<T> schedule = ScheduleConverters.convert(entry);
+
+        synchronized (this) {
+            if (version == getVersion(scheduleId)) {
+                cache.put(scheduleId, new Entry(version, schedule));
+            }
+        }
+
+        return schedule;
+    }
+
+    private static class Entry {
+
+        final long version;
+        final Schedule<? extends ScheduleData> schedule;
+
+        Entry(long version, @NonNull Schedule<? extends ScheduleData> schedule) {
+            this.version = version;
+            this.schedule = schedule;
+        }
+
+    }
+
+}
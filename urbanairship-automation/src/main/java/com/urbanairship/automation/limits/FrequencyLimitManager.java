@@ -19,11 +19,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 
@@ -41,10 +38,10 @@ import androidx.annotation.VisibleForTesting;
 public class FrequencyLimitManager {
 
     /*
-     * A frequency checker will have a strong reference to the list of constraints entities. Once
-     * the checker is cleaned up this should remove the values from the map.
+     * Occurrence counters by constraint ID, shared by every checker. Counters are loaded the first
+     * time a checker needs the constraint and replaced once the constraint changes.
      */
-    private final Map<ConstraintEntity, List<OccurrenceEntity>> occurrencesMap = new WeakHashMap<>();
+    private final Map<String, OccurrenceCounter> counters = new HashMap<>();
 
     /*
      * List of pending occurrences to write to the database.
@@ -55,6 +52,14 @@ public class FrequencyLimitManager {
     private final FrequencyLimitDao dao;
     private final Clock clock;
     private final Executor executor;
+    private boolean isWriteScheduled;
+
+    private final Runnable writeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            writePendingOccurrences();
+        }
+    };
 
     public FrequencyLimitManager(@NonNull Context context, @NonNull AirshipRuntimeConfig config) {
         this(FrequencyLimitDatabase.createDatabase(context, config).getDao(), Clock.DEFAULT_CLOCK, AirshipExecutors.newSerialExecutor());
@@ -83,16 +88,16 @@ public class FrequencyLimitManager {
             @Override
             public void run() {
                 try {
-                    final Collection<ConstraintEntity> constraints = fetchConstraints(constraintIds);
+                    final Collection<OccurrenceCounter> checkerCounters = fetchCounters(constraintIds);
                     FrequencyChecker checker = new FrequencyChecker() {
                         @Override
                         public boolean isOverLimit() {
-                            return FrequencyLimitManager.this.isOverLimit(constraints);
+                            return FrequencyLimitManager.this.isOverLimit(checkerCounters);
                         }
 
                         @Override
                         public boolean checkAndIncrement() {
-                            return FrequencyLimitManager.this.checkAndIncrement(constraints);
+                            return FrequencyLimitManager.this.checkAndIncrement(checkerCounters);
                         }
                     };
                     pendingResult.setResult(checker);
@@ -136,7 +141,15 @@ public class FrequencyLimitManager {
                                 dao.delete(existing);
                                 dao.insert(entity);
                             } else {
+                                entity.id = existing.id;
                                 dao.update(entity);
+
+                                // Expired occurrences no longer count towards the limit
+                                dao.deleteOccurrences(entity.constraintId, clock.currentTimeMillis() - entity.range);
+                            }
+
+                            if (existing.range != entity.range || existing.count != entity.count) {
+                                removeCounter(entity.constraintId);
                             }
                         } else {
                             dao.insert(entity);
@@ -144,6 +157,9 @@ public class FrequencyLimitManager {
                     }
 
                     dao.delete(constraintEntityMap.keySet());
+                    for (String constraintId : constraintEntityMap.keySet()) {
+                        removeCounter(constraintId);
+                    }
                     pendingResult.setResult(true);
                 } catch (Exception e) {
                     Logger.error(e, "Failed to update constraints");
@@ -155,28 +171,29 @@ public class FrequencyLimitManager {
         return pendingResult;
     }
 
-    private boolean checkAndIncrement(@NonNull Collection<ConstraintEntity> constraints) {
-        if (constraints.isEmpty()) {
+    private boolean checkAndIncrement(@NonNull Collection<OccurrenceCounter> checkerCounters) {
+        if (checkerCounters.isEmpty()) {
             return true;
         }
 
         synchronized (lock) {
-            if (isOverLimit(constraints)) {
+            if (isOverLimit(checkerCounters)) {
                 return false;
             }
-            recordOccurrence(getConstraintIds(constraints));
+            recordOccurrence(checkerCounters);
             return true;
         }
     }
 
-    private boolean isOverLimit(@NonNull Collection<ConstraintEntity> constraints) {
-        if (constraints.isEmpty()) {
+    private boolean isOverLimit(@NonNull Collection<OccurrenceCounter> checkerCounters) {
+        if (checkerCounters.isEmpty()) {
             return false;
         }
 
         synchronized (lock) {
-            for (ConstraintEntity constraint : constraints) {
-                if (isConstraintOverLimit(constraint)) {
+            long timeMillis = clock.currentTimeMillis();
+            for (OccurrenceCounter counter : checkerCounters) {
+                if (counter.isOverLimit(timeMillis)) {
                     return true;
                 }
             }
@@ -184,59 +201,81 @@ public class FrequencyLimitManager {
         }
     }
 
-    private void recordOccurrence(@NonNull Set<String> constraintIds) {
-        if (constraintIds.isEmpty()) {
-            return;
-        }
-
+    private void recordOccurrence(@NonNull Collection<OccurrenceCounter> checkerCounters) {
         long timeMillis = clock.currentTimeMillis();
 
-        for (String id : constraintIds) {
+        for (OccurrenceCounter counter : checkerCounters) {
+            counter.record(timeMillis);
+
+            // Checkers created before the constraint was updated still hold the previous counter
+            OccurrenceCounter current = counters.get(counter.constraintId);
+            if (current != null && current != counter) {
+                current.record(timeMillis);
+            }
+
             OccurrenceEntity occurrence = new OccurrenceEntity();
-            occurrence.parentConstraintId = id;
+            occurrence.parentConstraintId = counter.constraintId;
             occurrence.timeStamp = timeMillis;
-
             pendingOccurrences.add(occurrence);
-
-            // Update any constraints that are still active
-            for (Map.Entry<ConstraintEntity, List<OccurrenceEntity>> entry : occurrencesMap.entrySet()) {
-                ConstraintEntity constraint = entry.getKey();
-                if (constraint != null && id.equals(constraint.constraintId)) {
-                    entry.getValue().add(occurrence);
-                }
-            }
         }
 
-        // Save to database
-        executor.execute(new Runnable() {
-            @Override
-            public void run() {
-                writePendingOccurrences();
-            }
-        });
+        // Save to database, batching any occurrences recorded before the write runs
+        if (!isWriteScheduled) {
+            isWriteScheduled = true;
+            executor.execute(writeRunnable);
+        }
     }
 
     @NonNull
-    private Collection<ConstraintEntity> fetchConstraints(@Nullable Collection<String> constraintIds) {
+    private Collection<OccurrenceCounter> fetchCounters(@Nullable Collection<String> constraintIds) {
         if (constraintIds == null || constraintIds.isEmpty()) {
             return Collections.emptyList();
         }
 
         Collection<ConstraintEntity> constraints = dao.getConstraints(constraintIds);
-
+        List<OccurrenceCounter> checkerCounters = new ArrayList<>(constraints.size());
         for (ConstraintEntity constraint : constraints) {
-            List<OccurrenceEntity> occurrences = dao.getOccurrences(constraint.constraintId);
-            synchronized (lock) {
-                for (OccurrenceEntity entity : pendingOccurrences) {
-                    if (entity.parentConstraintId.equals(constraint.constraintId)) {
-                        occurrences.add(entity);
-                    }
+            checkerCounters.add(getCounter(constraint));
+        }
+
+        return checkerCounters;
+    }
+
+    @NonNull
+    private OccurrenceCounter getCounter(@NonNull ConstraintEntity constraint) {
+        synchronized (lock) {
+            OccurrenceCounter counter = counters.get(constraint.constraintId);
+            if (counter != null) {
+                return counter;
+            }
+        }
+
+        dao.deleteOccurrences(constraint.constraintId, clock.currentTimeMillis() - constraint.range);
+        List<OccurrenceEntity> occurrences = dao.getRecentOccurrences(constraint.constraintId, constraint.count);
+
+        synchronized (lock) {
+            OccurrenceCounter counter = new OccurrenceCounter(constraint);
+
+            // Recent occurrences are sorted newest first
+            for (int i = occurrences.size() - 1; i >= 0; i--) {
+                counter.record(occurrences.get(i).timeStamp);
+            }
+
+            for (OccurrenceEntity entity : pendingOccurrences) {
+                if (entity.parentConstraintId.equals(constraint.constraintId)) {
+                    counter.record(entity.timeStamp);
                 }
-                occurrencesMap.put(constraint, occurrences);
             }
+
+            counters.put(constraint.constraintId, counter);
+            return counter;
         }
+    }
 
-        return constraints;
+    private void removeCounter(@NonNull String constraintId) {
+        synchronized (lock) {
+            counters.remove(constraintId);
+        }
     }
 
     private void writePendingOccurrences() {
@@ -244,35 +283,68 @@ public class FrequencyLimitManager {
         synchronized (lock) {
             pending = new ArrayList<>(pendingOccurrences);
             pendingOccurrences.clear();
+            isWriteScheduled = false;
+        }
+
+        if (pending.isEmpty()) {
+            return;
         }
 
-        for (OccurrenceEntity occurrence : pending) {
-            try {
-                dao.insert(occurrence);
-            } catch (SQLiteException e) {
-                Logger.verbose(e);
+        try {
+            dao.insert(pending);
+        } catch (SQLiteException e) {
+            // The batch is rolled back if any constraint was removed since its occurrence was
+            // recorded, so fall back to writing them one at a time
+            Logger.verbose(e);
+            for (OccurrenceEntity occurrence : pending) {
+                try {
+                    dao.insert(occurrence);
+                } catch (SQLiteException insertException) {
+                    Logger.verbose(insertException);
+                }
             }
         }
     }
 
-    private boolean isConstraintOverLimit(@NonNull ConstraintEntity constraint) {
-        List<OccurrenceEntity> occurrences = occurrencesMap.get(constraint);
+    /**
+     * Sliding window of the most recent occurrences of a constraint. Only the newest {@code count}
+     * timestamps are kept, since the constraint is over the limit whenever the oldest of those is
+     * still within the range.
+     */
+    private static class OccurrenceCounter {
 
-        if (occurrences == null || occurrences.size() < constraint.count) {
-            return false;
+        final String constraintId;
+        final long range;
+
+        private final long[] timestamps;
+        private int size;
+        private int next;
+
+        OccurrenceCounter(@NonNull ConstraintEntity constraint) {
+            this.constraintId = constraint.constraintId;
+            this.range = constraint.range;
+            this.timestamps = new long[Math.max(constraint.count, 0)];
         }
 
-        long timeSinceOccurrence = clock.currentTimeMillis() - occurrences.get(occurrences.size() - constraint.count).timeStamp;
-        return timeSinceOccurrence <= constraint.range;
-    }
+        void record(long timeMillis) {
+            if (timestamps.length == 0) {
+                return;
+            }
 
-    @NonNull
-    private Set<String> getConstraintIds(@NonNull Collection<ConstraintEntity> constraints) {
-        Set<String> constraintIds = new HashSet<>();
-        for (ConstraintEntity constraint : constraints) {
-            constraintIds.add(constraint.constraintId);
+            timestamps[next] = timeMillis;
+            next = (next + 1) % timestamps.length;
+            size = Math.min(size + 1, timestamps.length);
         }
-        return constraintIds;
+
+        boolean isOverLimit(long timeMillis) {
+            if (timestamps.length == 0 || size < timestamps.length) {
+                return false;
+            }
+
+            // Once full, the next slot holds the oldest timestamp
+            return timeMillis - timestamps[next] <= range;
+        }
+
     }
 
 }
@@ -31,6 +31,9 @@ public interface FrequencyLimitDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(@NonNull OccurrenceEntity occurrence);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(@NonNull List<OccurrenceEntity> occurrences);
+
     @Query("SELECT * FROM constraints WHERE (constraintId IN (:constraintIds))")
     List<ConstraintEntity> getConstraints(Collection<String> constraintIds);
 
@@ -40,6 +43,12 @@ public interface FrequencyLimitDao {
     @Query("SELECT * FROM occurrences WHERE parentConstraintId = :constraintId ORDER BY timeStamp ASC")
     List<OccurrenceEntity> getOccurrences(String constraintId);
 
+    @Query("SELECT * FROM occurrences WHERE parentConstraintId = :constraintId ORDER BY timeStamp DESC LIMIT :limit")
+    List<OccurrenceEntity> getRecentOccurrences(String constraintId, int limit);
+
+    @Query("DELETE FROM occurrences WHERE parentConstraintId = :constraintId AND timeStamp < :timeStamp")
+    void deleteOccurrences(String constraintId, long timeStamp);
+
     @Delete
     @Transaction
     void delete(ConstraintEntity entity);
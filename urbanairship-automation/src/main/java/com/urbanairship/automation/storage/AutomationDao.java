@@ -117,6 +117,12 @@ public abstract class AutomationDao {
     @NonNull
     public abstract List<TriggerEntity> getActiveTriggers(int type);
 
+    @Query("SELECT MIN(scheduleStart) FROM schedules " +
+            "WHERE (executionState != " + ScheduleState.FINISHED + ") " +
+            "AND (scheduleStart > strftime('%s', 'now') * 1000)")
+    @Nullable
+    public abstract Long getNextScheduleStart();
+
     @Transaction
     public void insert(@NonNull Collection<FullSchedule> entries) {
         for (FullSchedule entry : entries) {
@@ -130,6 +136,7 @@ public abstract class AutomationDao {
         insert(entry.schedule, entry.triggers);
     }
 
+    @Transaction
     public void updateSchedules(@NonNull Collection<FullSchedule> entries) {
         for (FullSchedule entry : entries) {
             if (entry != null) {
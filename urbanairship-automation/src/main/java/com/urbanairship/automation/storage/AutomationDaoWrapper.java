@@ -44,6 +44,24 @@ public class AutomationDaoWrapper extends AutomationDao {
         }
     }
 
+    @Override
+    public void insert(@NonNull Collection<FullSchedule> entries) {
+        try {
+            dao.insert(entries);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to insert schedules %s", entries);
+        }
+    }
+
+    @Override
+    public void updateSchedules(@NonNull Collection<FullSchedule> entries) {
+        try {
+            dao.updateSchedules(entries);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to update schedules %s", entries);
+        }
+    }
+
     @Override
     public void updateTriggers(@NonNull List<TriggerEntity> entities) {
         try {
@@ -204,4 +222,15 @@ public class AutomationDaoWrapper extends AutomationDao {
         }
     }
 
+    @Nullable
+    @Override
+    public Long getNextScheduleStart() {
+        try {
+            return dao.getNextScheduleStart();
+        } catch (Exception e) {
+            Logger.error(e, "Failed to get next schedule start");
+            return null;
+        }
+    }
+
 }
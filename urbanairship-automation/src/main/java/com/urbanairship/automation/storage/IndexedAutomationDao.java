@@ -0,0 +1,408 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.storage;
+
+import android.util.SparseArray;
+
+import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.automation.Trigger;
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonPredicate;
+import com.urbanairship.json.JsonSerializable;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.json.matchers.ExactValueMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * AutomationDao that keeps an in-memory index of active triggers and writes trigger progress
+ * behind.
+ * <p>
+ * Active triggers are loaded once per trigger type and kept until a schedule is inserted, updated
+ * or deleted, or until the next pending schedule start time passes. Custom event triggers are
+ * further indexed by the event name they match so an event only visits triggers that can match it.
+ * <p>
+ * Trigger progress updates from {@link #updateTriggers(List)} are kept in memory until
+ * {@link #flushTriggers()} is called. Schedules read through this DAO are patched with the pending
+ * progress, and writing a schedule writes its triggers, so readers always see the latest progress.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class IndexedAutomationDao extends AutomationDao {
+
+    private final AutomationDao dao;
+    private final SparseArray<TypeIndex> index = new SparseArray<>();
+    private final Map<Integer, TriggerEntity> indexedTriggers = new HashMap<>();
+    private final Map<Integer, TriggerEntity> pendingTriggers = new HashMap<>();
+    private long indexExpiration = Long.MAX_VALUE;
+
+    public IndexedAutomationDao(@NonNull AutomationDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Gets the active triggers for the given type that could match the event. For custom event
+     * triggers this skips triggers that require a different event name.
+     *
+     * @param type The trigger type.
+     * @param event The event.
+     * @return The active triggers.
+     */
+    @NonNull
+    public synchronized List<TriggerEntity> getActiveTriggers(int type, @Nullable JsonSerializable event) {
+        TypeIndex typeIndex = getTypeIndex(type);
+        if (typeIndex.triggersByEventName == null || event == null) {
+            return new ArrayList<>(typeIndex.triggers);
+        }
+
+        String eventName = event.toJsonValue().optMap().opt(CustomEvent.EVENT_NAME).getString();
+        List<TriggerEntity> named = eventName == null ? null : typeIndex.triggersByEventName.get(eventName);
+
+        List<TriggerEntity> result = new ArrayList<>(typeIndex.unnamedTriggers);
+        if (named != null) {
+            result.addAll(named);
+        }
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<TriggerEntity> getActiveTriggers(int type) {
+        return new ArrayList<>(getTypeIndex(type).triggers);
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<TriggerEntity> getActiveTriggers(int type, @NonNull String scheduleId) {
+        List<TriggerEntity> triggers = dao.getActiveTriggers(type, scheduleId);
+        for (int i = 0; i < triggers.size(); i++) {
+            TriggerEntity indexed = indexedTriggers.get(triggers.get(i).id);
+            if (indexed != null) {
+                triggers.set(i, indexed);
+            } else {
+                applyPendingProgress(triggers.get(i));
+            }
+        }
+        return triggers;
+    }
+
+    /**
+     * Queues the trigger progress to be written on the next {@link #flushTriggers()}. Only the
+     * latest progress for each trigger is written.
+     *
+     * @param entities The triggers.
+     */
+    @Override
+    public synchronized void updateTriggers(@NonNull List<TriggerEntity> entities) {
+        for (TriggerEntity entity : entities) {
+            TriggerEntity indexed = indexedTriggers.get(entity.id);
+            if (indexed != null && indexed != entity) {
+                indexed.progress = entity.progress;
+            }
+            pendingTriggers.put(entity.id, entity);
+        }
+    }
+
+    /**
+     * Writes any pending trigger progress in a single transaction.
+     */
+    public synchronized void flushTriggers() {
+        if (pendingTriggers.isEmpty()) {
+            return;
+        }
+
+        List<TriggerEntity> triggers = new ArrayList<>(pendingTriggers.values());
+        pendingTriggers.clear();
+        dao.updateTriggers(triggers);
+    }
+
+    /**
+     * Checks if there is any trigger progress that has not been written yet.
+     *
+     * @return {@code true} if there is pending progress, otherwise {@code false}.
+     */
+    public synchronized boolean hasPendingTriggers() {
+        return !pendingTriggers.isEmpty();
+    }
+
+    @Override
+    public synchronized void insert(@NonNull ScheduleEntity entity, @NonNull List<TriggerEntity> entities) {
+        dao.insert(entity, entities);
+        invalidate();
+    }
+
+    @Override
+    public synchronized void insert(@NonNull Collection<FullSchedule> entries) {
+        dao.insert(entries);
+        invalidate();
+    }
+
+    @Override
+    public synchronized void update(@NonNull ScheduleEntity entity, @NonNull List<TriggerEntity> entities) {
+        for (TriggerEntity trigger : entities) {
+            pendingTriggers.remove(trigger.id);
+        }
+        dao.update(entity, entities);
+        invalidate();
+    }
+
+    @Override
+    public synchronized void updateSchedules(@NonNull Collection<FullSchedule> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        for (FullSchedule entry : entries) {
+            if (entry != null) {
+                for (TriggerEntity trigger : entry.triggers) {
+                    pendingTriggers.remove(trigger.id);
+                }
+            }
+        }
+        dao.updateSchedules(entries);
+        invalidate();
+    }
+
+    @Override
+    public synchronized void delete(@NonNull ScheduleEntity entity) {
+        dao.delete(entity);
+        invalidate();
+    }
+
+    @Override
+    public synchronized void deleteSchedules(@NonNull Collection<FullSchedule> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        dao.deleteSchedules(entries);
+        invalidate();
+    }
+
+    @Override
+    public int getScheduleCount() {
+        return dao.getScheduleCount();
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<FullSchedule> getSchedules() {
+        return applyPendingProgress(dao.getSchedules());
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<FullSchedule> getSchedulesByType(@NonNull String type) {
+        return applyPendingProgress(dao.getSchedulesByType(type));
+    }
+
+    @Nullable
+    @Override
+    public synchronized FullSchedule getSchedule(@NonNull String scheduleId) {
+        return applyPendingProgress(dao.getSchedule(scheduleId));
+    }
+
+    @Nullable
+    @Override
+    public synchronized FullSchedule getSchedule(@NonNull String scheduleId, @NonNull String type) {
+        return applyPendingProgress(dao.getSchedule(scheduleId, type));
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds) {
+        return applyPendingProgress(dao.getSchedules(scheduleIds));
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds, @NonNull String type) {
+        return applyPendingProgress(dao.getSchedules(scheduleIds, type));
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<FullSchedule> getSchedulesWithGroup(@NonNull String group, @NonNull String type) {
+        return applyPendingProgress(dao.getSchedulesWithGroup(group, type));
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<FullSchedule> getSchedulesWithGroup(@NonNull String group) {
+        return applyPendingProgress(dao.getSchedulesWithGroup(group));
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<FullSchedule> getSchedulesWithStates(int... executionStates) {
+        return applyPendingProgress(dao.getSchedulesWithStates(executionStates));
+    }
+
+    @NonNull
+    @Override
+    public synchronized List<FullSchedule> getActiveExpiredSchedules() {
+        return applyPendingProgress(dao.getActiveExpiredSchedules());
+    }
+
+    @Nullable
+    @Override
+    public Long getNextScheduleStart() {
+        return dao.getNextScheduleStart();
+    }
+
+    /**
+     * Drops the trigger index. It will be reloaded on the next event.
+     */
+    private void invalidate() {
+        index.clear();
+        indexedTriggers.clear();
+        indexExpiration = Long.MAX_VALUE;
+    }
+
+    @NonNull
+    private TypeIndex getTypeIndex(int type) {
+        if (System.currentTimeMillis() >= indexExpiration) {
+            invalidate();
+        }
+
+        TypeIndex typeIndex = index.get(type);
+        if (typeIndex != null) {
+            return typeIndex;
+        }
+
+        if (index.size() == 0) {
+            // Schedules that have not started yet are excluded from the active triggers, so the
+            // index is only valid until the next schedule starts.
+            Long nextStart = dao.getNextScheduleStart();
+            indexExpiration = nextStart == null ? Long.MAX_VALUE : nextStart;
+        }
+
+        List<TriggerEntity> triggers = dao.getActiveTriggers(type);
+        for (int i = 0; i < triggers.size(); i++) {
+            TriggerEntity trigger = triggers.get(i);
+            TriggerEntity pending = pendingTriggers.get(trigger.id);
+            if (pending != null) {
+                trigger.progress = pending.progress;
+                pendingTriggers.put(trigger.id, trigger);
+            }
+            indexedTriggers.put(trigger.id, trigger);
+        }
+
+        typeIndex = new TypeIndex(triggers, type == Trigger.CUSTOM_EVENT_COUNT || type == Trigger.CUSTOM_EVENT_VALUE);
+        index.put(type, typeIndex);
+        return typeIndex;
+    }
+
+    @Nullable
+    private FullSchedule applyPendingProgress(@Nullable FullSchedule entry) {
+        if (entry != null && !pendingTriggers.isEmpty()) {
+            for (TriggerEntity trigger : entry.triggers) {
+                applyPendingProgress(trigger);
+            }
+        }
+        return entry;
+    }
+
+    @NonNull
+    private List<FullSchedule> applyPendingProgress(@NonNull List<FullSchedule> entries) {
+        if (!pendingTriggers.isEmpty()) {
+            for (FullSchedule entry : entries) {
+                applyPendingProgress(entry);
+            }
+        }
+        return entries;
+    }
+
+    private void applyPendingProgress(@NonNull TriggerEntity trigger) {
+        TriggerEntity pending = pendingTriggers.get(trigger.id);
+        if (pending != null) {
+            trigger.progress = pending.progress;
+        }
+    }
+
+    /**
+     * Finds the event name a custom event trigger predicate requires, if any. Only predicates
+     * that can not match without an exact, case sensitive {@code event_name} are considered.
+     *
+     * @param json The predicate JSON.
+     * @return The required event name, or {@code null}.
+     */
+    @Nullable
+    private static String requiredEventName(@NonNull JsonValue json) {
+        JsonMap map = json.optMap();
+
+        JsonList and = map.opt(JsonPredicate.AND_PREDICATE_TYPE).getList();
+        if (and != null) {
+            for (JsonValue child : and) {
+                String name = requiredEventName(child);
+                if (name != null) {
+                    return name;
+                }
+            }
+            return null;
+        }
+
+        JsonList or = map.opt(JsonPredicate.OR_PREDICATE_TYPE).getList();
+        if (or != null) {
+            return or.size() == 1 ? requiredEventName(or.get(0)) : null;
+        }
+
+        if (!CustomEvent.EVENT_NAME.equals(map.opt("key").getString())
+                || map.containsKey("scope")
+                || map.opt("ignore_case").getBoolean(false)) {
+            return null;
+        }
+
+        return map.opt("value").optMap().opt(ExactValueMatcher.EQUALS_VALUE_KEY).getString();
+    }
+
+    /**
+     * Active triggers for a single trigger type.
+     */
+    private static class TypeIndex {
+
+        final List<TriggerEntity> triggers;
+        final List<TriggerEntity> unnamedTriggers;
+        final Map<String, List<TriggerEntity>> triggersByEventName;
+
+        TypeIndex(@NonNull List<TriggerEntity> triggers, boolean indexEventNames) {
+            this.triggers = triggers;
+
+            if (!indexEventNames) {
+                this.unnamedTriggers = Collections.emptyList();
+                this.triggersByEventName = null;
+                return;
+            }
+
+            this.unnamedTriggers = new ArrayList<>();
+            this.triggersByEventName = new HashMap<>();
+            for (TriggerEntity trigger : triggers) {
+                String name = trigger.jsonPredicate == null ? null : requiredEventName(trigger.jsonPredicate.toJsonValue());
+                if (name == null) {
+                    unnamedTriggers.add(trigger);
+                    continue;
+                }
+
+                List<TriggerEntity> named = triggersByEventName.get(name);
+                if (named == null) {
+                    named = new ArrayList<>();
+                    triggersByEventName.put(name, named);
+                }
+                named.add(trigger);
+            }
+        }
+
+    }
+
+}
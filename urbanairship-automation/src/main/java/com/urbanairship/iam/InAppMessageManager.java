@@ -3,9 +3,9 @@
 package com.urbanairship.iam;
 
 import android.content.Context;
-import android.os.Looper;
 import android.view.Display;
 
+import com.urbanairship.AirshipLoopers;
 import com.urbanairship.Logger;
 import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.actions.ActionRunRequestFactory;
@@ -81,6 +81,11 @@ public class InAppMessageManager {
      */
     private static final String DISPLAY_INTERVAL_KEY = "com.urbanairship.iam.displayinterval";
 
+    /**
+     * Max number of messages prepared at a time. Work for a single schedule always runs in order.
+     */
+    private static final int PREPARE_CONCURRENCY = 4;
+
     // State
     private final Map<String, AdapterWrapper> adapterWrappers = Collections.synchronizedMap(new HashMap<String, AdapterWrapper>());
 
@@ -123,7 +128,7 @@ public class InAppMessageManager {
                                @NonNull PreferenceDataStore dataStore,
                                @NonNull Analytics analytics,
                                @NonNull Delegate delegate) {
-        this(context, dataStore, analytics, RetryingExecutor.newSerialExecutor(Looper.getMainLooper()),
+        this(context, dataStore, analytics, RetryingExecutor.newBoundedExecutor(AirshipLoopers.getBackgroundLooper(), PREPARE_CONCURRENCY),
                 new ActionRunRequestFactory(), new AssetManager(context), delegate);
     }
 
@@ -316,7 +321,7 @@ public class InAppMessageManager {
         };
 
         // Execute the operations
-        executor.execute(prepareAssets, prepareAdapter);
+        executor.execute(scheduleId, prepareAssets, prepareAdapter);
     }
 
     /**
@@ -362,7 +367,7 @@ public class InAppMessageManager {
         } catch (AdapterWrapper.DisplayException e) {
             Logger.error(e, "Failed to display in-app message for schedule %s.", scheduleId);
             callExecutionFinishedCallback(scheduleId);
-            executor.execute(new Runnable() {
+            executor.execute(scheduleId, new Runnable() {
                 @Override
                 public void run() {
                     adapterWrapper.adapterFinished(context);
@@ -400,7 +405,7 @@ public class InAppMessageManager {
             return;
         }
 
-        executor.execute(() -> assetManager.onDisplayFinished(scheduleId, adapterWrapper.message));
+        executor.execute(scheduleId, () -> assetManager.onDisplayFinished(scheduleId, adapterWrapper.message));
     }
 
     /**
@@ -408,7 +413,7 @@ public class InAppMessageManager {
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public void onExecutionInterrupted(@NonNull final String scheduleId, @Nullable final JsonValue campaigns, @Nullable final JsonValue reportingContext, @Nullable final InAppMessage message) {
-        executor.execute(() -> {
+        executor.execute(scheduleId, () -> {
             // Null message must be deferred
             if (message == null || message.isReportingEnabled()) {
                 String source = message != null ? message.getSource() : InAppMessage.SOURCE_REMOTE_DATA;
@@ -472,7 +477,7 @@ public class InAppMessageManager {
         // Finish the schedule
         callExecutionFinishedCallback(scheduleId);
         adapterWrapper.displayFinished();
-        executor.execute(() -> {
+        executor.execute(scheduleId, () -> {
             adapterWrapper.adapterFinished(context);
             // Notify the asset manager
             assetManager.onDisplayFinished(adapterWrapper.scheduleId, adapterWrapper.message);
@@ -519,7 +524,7 @@ public class InAppMessageManager {
 
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public void onMessageScheduleFinished(@NonNull final String scheduleId) {
-        executor.execute(new Runnable() {
+        executor.execute(scheduleId, new Runnable() {
             @Override
             public void run() {
                 assetManager.onFinish(scheduleId);
@@ -529,7 +534,7 @@ public class InAppMessageManager {
 
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public void onNewMessageSchedule(@NonNull final String scheduleId, @NonNull final InAppMessage message) {
-        executor.execute(new Runnable() {
+        executor.execute(scheduleId, new Runnable() {
             @Override
             public void run() {
                 assetManager.onSchedule(scheduleId, new Callable<InAppMessage>() {
@@ -13,21 +13,42 @@ import com.urbanairship.iam.fullscreen.FullScreenDisplayContent;
 import com.urbanairship.iam.layout.AirshipLayoutDisplayContent;
 import com.urbanairship.iam.modal.ModalDisplayContent;
 import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.util.AirshipThreadFactory;
 import com.urbanairship.util.FileUtils;
 import com.urbanairship.util.UAHttpStatusUtil;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 /**
  * Default {@link PrepareAssetsDelegate} for Airship message types.
+ * <p>
+ * Assets are downloaded in parallel on a shared, bounded download pool. A URL that is already
+ * being downloaded for another message is not downloaded twice; the finished file is copied
+ * into the waiting message's assets instead.
  */
 public class AirshipPrepareAssetsDelegate implements PrepareAssetsDelegate {
 
@@ -43,6 +64,22 @@ public class AirshipPrepareAssetsDelegate implements PrepareAssetsDelegate {
     @NonNull
     public static final String IMAGE_HEIGHT_CACHE_KEY = "height";
 
+    /**
+     * Max number of assets downloaded at once across all messages.
+     */
+    private static final int MAX_CONCURRENT_DOWNLOADS = 4;
+
+    private static final ThreadPoolExecutor DOWNLOAD_EXECUTOR;
+
+    static {
+        DOWNLOAD_EXECUTOR = new ThreadPoolExecutor(MAX_CONCURRENT_DOWNLOADS, MAX_CONCURRENT_DOWNLOADS,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new AirshipThreadFactory("AssetDownloads"));
+        DOWNLOAD_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private static final Map<String, InFlightDownload> IN_FLIGHT_DOWNLOADS = new HashMap<>();
+
     /**
      * {@inheritDoc}
      */
@@ -57,25 +94,126 @@ public class AirshipPrepareAssetsDelegate implements PrepareAssetsDelegate {
     @Override
     @AssetManager.PrepareResult
     public int onPrepare(@NonNull String scheduleId, @NonNull InAppMessage message, @NonNull Assets assets) {
-        List<String> cacheableUrls = getCacheableUrls(message);
-        for (String url : cacheableUrls) {
-            if (assets.file(url).exists()) {
-                continue;
+        Set<String> urls = new LinkedHashSet<>();
+        for (String url : getCacheableUrls(message)) {
+            if (!assets.file(url).exists()) {
+                urls.add(url);
             }
+        }
 
-            try {
-                FileUtils.DownloadResult result = cacheImage(assets, url);
-                if (!result.isSuccess) {
-                    if (UAHttpStatusUtil.inClientErrorRange(result.statusCode)) {
-                        return AssetManager.PREPARE_RESULT_CANCEL;
-                    }
+        if (urls.isEmpty()) {
+            return AssetManager.PREPARE_RESULT_OK;
+        }
 
-                    return AssetManager.PREPARE_RESULT_RETRY;
-                }
+        Map<String, InFlightDownload> downloads = new LinkedHashMap<>();
+        for (String url : urls) {
+            downloads.put(url, startDownload(assets, url));
+        }
+
+        boolean retry = false;
+        for (Map.Entry<String, InFlightDownload> entry : downloads.entrySet()) {
+            String url = entry.getKey();
+
+            int result;
+            try {
+                result = awaitDownload(assets, url, entry.getValue());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Logger.error(e, "Interrupted while downloading file: %s", url);
+                return AssetManager.PREPARE_RESULT_RETRY;
+            } catch (ExecutionException e) {
+                Logger.error(e.getCause(), "Unable to download file: %s ", url);
+                result = AssetManager.PREPARE_RESULT_RETRY;
             } catch (IOException e) {
                 Logger.error(e, "Unable to download file: %s ", url);
-                return AssetManager.PREPARE_RESULT_RETRY;
+                result = AssetManager.PREPARE_RESULT_RETRY;
             }
+
+            // The message can never display, no need to wait on the rest
+            if (result == AssetManager.PREPARE_RESULT_CANCEL) {
+                return AssetManager.PREPARE_RESULT_CANCEL;
+            }
+
+            if (result == AssetManager.PREPARE_RESULT_RETRY) {
+                retry = true;
+            }
+        }
+
+        return retry ? AssetManager.PREPARE_RESULT_RETRY : AssetManager.PREPARE_RESULT_OK;
+    }
+
+    /**
+     * Starts downloading a URL on the download pool, or joins the download of the same URL if one
+     * is already in flight.
+     *
+     * @param assets The assets.
+     * @param url The URL.
+     * @return The in flight download.
+     */
+    @NonNull
+    private InFlightDownload startDownload(@NonNull final Assets assets, @NonNull final String url) {
+        synchronized (IN_FLIGHT_DOWNLOADS) {
+            InFlightDownload existing = IN_FLIGHT_DOWNLOADS.get(url);
+            if (existing != null) {
+                return existing;
+            }
+
+            InFlightDownload download = new InFlightDownload(assets, new FutureTask<>(new Callable<FileUtils.DownloadResult>() {
+                @Override
+                public FileUtils.DownloadResult call() throws IOException {
+                    try {
+                        return cacheImage(assets, url);
+                    } finally {
+                        synchronized (IN_FLIGHT_DOWNLOADS) {
+                            IN_FLIGHT_DOWNLOADS.remove(url);
+                        }
+                    }
+                }
+            }));
+
+            IN_FLIGHT_DOWNLOADS.put(url, download);
+            DOWNLOAD_EXECUTOR.execute(download.task);
+            return download;
+        }
+    }
+
+    /**
+     * Waits for a download to finish. If the download was for another message's assets, the
+     * downloaded file and its metadata are copied into the given assets.
+     *
+     * @param assets The assets.
+     * @param url The URL.
+     * @param download The download.
+     * @return The prepare result for the URL.
+     * @throws InterruptedException If interrupted while waiting.
+     * @throws ExecutionException If the download failed.
+     * @throws IOException If the URL is invalid.
+     */
+    @AssetManager.PrepareResult
+    private int awaitDownload(@NonNull Assets assets, @NonNull String url, @NonNull InFlightDownload download)
+            throws InterruptedException, ExecutionException, IOException {
+        FileUtils.DownloadResult result = download.task.get();
+        if (!result.isSuccess) {
+            return toPrepareResult(result);
+        }
+
+        File source = download.assets.file(url);
+        File destination = assets.file(url);
+        if (source.equals(destination)) {
+            return AssetManager.PREPARE_RESULT_OK;
+        }
+
+        try {
+            copyFile(source, destination);
+        } catch (IOException e) {
+            // The other message's assets may have been cleared already
+            Logger.debug(e, "Unable to copy asset %s, downloading it instead.", url);
+            return toPrepareResult(cacheImage(assets, url));
+        }
+
+        JsonValue metadata = download.assets.getMetadata(url);
+        if (!metadata.isNull()) {
+            assets.setMetadata(url, metadata);
         }
 
         return AssetManager.PREPARE_RESULT_OK;
@@ -165,6 +303,32 @@ public class AirshipPrepareAssetsDelegate implements PrepareAssetsDelegate {
         return Collections.emptyList();
     }
 
+    @AssetManager.PrepareResult
+    private static int toPrepareResult(@NonNull FileUtils.DownloadResult result) {
+        if (result.isSuccess) {
+            return AssetManager.PREPARE_RESULT_OK;
+        }
+
+        if (UAHttpStatusUtil.inClientErrorRange(result.statusCode)) {
+            return AssetManager.PREPARE_RESULT_CANCEL;
+        }
+
+        return AssetManager.PREPARE_RESULT_RETRY;
+    }
+
+    private static void copyFile(@NonNull File source, @NonNull File destination) throws IOException {
+        byte[] buffer = new byte[8192];
+        try (InputStream in = new FileInputStream(source); OutputStream out = new FileOutputStream(destination)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            destination.delete();
+            throw e;
+        }
+    }
+
     @Nullable
     public static String getCacheableUrl(@Nullable MediaInfo mediaInfo) {
         if (mediaInfo != null && mediaInfo.getType().equals(MediaInfo.TYPE_IMAGE)) {
@@ -174,4 +338,19 @@ public class AirshipPrepareAssetsDelegate implements PrepareAssetsDelegate {
         }
     }
 
+    /**
+     * A download that other messages can wait on.
+     */
+    private static class InFlightDownload {
+
+        final Assets assets;
+        final FutureTask<FileUtils.DownloadResult> task;
+
+        InFlightDownload(@NonNull Assets assets, @NonNull FutureTask<FileUtils.DownloadResult> task) {
+            this.assets = assets;
+            this.task = task;
+        }
+
+    }
+
 }
@@ -27,6 +27,7 @@ import com.urbanairship.iam.InAppMessageWebViewClient;
 import com.urbanairship.iam.ResolutionInfo;
 import com.urbanairship.iam.assets.Assets;
 import com.urbanairship.iam.events.InAppReportingEvent;
+import com.urbanairship.images.ImageDiskCache;
 import com.urbanairship.js.UrlAllowList;
 import com.urbanairship.util.Network;
 
@@ -119,7 +120,11 @@ public class AirshipLayoutDisplayAdapter extends ForegroundDisplayAdapter {
 
             if (urlInfo.getType() == UrlInfo.UrlType.IMAGE) {
                 File file = assets.file(urlInfo.getUrl());
-                if (file.exists()) {
+                if (!file.exists()) {
+                    file = ImageDiskCache.shared(context).get(urlInfo.getUrl());
+                }
+
+                if (file != null && file.exists()) {
                     assetCacheMap.put(urlInfo.getUrl(), Uri.fromFile(file).toString());
                 }
             }
@@ -713,6 +713,37 @@ public class AutomationEngineTest {
         assertEquals(edits.getEnd().longValue(), updated.getEnd());
     }
 
+    @Test
+    public void testEditSchedules() throws Exception {
+        final Schedule<Actions> scheduleInfo = Schedule.newBuilder(this.schedule)
+                                                       .setEditGracePeriod(100, TimeUnit.SECONDS)
+                                                       .build();
+
+        schedule(scheduleInfo);
+        verifyState(scheduleInfo, ScheduleState.IDLE);
+
+        Map<String, ScheduleEdits<? extends ScheduleData>> edits = new HashMap<>();
+        edits.put(scheduleInfo.getId(), ScheduleEdits.newBuilder().setEnd(System.currentTimeMillis()).build());
+
+        Future<Boolean> future = automationEngine.editSchedules(edits);
+        runLooperTasks();
+        assertEquals(Boolean.TRUE, future.get());
+
+        // Verify it's finished
+        verifyState(scheduleInfo, ScheduleState.FINISHED);
+
+        // Rehabilitate it with a missing schedule in the same batch
+        edits.put(scheduleInfo.getId(), ScheduleEdits.newBuilder().setEnd(System.currentTimeMillis() + 100000).build());
+        edits.put("missing", ScheduleEdits.newBuilder().setLimit(2).build());
+
+        future = automationEngine.editSchedules(edits);
+        runLooperTasks();
+        assertEquals(Boolean.FALSE, future.get());
+
+        // Verify it's idle again
+        verifyState(scheduleInfo, ScheduleState.IDLE);
+    }
+
     @Test
     public void testInterval() throws Exception {
         final Schedule schedule = Schedule.newBuilder(this.schedule)
@@ -973,6 +1004,128 @@ public class AutomationEngineTest {
         verifyState(schedule, ScheduleState.EXECUTING);
     }
 
+    @Test
+    public void testBatchedReadinessChecks() throws ExecutionException, InterruptedException {
+        Schedule<Actions> other = Schedule.newBuilder(new Actions(JsonMap.EMPTY_MAP))
+                                          .addTrigger(Triggers.newCustomEventTriggerBuilder()
+                                                              .setCountGoal(1)
+                                                              .setEventName("event")
+                                                              .build())
+                                          .build();
+
+        schedule(schedule);
+        schedule(other);
+
+        // Trigger the schedules
+        CustomEvent.newBuilder("event")
+                   .build()
+                   .track();
+
+        runLooperTasks();
+
+        driver.onCheckExecutionReadinessResult = AutomationDriver.READY_RESULT_NOT_READY;
+        driver.prepareCallbackMap.get(schedule.getId()).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+        driver.prepareCallbackMap.get(other.getId()).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+        runLooperTasks();
+
+        verifyState(schedule, ScheduleState.WAITING_SCHEDULE_CONDITIONS);
+        verifyState(other, ScheduleState.WAITING_SCHEDULE_CONDITIONS);
+
+        // Resume an activity to check both schedules again
+        driver.onCheckExecutionReadinessResult = AutomationDriver.READY_RESULT_CONTINUE;
+        activityMonitor.resumeActivity(new Activity());
+        runLooperTasks();
+
+        verifyState(schedule, ScheduleState.EXECUTING);
+        verifyState(other, ScheduleState.EXECUTING);
+        assertTrue(driver.executionCallbackMap.containsKey(schedule.getId()));
+        assertTrue(driver.executionCallbackMap.containsKey(other.getId()));
+    }
+
+    @Test
+    public void testExecutionFinishesDuringReadinessCheck() throws ExecutionException, InterruptedException {
+        Schedule<Actions> schedule = Schedule.newBuilder(this.schedule)
+                                             .setLimit(2)
+                                             .build();
+
+        driver.finishImmediately = true;
+        schedule(schedule);
+
+        // Trigger the schedule
+        CustomEvent.newBuilder("event")
+                   .build()
+                   .track();
+
+        runLooperTasks();
+
+        driver.prepareCallbackMap.get(schedule.getId()).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+        runLooperTasks();
+
+        // Verify the finished execution was applied after the schedule started executing
+        verifyState(schedule, ScheduleState.IDLE);
+        assertEquals(1, dao.getSchedule(schedule.getId()).schedule.count);
+    }
+
+    @Test
+    public void testCancelDuringReadinessCheck() throws ExecutionException, InterruptedException {
+        schedule(schedule);
+
+        // Trigger the schedule
+        CustomEvent.newBuilder("event")
+                   .build()
+                   .track();
+
+        runLooperTasks();
+
+        // Queue the readiness check on the main thread
+        Shadows.shadowOf(Looper.getMainLooper()).pause();
+        driver.prepareCallbackMap.get(schedule.getId()).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+        runAutomationLooperTasks();
+
+        // Cancel the schedule before the check runs
+        automationEngine.cancel(Collections.singleton(schedule.getId()));
+        runAutomationLooperTasks();
+
+        runLooperTasks();
+
+        // Verify nothing executed
+        assertTrue(driver.executionCallbackMap.isEmpty());
+        assertNull(dao.getSchedule(schedule.getId()));
+    }
+
+    @Test
+    public void testEditDuringReadinessCheck() throws ExecutionException, InterruptedException {
+        schedule(schedule);
+
+        // Trigger the schedule
+        CustomEvent.newBuilder("event")
+                   .build()
+                   .track();
+
+        runLooperTasks();
+
+        // Queue the readiness check on the main thread
+        Shadows.shadowOf(Looper.getMainLooper()).pause();
+        driver.prepareCallbackMap.get(schedule.getId()).onFinish(AutomationDriver.PREPARE_RESULT_CONTINUE);
+        runAutomationLooperTasks();
+
+        // Edit the schedule before the check runs
+        JsonMap metadata = JsonMap.newBuilder()
+                                  .putOpt("cool", "edited")
+                                  .build();
+
+        automationEngine.editSchedule(schedule.getId(), ScheduleEdits.newBuilder()
+                                                                     .setMetadata(metadata)
+                                                                     .build());
+        runAutomationLooperTasks();
+
+        runLooperTasks();
+
+        // Verify the edited schedule executed
+        verifyState(schedule, ScheduleState.EXECUTING);
+        assertEquals(metadata, driver.executedSchedulesMap.get(schedule.getId()).getMetadata());
+    }
+
     private void verifyDelay(ScheduleDelay delay, Runnable resolveDelay) throws Exception {
         final Schedule<Actions> schedule = Schedule.newBuilder(this.schedule)
                                                    .setDelay(delay)
@@ -1093,6 +1246,10 @@ public class AutomationEngineTest {
         while (mainLooper.getScheduler().areAnyRunnable() || automationLooper.getScheduler().areAnyRunnable());
     }
 
+    private void runAutomationLooperTasks() {
+        Shadows.shadowOf(automationEngine.backgroundThread.getLooper()).runToEndOfTasks();
+    }
+
     private void advanceAutomationLooperScheduler(long millis) {
         ShadowLooper automationLooper = Shadows.shadowOf(automationEngine.backgroundThread.getLooper());
         automationLooper.getScheduler().advanceBy(millis, TimeUnit.MILLISECONDS);
@@ -1111,6 +1268,7 @@ public class AutomationEngineTest {
     private static class TestDriver implements AutomationDriver {
 
         Map<String, ExecutionCallback> executionCallbackMap = new HashMap<>();
+        Map<String, Schedule> executedSchedulesMap = new HashMap<>();
         Map<String, PrepareScheduleCallback> prepareCallbackMap = new HashMap<>();
         Map<String, Schedule> preparedSchedulesMap = new HashMap<>();
         Map<String, TriggerContext> preparedTriggerContextMap = new HashMap<>();
@@ -1118,10 +1276,15 @@ public class AutomationEngineTest {
         ArrayList<Integer> priorityList = new ArrayList<>();
 
         int onCheckExecutionReadinessResult = READY_RESULT_CONTINUE;
+        boolean finishImmediately = false;
 
         @Override
         public void onExecuteTriggeredSchedule(@NonNull Schedule schedule, @NonNull ExecutionCallback finishCallback) {
             executionCallbackMap.put(schedule.getId(), finishCallback);
+            executedSchedulesMap.put(schedule.getId(), schedule);
+            if (finishImmediately) {
+                finishCallback.onFinish();
+            }
         }
 
         @Override
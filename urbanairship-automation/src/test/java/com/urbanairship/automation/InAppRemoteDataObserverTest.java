@@ -41,6 +41,7 @@ import androidx.annotation.NonNull;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
 import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -388,7 +389,7 @@ public class InAppRemoteDataObserverTest {
     @Test
     public void testMetadataChange() {
         JsonMap metadata = JsonMap.newBuilder()
-                                  .putOpt("meta", "data").build();
+                                  .putOpt("url", "https://example.com/data").build();
 
         JsonMap expectedMetadata = JsonMap.newBuilder()
                                           .put("com.urbanairship.iaa.REMOTE_DATA_METADATA", metadata)
@@ -415,7 +416,7 @@ public class InAppRemoteDataObserverTest {
         // Process payload
         updates.onNext(payload);
 
-        JsonMap updatedMetadata = JsonMap.newBuilder().putOpt("fun", "fun").build();
+        JsonMap updatedMetadata = JsonMap.newBuilder().putOpt("url", "https://example.com/fun").build();
 
         // Update the metadata
         payload = new TestPayloadBuilder()
@@ -434,6 +435,114 @@ public class InAppRemoteDataObserverTest {
         assertEquals(expected, edits.getMetadata());
     }
 
+    @Test
+    public void testMetadataChangeSameTimestamp() {
+        JsonMap metadata = JsonMap.newBuilder()
+                                  .putOpt("url", "https://example.com/data?language=en").build();
+
+        JsonMap expectedMetadata = JsonMap.newBuilder()
+                                          .put("com.urbanairship.iaa.REMOTE_DATA_METADATA", metadata)
+                                          .build();
+
+        Schedule<InAppMessage> fooSchedule = Schedule.newBuilder(InAppMessage.newBuilder()
+                                                                             .setName("foo")
+                                                                             .setDisplayContent(new CustomDisplayContent(JsonValue.NULL))
+                                                                             .build())
+                                                     .addTrigger(Triggers.newAppInitTriggerBuilder()
+                                                                         .setGoal(1)
+                                                                         .build())
+                                                     .setId("foo")
+                                                     .setMetadata(expectedMetadata)
+                                                     .build();
+
+        RemoteDataPayload payload = new TestPayloadBuilder()
+                .addSchedule(fooSchedule, TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1))
+                .setTimeStamp(TimeUnit.DAYS.toMillis(1))
+                .setMetadata(metadata)
+                .build();
+
+        updates.onNext(payload);
+        assertEquals(fooSchedule, delegate.schedules.get("foo"));
+
+        // Localized message with the same timestamps
+        JsonMap localizedMetadata = JsonMap.newBuilder().putOpt("url", "https://example.com/data?language=de").build();
+        InAppMessage localizedMessage = InAppMessage.newBuilder()
+                                                    .setName("localized foo")
+                                                    .setDisplayContent(new CustomDisplayContent(JsonValue.wrap("de")))
+                                                    .build();
+
+        Schedule<InAppMessage> localizedSchedule = Schedule.newBuilder(localizedMessage)
+                                                           .addTrigger(Triggers.newAppInitTriggerBuilder()
+                                                                               .setGoal(1)
+                                                                               .build())
+                                                           .setId("foo")
+                                                           .build();
+
+        payload = new TestPayloadBuilder()
+                .addSchedule(localizedSchedule, TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1))
+                .setTimeStamp(TimeUnit.DAYS.toMillis(1))
+                .setMetadata(localizedMetadata)
+                .build();
+
+        updates.onNext(payload);
+
+        // Verify "foo" was edited with the localized message, not just the metadata
+        ScheduleEdits<? extends ScheduleData> edits = delegate.getScheduleEdits("foo");
+        assertEquals("localized foo", ((InAppMessage) edits.getData()).getName());
+        assertEquals(JsonMap.newBuilder()
+                            .put("com.urbanairship.iaa.REMOTE_DATA_METADATA", localizedMetadata)
+                            .build(), edits.getMetadata());
+    }
+
+    @Test
+    public void testLastModifiedChangeSameTimestamp() {
+        JsonMap metadata = JsonMap.newBuilder()
+                                  .putOpt("url", "https://example.com/data?language=en")
+                                  .putOpt("last_modified", "2017-01-01T12:00:00")
+                                  .build();
+
+        JsonMap expectedMetadata = JsonMap.newBuilder()
+                                          .put("com.urbanairship.iaa.REMOTE_DATA_METADATA", metadata)
+                                          .build();
+
+        Schedule<InAppMessage> fooSchedule = Schedule.newBuilder(InAppMessage.newBuilder()
+                                                                             .setName("foo")
+                                                                             .setDisplayContent(new CustomDisplayContent(JsonValue.NULL))
+                                                                             .build())
+                                                     .addTrigger(Triggers.newAppInitTriggerBuilder()
+                                                                         .setGoal(1)
+                                                                         .build())
+                                                     .setId("foo")
+                                                     .setMetadata(expectedMetadata)
+                                                     .build();
+
+        RemoteDataPayload payload = new TestPayloadBuilder()
+                .addSchedule(fooSchedule, TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1))
+                .setTimeStamp(TimeUnit.DAYS.toMillis(1))
+                .setMetadata(metadata)
+                .build();
+
+        updates.onNext(payload);
+        assertEquals(fooSchedule, delegate.schedules.get("foo"));
+
+        // Same URL and timestamp, only the last modified time of the whole document changed
+        JsonMap updatedMetadata = JsonMap.newBuilder()
+                                         .putOpt("url", "https://example.com/data?language=en")
+                                         .putOpt("last_modified", "2018-01-01T12:00:00")
+                                         .build();
+
+        payload = new TestPayloadBuilder()
+                .addSchedule(fooSchedule, TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(1))
+                .setTimeStamp(TimeUnit.DAYS.toMillis(1))
+                .setMetadata(updatedMetadata)
+                .build();
+
+        updates.onNext(payload);
+
+        // Verify "foo" was not edited
+        assertNull(delegate.getScheduleEdits("foo"));
+    }
+
     @Test
     public void testDefaultNewUserCutoffTime() {
         assertEquals(-1, observer.getScheduleNewUserCutOffTime());
@@ -690,6 +799,23 @@ public class InAppRemoteDataObserverTest {
             return result;
         }
 
+        @NonNull
+        @Override
+        public PendingResult<Boolean> editSchedules(@NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+            boolean edited = true;
+            for (Map.Entry<String, ScheduleEdits<? extends ScheduleData>> entry : edits.entrySet()) {
+                if (schedules.containsKey(entry.getKey())) {
+                    scheduleEdits.put(entry.getKey(), entry.getValue());
+                } else {
+                    edited = false;
+                }
+            }
+
+            PendingResult<Boolean> result = new PendingResult<>();
+            result.setResult(edited);
+            return result;
+        }
+
         public ScheduleEdits<? extends ScheduleData> getScheduleEdits(@NonNull String scheduleId) {
             return scheduleEdits.get(scheduleId);
         }
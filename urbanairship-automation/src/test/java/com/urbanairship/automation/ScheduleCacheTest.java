@@ -0,0 +1,71 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation;
+
+import com.urbanairship.automation.actions.Actions;
+import com.urbanairship.automation.storage.FullSchedule;
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(AndroidJUnit4.class)
+public class ScheduleCacheTest {
+
+    private ScheduleCache cache;
+    private FullSchedule entry;
+
+    @Before
+    public void setup() {
+        cache = new ScheduleCache(10);
+
+        Schedule<Actions> schedule = Schedule.newBuilder(new Actions(JsonMap.newBuilder().put("cool", "story").build()))
+                                             .setId("schedule-id")
+                                             .addTrigger(Triggers.newForegroundTriggerBuilder().setGoal(1).build())
+                                             .build();
+        entry = ScheduleConverters.convert(schedule);
+    }
+
+    @Test
+    public void testGet() throws JsonException {
+        Schedule<Actions> first = cache.get(entry);
+        Schedule<Actions> second = cache.get(entry);
+
+        assertSame(first, second);
+        assertEquals("schedule-id", first.getId());
+    }
+
+    @Test
+    public void testInvalidate() throws JsonException {
+        Schedule<Actions> first = cache.get(entry);
+
+        entry.schedule.priority = 5;
+        cache.invalidate(entry.schedule.scheduleId);
+
+        Schedule<Actions> second = cache.get(entry);
+        assertNotSame(first, second);
+        assertEquals(5, second.getPriority());
+        assertSame(second, cache.get(entry));
+    }
+
+    @Test
+    public void testStaleVersionNotCached() throws JsonException {
+        long version = cache.getVersion(entry.schedule.scheduleId);
+        cache.invalidate(entry.schedule.scheduleId);
+
+        // Decoding an entity loaded before the invalidation does not cache it
+        Schedule<Actions> stale = cache.get(entry, version);
+        Schedule<Actions> current = cache.get(entry);
+        assertNotSame(stale, current);
+        assertSame(current, cache.get(entry));
+    }
+
+}
@@ -298,6 +298,66 @@ public class FrequencyLimitManagerTest {
         assertEquals(1, dao.getOccurrences("foo").size());
     }
 
+    @Test
+    public void testCountsLoadedFromDatabase() throws ExecutionException, InterruptedException {
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(2)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 10)
+                                                                                    .setId("foo")
+                                                                                    .build()));
+
+        clock.currentTimeMillis = 0;
+        FrequencyChecker checker = limitManager.getFrequencyChecker(ids("foo")).get();
+        assertTrue(checker.checkAndIncrement());
+        assertTrue(checker.checkAndIncrement());
+
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        ExecutorService newExecutor = Executors.newSingleThreadExecutor();
+        FrequencyLimitManager newManager = new FrequencyLimitManager(dao, clock, newExecutor);
+
+        clock.currentTimeMillis = 5;
+        assertTrue(newManager.getFrequencyChecker(ids("foo")).get().isOverLimit());
+
+        newExecutor.shutdown();
+        newExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testExpiredOccurrencesPruned() throws ExecutionException, InterruptedException {
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(2)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 10)
+                                                                                    .setId("foo")
+                                                                                    .build()));
+
+        clock.currentTimeMillis = 0;
+        FrequencyChecker checker = limitManager.getFrequencyChecker(ids("foo")).get();
+        assertTrue(checker.checkAndIncrement());
+
+        clock.currentTimeMillis = 5;
+        assertTrue(checker.checkAndIncrement());
+
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        assertEquals(2, dao.getOccurrences("foo").size());
+
+        ExecutorService newExecutor = Executors.newSingleThreadExecutor();
+        FrequencyLimitManager newManager = new FrequencyLimitManager(dao, clock, newExecutor);
+
+        clock.currentTimeMillis = 12;
+        FrequencyChecker newChecker = newManager.getFrequencyChecker(ids("foo")).get();
+        assertFalse(newChecker.isOverLimit());
+
+        List<OccurrenceEntity> occurrences = dao.getOccurrences("foo");
+        assertEquals(1, occurrences.size());
+        assertEquals(5, occurrences.get(0).timeStamp);
+
+        newExecutor.shutdown();
+        newExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
     private static Collection<String> ids(String... ids) {
         return Arrays.asList(ids);
     }
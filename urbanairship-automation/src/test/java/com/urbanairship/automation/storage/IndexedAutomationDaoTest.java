@@ -0,0 +1,204 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.storage;
+
+import android.content.Context;
+
+import com.urbanairship.TestApplication;
+import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.automation.Trigger;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonMatcher;
+import com.urbanairship.json.JsonPredicate;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.json.ValueMatcher;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+@Config(
+        sdk = 28,
+        application = TestApplication.class
+)
+@RunWith(AndroidJUnit4.class)
+public class IndexedAutomationDaoTest {
+
+    private AutomationDatabase database;
+    private AutomationDao roomDao;
+    private IndexedAutomationDao dao;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, AutomationDatabase.class)
+                       .allowMainThreadQueries()
+                       .build();
+        roomDao = database.getScheduleDao();
+        dao = new IndexedAutomationDao(roomDao);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void testCustomEventTriggersIndexedByName() {
+        dao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, "foo"));
+        dao.insert(createSchedule("bar", Trigger.CUSTOM_EVENT_COUNT, "bar"));
+        dao.insert(createSchedule("any", Trigger.CUSTOM_EVENT_COUNT, null));
+
+        List<TriggerEntity> triggers = dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT, event("foo"));
+        assertEquals(2, triggers.size());
+        assertEquals(parentIds("any", "foo"), parentIds(triggers));
+
+        triggers = dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT, event("baz"));
+        assertEquals(parentIds("any"), parentIds(triggers));
+
+        assertEquals(3, dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).size());
+    }
+
+    @Test
+    public void testTriggerProgressWrittenOnFlush() {
+        dao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, "foo"));
+
+        List<TriggerEntity> triggers = dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT, event("foo"));
+        triggers.get(0).progress = 1;
+        dao.updateTriggers(triggers);
+
+        triggers.get(0).progress = 2;
+        dao.updateTriggers(triggers);
+
+        // Not written yet
+        assertTrue(dao.hasPendingTriggers());
+        assertEquals(0.0, roomDao.getSchedule("foo").triggers.get(0).progress);
+
+        // Reads through the indexed dao see the pending progress
+        assertEquals(2.0, dao.getSchedule("foo").triggers.get(0).progress);
+        assertEquals(2.0, dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).get(0).progress);
+
+        dao.flushTriggers();
+        assertFalse(dao.hasPendingTriggers());
+        assertEquals(2.0, roomDao.getSchedule("foo").triggers.get(0).progress);
+    }
+
+    @Test
+    public void testScheduleUpdateInvalidatesIndex() {
+        dao.insert(createSchedule("foo", Trigger.SCREEN_VIEW, null));
+        assertEquals(1, dao.getActiveTriggers(Trigger.SCREEN_VIEW).size());
+
+        FullSchedule entry = dao.getSchedule("foo");
+        entry.schedule.executionState = ScheduleState.EXECUTING;
+        dao.update(entry);
+
+        assertTrue(dao.getActiveTriggers(Trigger.SCREEN_VIEW).isEmpty());
+
+        dao.deleteSchedules(Collections.singletonList(entry));
+        dao.insert(createSchedule("bar", Trigger.SCREEN_VIEW, null));
+        assertEquals(parentIds("bar"), parentIds(dao.getActiveTriggers(Trigger.SCREEN_VIEW)));
+    }
+
+    @Test
+    public void testPendingProgressSurvivesInvalidation() {
+        dao.insert(createSchedule("foo", Trigger.SCREEN_VIEW, null));
+
+        List<TriggerEntity> triggers = dao.getActiveTriggers(Trigger.SCREEN_VIEW);
+        triggers.get(0).progress = 1;
+        dao.updateTriggers(triggers);
+
+        // Invalidate the index
+        dao.insert(createSchedule("bar", Trigger.SCREEN_VIEW, null));
+
+        for (TriggerEntity trigger : dao.getActiveTriggers(Trigger.SCREEN_VIEW)) {
+            assertEquals(trigger.parentScheduleId.equals("foo") ? 1.0 : 0.0, trigger.progress);
+        }
+
+        dao.flushTriggers();
+        assertEquals(1.0, roomDao.getSchedule("foo").triggers.get(0).progress);
+    }
+
+    @Test
+    public void testFutureScheduleStart() {
+        FullSchedule entry = createSchedule("foo", Trigger.SCREEN_VIEW, null);
+        entry.schedule.scheduleStart = System.currentTimeMillis() + 100000;
+        dao.insert(entry);
+
+        assertTrue(dao.getActiveTriggers(Trigger.SCREEN_VIEW).isEmpty());
+        assertEquals(entry.schedule.scheduleStart, (long) dao.getNextScheduleStart());
+    }
+
+    @NonNull
+    private static FullSchedule createSchedule(@NonNull String scheduleId, int triggerType, @Nullable String eventName) {
+        ScheduleEntity schedule = new ScheduleEntity();
+        schedule.scheduleId = scheduleId;
+        schedule.scheduleType = "actions";
+        schedule.data = JsonValue.NULL;
+        schedule.metadata = JsonMap.EMPTY_MAP;
+        schedule.scheduleStart = -1;
+        schedule.scheduleEnd = -1;
+        schedule.executionState = ScheduleState.IDLE;
+
+        TriggerEntity trigger = new TriggerEntity();
+        trigger.triggerType = triggerType;
+        trigger.goal = 10;
+        trigger.parentScheduleId = scheduleId;
+
+        if (eventName != null) {
+            trigger.jsonPredicate = JsonPredicate.newBuilder()
+                                                 .setPredicateType(JsonPredicate.AND_PREDICATE_TYPE)
+                                                 .addMatcher(JsonMatcher.newBuilder()
+                                                                        .setKey(CustomEvent.EVENT_NAME)
+                                                                        .setValueMatcher(ValueMatcher.newValueMatcher(JsonValue.wrap(eventName)))
+                                                                        .build())
+                                                 .build();
+        }
+
+        List<TriggerEntity> triggers = new ArrayList<>();
+        triggers.add(trigger);
+        return new FullSchedule(schedule, triggers);
+    }
+
+    @NonNull
+    private static JsonValue event(@NonNull String name) {
+        return JsonMap.newBuilder()
+                      .put(CustomEvent.EVENT_NAME, name)
+                      .build()
+                      .toJsonValue();
+    }
+
+    @NonNull
+    private static List<String> parentIds(@NonNull String... ids) {
+        List<String> result = new ArrayList<>();
+        Collections.addAll(result, ids);
+        Collections.sort(result);
+        return result;
+    }
+
+    @NonNull
+    private static List<String> parentIds(@NonNull List<TriggerEntity> triggers) {
+        List<String> result = new ArrayList<>();
+        for (TriggerEntity trigger : triggers) {
+            result.add(trigger.parentScheduleId);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+}
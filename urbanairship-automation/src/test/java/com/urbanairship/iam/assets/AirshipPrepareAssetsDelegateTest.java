@@ -0,0 +1,350 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.iam.assets;
+
+import com.urbanairship.iam.InAppMessage;
+import com.urbanairship.iam.MediaInfo;
+import com.urbanairship.iam.TextInfo;
+import com.urbanairship.iam.layout.AirshipLayoutDisplayContent;
+import com.urbanairship.iam.modal.ModalDisplayContent;
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.util.FileUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AirshipPrepareAssetsDelegate}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AirshipPrepareAssetsDelegateTest {
+
+    private File directory;
+    private Assets assets;
+    private Assets otherAssets;
+    private TestDelegate delegate;
+
+    @Before
+    public void setup() {
+        directory = new File(ApplicationProvider.getApplicationContext().getCacheDir(), "prepare-assets-test");
+        assets = Assets.load(new File(directory, "first"));
+        otherAssets = Assets.load(new File(directory, "second"));
+        delegate = new TestDelegate();
+    }
+
+    @After
+    public void cleanup() {
+        FileUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * Test preparing a message downloads its image into the assets.
+     */
+    @Test
+    public void testPrepare() {
+        String url = "https://example.com/prepare.png";
+        delegate.results.put(url, new FileUtils.DownloadResult(true, 200));
+
+        assertEquals(AssetManager.PREPARE_RESULT_OK, delegate.onPrepare("schedule", modalMessage(url), assets));
+        assertTrue(assets.file(url).exists());
+        assertEquals(1, delegate.downloads.get());
+
+        // Already downloaded
+        assertEquals(AssetManager.PREPARE_RESULT_OK, delegate.onPrepare("schedule", modalMessage(url), assets));
+        assertEquals(1, delegate.downloads.get());
+    }
+
+    /**
+     * Test a client error cancels the message.
+     */
+    @Test
+    public void testClientErrorCancels() {
+        String url = "https://example.com/client-error.png";
+        delegate.results.put(url, new FileUtils.DownloadResult(false, 404));
+
+        assertEquals(AssetManager.PREPARE_RESULT_CANCEL, delegate.onPrepare("schedule", modalMessage(url), assets));
+    }
+
+    /**
+     * Test a server error retries the message.
+     */
+    @Test
+    public void testServerErrorRetries() {
+        String url = "https://example.com/server-error.png";
+        delegate.results.put(url, new FileUtils.DownloadResult(false, 500));
+
+        assertEquals(AssetManager.PREPARE_RESULT_RETRY, delegate.onPrepare("schedule", modalMessage(url), assets));
+    }
+
+    /**
+     * Test a client error on any image cancels the message, even if another image needs a retry.
+     */
+    @Test
+    public void testClientErrorCancelsOverRetry() throws JsonException {
+        String retry = "https://example.com/aggregate-retry.png";
+        String cancel = "https://example.com/aggregate-cancel.png";
+        delegate.results.put(retry, new FileUtils.DownloadResult(false, 500));
+        delegate.results.put(cancel, new FileUtils.DownloadResult(false, 404));
+
+        assertEquals(AssetManager.PREPARE_RESULT_CANCEL, delegate.onPrepare("schedule", layoutMessage(retry, cancel), assets));
+    }
+
+    /**
+     * Test a server error on any image retries the message, and the other images are still
+     * downloaded.
+     */
+    @Test
+    public void testServerErrorRetriesOverSuccess() throws JsonException {
+        String retry = "https://example.com/partial-retry.png";
+        String success = "https://example.com/partial-success.png";
+        delegate.results.put(retry, new FileUtils.DownloadResult(false, 500));
+        delegate.results.put(success, new FileUtils.DownloadResult(true, 200));
+
+        assertEquals(AssetManager.PREPARE_RESULT_RETRY, delegate.onPrepare("schedule", layoutMessage(retry, success), assets));
+        assertFalse(assets.file(retry).exists());
+        assertTrue(assets.file(success).exists());
+    }
+
+    /**
+     * Test a message joins the in flight download of the same image for another message and
+     * copies the file and metadata into its own assets.
+     */
+    @Test
+    public void testJoinsInFlightDownload() throws Exception {
+        final String url = "https://example.com/in-flight.png";
+        delegate.results.put(url, new FileUtils.DownloadResult(true, 200));
+        delegate.block();
+
+        PrepareThread first = new PrepareThread("first", modalMessage(url), assets);
+        first.start();
+        delegate.awaitStarted();
+
+        PrepareThread second = new PrepareThread("second", modalMessage(url), otherAssets);
+        second.start();
+        awaitWaiting(second);
+
+        delegate.release();
+        first.join(TimeUnit.SECONDS.toMillis(10));
+        second.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(AssetManager.PREPARE_RESULT_OK, first.result);
+        assertEquals(AssetManager.PREPARE_RESULT_OK, second.result);
+        assertEquals(1, delegate.downloads.get());
+        assertTrue(otherAssets.file(url).exists());
+        assertEquals(assets.getMetadata(url), otherAssets.getMetadata(url));
+    }
+
+    /**
+     * Test a message downloads the image itself if the file from the joined download is gone.
+     */
+    @Test
+    public void testJoinedDownloadCopyFailure() throws Exception {
+        final String url = "https://example.com/copy-failure.png";
+        delegate.results.put(url, new FileUtils.DownloadResult(true, 200));
+        delegate.block();
+
+        // The first message's assets are cleared before the other message copies the file
+        delegate.deleteAfterDownload = assets;
+
+        PrepareThread first = new PrepareThread("first", modalMessage(url), assets);
+        first.start();
+        delegate.awaitStarted();
+
+        PrepareThread second = new PrepareThread("second", modalMessage(url), otherAssets);
+        second.start();
+        awaitWaiting(second);
+
+        delegate.release();
+        first.join(TimeUnit.SECONDS.toMillis(10));
+        second.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(AssetManager.PREPARE_RESULT_OK, second.result);
+        assertEquals(2, delegate.downloads.get());
+        assertSame(otherAssets, delegate.downloadedAssets.get(1));
+        assertTrue(otherAssets.file(url).exists());
+    }
+
+    /**
+     * Waits for a thread to block on a download.
+     *
+     * @param thread The thread.
+     */
+    private static void awaitWaiting(@NonNull Thread thread) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+    }
+
+    @NonNull
+    private static InAppMessage modalMessage(@NonNull String url) {
+        ModalDisplayContent content = ModalDisplayContent.newBuilder()
+                                                         .setBody(TextInfo.newBuilder()
+                                                                          .setText("oh hi")
+                                                                          .build())
+                                                         .setMedia(MediaInfo.newBuilder()
+                                                                            .setUrl(url)
+                                                                            .setDescription("image")
+                                                                            .setType(MediaInfo.TYPE_IMAGE)
+                                                                            .build())
+                                                         .build();
+
+        return InAppMessage.newBuilder()
+                           .setDisplayContent(content)
+                           .build();
+    }
+
+    @NonNull
+    private static InAppMessage layoutMessage(@NonNull String... urls) throws JsonException {
+        List<JsonMap> items = new ArrayList<>();
+        for (String url : urls) {
+            items.add(JsonMap.newBuilder()
+                             .put("size", JsonMap.newBuilder()
+                                                 .put("width", "100%")
+                                                 .put("height", "auto")
+                                                 .build())
+                             .put("view", JsonMap.newBuilder()
+                                                 .put("type", "media")
+                                                 .put("media_type", "image")
+                                                 .put("media_fit", "center_inside")
+                                                 .put("url", url)
+                                                 .build())
+                             .build());
+        }
+
+        JsonMap payload = JsonMap.newBuilder()
+                                 .put("layout", JsonMap.newBuilder()
+                                                       .put("version", 1)
+                                                       .put("presentation", JsonMap.newBuilder()
+                                                                                   .put("type", "modal")
+                                                                                   .put("default_placement", JsonMap.newBuilder()
+                                                                                                                    .put("size", JsonMap.newBuilder()
+                                                                                                                                        .put("width", "100%")
+                                                                                                                                        .put("height", "100%")
+                                                                                                                                        .build())
+                                                                                                                    .build())
+                                                                                   .build())
+                                                       .put("view", JsonMap.newBuilder()
+                                                                           .put("type", "linear_layout")
+                                                                           .put("direction", "vertical")
+                                                                           .putOpt("items", items)
+                                                                           .build())
+                                                       .build())
+                                 .build();
+
+        return InAppMessage.newBuilder()
+                           .setDisplayContent(AirshipLayoutDisplayContent.fromJson(payload.toJsonValue()))
+                           .build();
+    }
+
+    /**
+     * Prepares a message on a background thread.
+     */
+    private class PrepareThread extends Thread {
+
+        private final String scheduleId;
+        private final InAppMessage message;
+        private final Assets assets;
+        private volatile int result = -1;
+
+        PrepareThread(@NonNull String scheduleId, @NonNull InAppMessage message, @NonNull Assets assets) {
+            this.scheduleId = scheduleId;
+            this.message = message;
+            this.assets = assets;
+        }
+
+        @Override
+        public void run() {
+            result = delegate.onPrepare(scheduleId, message, assets);
+        }
+
+    }
+
+    /**
+     * Delegate that writes the files itself instead of downloading them.
+     */
+    private static class TestDelegate extends AirshipPrepareAssetsDelegate {
+
+        final Map<String, FileUtils.DownloadResult> results = Collections.synchronizedMap(new HashMap<String, FileUtils.DownloadResult>());
+        final List<Assets> downloadedAssets = Collections.synchronizedList(new ArrayList<Assets>());
+        final AtomicInteger downloads = new AtomicInteger();
+        volatile Assets deleteAfterDownload;
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile CountDownLatch blocker;
+
+        void block() {
+            blocker = new CountDownLatch(1);
+        }
+
+        void release() {
+            blocker.countDown();
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+        }
+
+        @NonNull
+        @Override
+        protected FileUtils.DownloadResult cacheImage(@NonNull Assets assets, @NonNull String url) throws IOException {
+            downloads.incrementAndGet();
+            downloadedAssets.add(assets);
+            started.countDown();
+
+            CountDownLatch blocker = this.blocker;
+            if (blocker != null) {
+                try {
+                    assertTrue(blocker.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            FileUtils.DownloadResult result = results.get(url);
+            if (result.isSuccess) {
+                File file = assets.file(url);
+                try (FileOutputStream out = new FileOutputStream(file)) {
+                    out.write(url.getBytes());
+                }
+                assets.setMetadata(url, JsonMap.newBuilder()
+                                               .put(IMAGE_WIDTH_CACHE_KEY, 10)
+                                               .put(IMAGE_HEIGHT_CACHE_KEY, 20)
+                                               .build());
+
+                if (assets == deleteAfterDownload) {
+                    file.delete();
+                }
+            }
+
+            return result;
+        }
+
+    }
+
+}
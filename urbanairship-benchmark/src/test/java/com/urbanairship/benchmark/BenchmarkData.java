@@ -0,0 +1,133 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Generates representative payloads for the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    /**
+     * Creates a remote-data style payload containing in-app message schedules.
+     *
+     * @param scheduleCount The number of schedules.
+     * @return The payload.
+     */
+    @NonNull
+    static JsonMap remoteDataPayload(int scheduleCount) {
+        List<JsonValue> schedules = new ArrayList<>(scheduleCount);
+        for (int i = 0; i < scheduleCount; i++) {
+            schedules.add(schedule(i).toJsonValue());
+        }
+
+        JsonMap data = JsonMap.newBuilder()
+                              .put("in_app_messages", new JsonList(schedules))
+                              .build();
+
+        List<JsonValue> payloads = new ArrayList<>();
+        payloads.add(JsonMap.newBuilder()
+                            .put("type", "in_app_messages")
+                            .put("timestamp", "2022-04-01T00:00:00")
+                            .put("data", data)
+                            .build()
+                            .toJsonValue());
+
+        return JsonMap.newBuilder()
+                      .put("payloads", new JsonList(payloads))
+                      .build();
+    }
+
+    /**
+     * Creates a plain Java object tree that mirrors {@link #remoteDataPayload(int)}.
+     *
+     * @param scheduleCount The number of schedules.
+     * @return The object tree.
+     */
+    @NonNull
+    static Map<String, Object> remoteDataObjects(int scheduleCount) {
+        List<Object> schedules = new ArrayList<>(scheduleCount);
+        for (int i = 0; i < scheduleCount; i++) {
+            Map<String, Object> schedule = new HashMap<>();
+            schedule.put("id", "schedule-" + i);
+            schedule.put("created", "2022-04-01T00:00:00");
+            schedule.put("priority", i % 5);
+            schedule.put("limit", 10);
+
+            Map<String, Object> message = new HashMap<>();
+            message.put("display_type", "banner");
+            message.put("name", "Message " + i);
+            message.put("body", "Some body text that is long enough to look like a real message \u00e9");
+            schedule.put("message", message);
+
+            List<Object> triggers = new ArrayList<>();
+            Map<String, Object> trigger = new HashMap<>();
+            trigger.put("type", "custom_event_count");
+            trigger.put("goal", 1.0);
+            triggers.add(trigger);
+            schedule.put("triggers", triggers);
+
+            schedules.add(schedule);
+        }
+
+        Map<String, Object> root = new HashMap<>();
+        root.put("in_app_messages", schedules);
+        return root;
+    }
+
+    @NonNull
+    private static JsonMap schedule(int index) {
+        JsonMap predicate = JsonMap.newBuilder()
+                                   .put("key", "event_name")
+                                   .put("value", JsonMap.newBuilder().put("equals", "purchase_" + index).build())
+                                   .build();
+
+        JsonMap trigger = JsonMap.newBuilder()
+                                 .put("type", "custom_event_count")
+                                 .put("goal", 1.0)
+                                 .put("predicate", predicate)
+                                 .build();
+
+        JsonMap message = JsonMap.newBuilder()
+                                 .put("display_type", "modal")
+                                 .put("name", "Message " + index)
+                                 .put("display", JsonMap.newBuilder()
+                                                        .put("heading", JsonMap.newBuilder().put("text", "Heading " + index).put("color", "#000000").build())
+                                                        .put("body", JsonMap.newBuilder().put("text", "Body text with \"quotes\" and a url https://example.com/" + index).build())
+                                                        .put("media", JsonMap.newBuilder().put("url", "https://example.com/image/" + index + ".png").put("type", "image").build())
+                                                        .build())
+                                 .build();
+
+        JsonMap audience = JsonMap.newBuilder()
+                                  .put("new_user", false)
+                                  .put("app_version", JsonMap.newBuilder()
+                                                             .put("value", JsonMap.newBuilder().put("version_matches", "[1.0,)").build())
+                                                             .build())
+                                  .build();
+
+        return JsonMap.newBuilder()
+                      .put("id", "schedule-" + index)
+                      .put("created", "2022-04-01T00:00:00")
+                      .put("last_updated", "2022-04-02T00:00:00")
+                      .put("priority", index % 5)
+                      .put("limit", 10)
+                      .put("triggers", new JsonList(Collections.singletonList(trigger.toJsonValue())))
+                      .put("message", message)
+                      .put("audience", audience)
+                      .build();
+    }
+
+}
@@ -0,0 +1,95 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonSerializable;
+import com.urbanairship.json.JsonValue;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The result of a single benchmark.
+ */
+public class BenchmarkResult implements JsonSerializable {
+
+    private static final String NAME_KEY = "name";
+    private static final String ITERATIONS_KEY = "iterations";
+    private static final String OPERATIONS_KEY = "operations";
+    private static final String NS_PER_OP_KEY = "ns_per_op";
+    private static final String NS_PER_OP_ERROR_KEY = "ns_per_op_error";
+    private static final String NS_PER_OP_MIN_KEY = "ns_per_op_min";
+    private static final String OPS_PER_SECOND_KEY = "ops_per_second";
+    private static final String BYTES_PER_OP_KEY = "allocated_bytes_per_op";
+
+    private final String name;
+    private final int iterations;
+    private final long operations;
+    private final double nsPerOp;
+    private final double nsPerOpError;
+    private final double nsPerOpMin;
+    private final double bytesPerOp;
+
+    BenchmarkResult(@NonNull String name, int iterations, long operations, double nsPerOp,
+                    double nsPerOpError, double nsPerOpMin, double bytesPerOp) {
+        this.name = name;
+        this.iterations = iterations;
+        this.operations = operations;
+        this.nsPerOp = nsPerOp;
+        this.nsPerOpError = nsPerOpError;
+        this.nsPerOpMin = nsPerOpMin;
+        this.bytesPerOp = bytesPerOp;
+    }
+
+    /**
+     * The benchmark name.
+     *
+     * @return The name.
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The mean time per operation in nanoseconds.
+     *
+     * @return The mean time per operation.
+     */
+    public double getNsPerOp() {
+        return nsPerOp;
+    }
+
+    /**
+     * The mean number of bytes allocated per operation, or {@code -1} if allocation tracking is
+     * not supported by the JVM.
+     *
+     * @return The mean bytes allocated per operation.
+     */
+    public double getBytesPerOp() {
+        return bytesPerOp;
+    }
+
+    @NonNull
+    @Override
+    public JsonValue toJsonValue() {
+        return JsonMap.newBuilder()
+                      .put(NAME_KEY, name)
+                      .put(ITERATIONS_KEY, iterations)
+                      .put(OPERATIONS_KEY, operations)
+                      .put(NS_PER_OP_KEY, nsPerOp)
+                      .put(NS_PER_OP_ERROR_KEY, nsPerOpError)
+                      .put(NS_PER_OP_MIN_KEY, nsPerOpMin)
+                      .put(OPS_PER_SECOND_KEY, nsPerOp > 0 ? 1_000_000_000d / nsPerOp : 0)
+                      .put(BYTES_PER_OP_KEY, bytesPerOp)
+                      .build()
+                      .toJsonValue();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format("%-50s %14.1f ns/op +/- %10.1f  %12.1f B/op", name, nsPerOp, nsPerOpError, bytesPerOp);
+    }
+
+}
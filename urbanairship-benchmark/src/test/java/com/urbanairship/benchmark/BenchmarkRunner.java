@@ -0,0 +1,221 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A small JMH style benchmark harness.
+ * <p>
+ * Each benchmark is run for a number of timed warmup iterations followed by timed measurement
+ * iterations. The mean, error and minimum time per operation are recorded along with the bytes
+ * allocated per operation when the JVM supports thread allocation tracking. Results are printed
+ * and written as JSON to {@code <outputDir>/<suite>.json} so regressions can be diffed between
+ * builds.
+ * <p>
+ * Iteration counts and the output directory are read from the {@code airship.benchmark.*}
+ * system properties set by the module's build.gradle.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * A benchmarked operation.
+     */
+    public interface Operation {
+
+        /**
+         * Runs a single operation.
+         *
+         * @param blackhole Blackhole that should consume the operation's result.
+         * @throws Exception If the operation fails.
+         */
+        void run(@NonNull Blackhole blackhole) throws Exception;
+
+    }
+
+    private static final String SUITE_KEY = "suite";
+    private static final String JVM_KEY = "jvm";
+    private static final String RESULTS_KEY = "results";
+
+    private final String suite;
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationTimeNs;
+    private final File outputDir;
+    private final Blackhole blackhole = new Blackhole();
+    private final AllocationCounter allocationCounter = new AllocationCounter();
+    private final List<BenchmarkResult> results = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param suite The suite name. Used as the results file name.
+     */
+    public BenchmarkRunner(@NonNull String suite) {
+        this.suite = suite;
+        this.warmupIterations = Integer.getInteger("airship.benchmark.warmupIterations", 2);
+        this.measurementIterations = Math.max(1, Integer.getInteger("airship.benchmark.measurementIterations", 3));
+        this.iterationTimeNs = Long.getLong("airship.benchmark.iterationTimeMs", 100) * 1_000_000L;
+        String dir = System.getProperty("airship.benchmark.outputDir");
+        this.outputDir = dir == null ? null : new File(dir);
+    }
+
+    /**
+     * Runs a benchmark.
+     *
+     * @param name The benchmark name.
+     * @param operation The operation.
+     * @return The result.
+     * @throws Exception If the operation fails.
+     */
+    @NonNull
+    public BenchmarkResult run(@NonNull String name, @NonNull Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(operation);
+        }
+
+        double[] nsPerOp = new double[measurementIterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long bytesBefore = allocationCounter.allocatedBytes();
+            long start = System.nanoTime();
+            long ops = runIteration(operation);
+            long elapsed = System.nanoTime() - start;
+            long bytesAfter = allocationCounter.allocatedBytes();
+
+            nsPerOp[i] = (double) elapsed / ops;
+            totalOps += ops;
+            totalBytes += bytesAfter - bytesBefore;
+        }
+
+        double mean = 0;
+        double min = Double.MAX_VALUE;
+        for (double value : nsPerOp) {
+            mean += value;
+            min = Math.min(min, value);
+        }
+        mean /= nsPerOp.length;
+
+        double variance = 0;
+        for (double value : nsPerOp) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = nsPerOp.length > 1 ? Math.sqrt(variance / (nsPerOp.length - 1)) : 0;
+        double bytesPerOp = allocationCounter.isSupported() ? (double) totalBytes / totalOps : -1;
+
+        BenchmarkResult result = new BenchmarkResult(suite + "." + name, measurementIterations, totalOps, mean, error, min, bytesPerOp);
+        results.add(result);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Writes the collected results as JSON to the output directory, if one is configured.
+     *
+     * @return The results file, or {@code null} if no output directory is configured.
+     * @throws IOException If the results fail to write.
+     */
+    @Nullable
+    public File writeResults() throws IOException {
+        if (outputDir == null) {
+            return null;
+        }
+
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Unable to create " + outputDir);
+        }
+
+        JsonMap report = JsonMap.newBuilder()
+                                .put(SUITE_KEY, suite)
+                                .put(JVM_KEY, System.getProperty("java.vm.name") + " " + System.getProperty("java.version"))
+                                .put(RESULTS_KEY, new JsonList(toJsonValues(results)))
+                                .build();
+
+        File file = new File(outputDir, suite + ".json");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            report.write(writer);
+        }
+        return file;
+    }
+
+    private long runIteration(@NonNull Operation operation) throws Exception {
+        long ops = 0;
+        long deadline = System.nanoTime() + iterationTimeNs;
+        do {
+            // Batch operations between clock reads to keep timer overhead out of fast benchmarks
+            for (int i = 0; i < 16; i++) {
+                operation.run(blackhole);
+            }
+            ops += 16;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    @NonNull
+    private static List<JsonValue> toJsonValues(@NonNull List<BenchmarkResult> results) {
+        List<JsonValue> values = new ArrayList<>(results.size());
+        for (BenchmarkResult result : results) {
+            values.add(result.toJsonValue());
+        }
+        return values;
+    }
+
+    /**
+     * Reads the current thread's allocated bytes through {@code com.sun.management.ThreadMXBean}
+     * when available. Looked up reflectively since the management APIs are not part of android.jar.
+     */
+    private static class AllocationCounter {
+
+        private Object threadBean;
+        private Method allocatedBytesMethod;
+
+        AllocationCounter() {
+            try {
+                Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+                Object bean = factory.getMethod("getThreadMXBean").invoke(null);
+                Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+                if (beanClass.isInstance(bean)) {
+                    threadBean = bean;
+                    allocatedBytesMethod = beanClass.getMethod("getThreadAllocatedBytes", long.class);
+                }
+            } catch (Exception e) {
+                threadBean = null;
+                allocatedBytesMethod = null;
+            }
+        }
+
+        boolean isSupported() {
+            return allocatedBytesMethod != null;
+        }
+
+        long allocatedBytes() {
+            if (allocatedBytesMethod == null) {
+                return 0;
+            }
+
+            try {
+                return (long) allocatedBytesMethod.invoke(threadBean, Thread.currentThread().getId());
+            } catch (Exception e) {
+                return 0;
+            }
+        }
+
+    }
+
+}
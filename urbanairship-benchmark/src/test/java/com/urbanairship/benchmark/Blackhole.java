@@ -0,0 +1,39 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+/**
+ * Consumes benchmark results so the JIT is unable to eliminate the measured work.
+ */
+public final class Blackhole {
+
+    private volatile int sink;
+
+    /**
+     * Consumes a value.
+     *
+     * @param value The value.
+     */
+    public void consume(Object value) {
+        sink ^= System.identityHashCode(value);
+    }
+
+    /**
+     * Consumes a boolean.
+     *
+     * @param value The value.
+     */
+    public void consume(boolean value) {
+        sink ^= value ? 1 : 0;
+    }
+
+    /**
+     * Consumes an int.
+     *
+     * @param value The value.
+     */
+    public void consume(int value) {
+        sink ^= value;
+    }
+
+}
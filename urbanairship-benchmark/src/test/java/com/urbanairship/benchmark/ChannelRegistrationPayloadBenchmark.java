@@ -0,0 +1,86 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.channel.ChannelRegistrationPayload;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Benchmarks for channel registration payload equality and diffing.
+ */
+public class ChannelRegistrationPayloadBenchmark extends BaseTestCase {
+
+    private static BenchmarkRunner runner;
+    private static ChannelRegistrationPayload payload;
+    private static ChannelRegistrationPayload samePayload;
+    private static ChannelRegistrationPayload updatedPayload;
+
+    @BeforeClass
+    public static void setupClass() {
+        runner = new BenchmarkRunner("channel_registration_payload");
+        payload = createPayload("en", 0);
+        samePayload = createPayload("en", 0);
+        updatedPayload = createPayload("fr", 10);
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        runner.writeResults();
+    }
+
+    @Test
+    public void equalsSame() throws Exception {
+        runner.run("equalsSame", blackhole -> blackhole.consume(payload.equals(samePayload)));
+    }
+
+    @Test
+    public void equalsUpdated() throws Exception {
+        runner.run("equalsUpdated", blackhole -> blackhole.consume(payload.equals(updatedPayload)));
+    }
+
+    @Test
+    public void minimizedPayload() throws Exception {
+        runner.run("minimizedPayload", blackhole -> blackhole.consume(updatedPayload.minimizedPayload(payload)));
+    }
+
+    @Test
+    public void toJsonValue() throws Exception {
+        runner.run("toJsonValue", blackhole -> blackhole.consume(payload.toJsonValue()));
+    }
+
+    @NonNull
+    private static ChannelRegistrationPayload createPayload(@NonNull String language, int extraTags) {
+        Set<String> tags = new HashSet<>();
+        for (int i = 0; i < 50 + extraTags; i++) {
+            tags.add("tag-" + i);
+        }
+
+        return new ChannelRegistrationPayload.Builder()
+                .setOptIn(true)
+                .setBackgroundEnabled(true)
+                .setDeviceType(ChannelRegistrationPayload.ANDROID_DEVICE_TYPE)
+                .setPushAddress("push address")
+                .setTags(true, tags)
+                .setTimezone("America/Los_Angeles")
+                .setLanguage(language)
+                .setCountry("US")
+                .setLocationSettings(true)
+                .setAppVersion("1.0.0")
+                .setSdkVersion("16.5.0")
+                .setDeviceModel("Pixel")
+                .setApiVersion(31)
+                .setCarrier("carrier")
+                .setContactId("contact id")
+                .build();
+    }
+
+}
@@ -0,0 +1,43 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.analytics.data.EventEntity;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Benchmarks for analytics event serialization.
+ */
+public class EventBenchmark extends BaseTestCase {
+
+    private static BenchmarkRunner runner;
+
+    @BeforeClass
+    public static void setupClass() {
+        runner = new BenchmarkRunner("event");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        runner.writeResults();
+    }
+
+    @Test
+    public void createEventEntity() throws Exception {
+        CustomEvent event = CustomEvent.newBuilder("purchase")
+                                       .setEventValue(99.99)
+                                       .setTransactionId("transaction id")
+                                       .addProperty("category", "shoes")
+                                       .addProperty("size", 10)
+                                       .addProperty("on_sale", true)
+                                       .build();
+
+        runner.run("createEventEntity", blackhole -> blackhole.consume(EventEntity.create(event, "session id")));
+    }
+
+}
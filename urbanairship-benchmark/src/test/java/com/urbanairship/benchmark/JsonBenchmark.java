@@ -0,0 +1,58 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmarks for JSON parsing, wrapping and serialization.
+ */
+public class JsonBenchmark extends BaseTestCase {
+
+    private static final int SCHEDULE_COUNT = 300;
+
+    private static BenchmarkRunner runner;
+    private static JsonMap payload;
+    private static String payloadString;
+    private static Map<String, Object> payloadObjects;
+
+    @BeforeClass
+    public static void setupClass() {
+        runner = new BenchmarkRunner("json");
+        payload = BenchmarkData.remoteDataPayload(SCHEDULE_COUNT);
+        payloadString = payload.toString();
+        payloadObjects = BenchmarkData.remoteDataObjects(SCHEDULE_COUNT);
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        runner.writeResults();
+    }
+
+    @Test
+    public void parseString() throws Exception {
+        assertEquals(payload, JsonValue.parseString(payloadString).getMap());
+        runner.run("parseString", blackhole -> blackhole.consume(JsonValue.parseString(payloadString)));
+    }
+
+    @Test
+    public void wrapObject() throws Exception {
+        runner.run("wrapObject", blackhole -> blackhole.consume(JsonValue.wrap(payloadObjects)));
+    }
+
+    @Test
+    public void mapToString() throws Exception {
+        runner.run("mapToString", blackhole -> blackhole.consume(payload.toString()));
+    }
+
+}
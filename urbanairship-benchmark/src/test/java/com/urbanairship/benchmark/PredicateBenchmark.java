@@ -0,0 +1,102 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonMatcher;
+import com.urbanairship.json.JsonPredicate;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.json.ValueMatcher;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmarks for JSON predicate evaluation.
+ */
+public class PredicateBenchmark extends BaseTestCase {
+
+    private static BenchmarkRunner runner;
+    private static JsonPredicate predicate;
+    private static JsonValue matchingValue;
+    private static JsonValue missingValue;
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        runner = new BenchmarkRunner("predicate");
+
+        // Mirrors an audience/trigger predicate: event name, a value range, a nested scope and a version
+        JsonPredicate eventPredicate = JsonPredicate.newBuilder()
+                                                    .setPredicateType(JsonPredicate.OR_PREDICATE_TYPE)
+                                                    .addMatcher(JsonMatcher.newBuilder()
+                                                                           .setKey("event_name")
+                                                                           .setValueMatcher(ValueMatcher.newValueMatcher(JsonValue.wrap("purchase")))
+                                                                           .build())
+                                                    .addMatcher(JsonMatcher.newBuilder()
+                                                                           .setKey("event_name")
+                                                                           .setValueMatcher(ValueMatcher.newValueMatcher(JsonValue.wrap("checkout")))
+                                                                           .build())
+                                                    .build();
+
+        predicate = JsonPredicate.newBuilder()
+                                 .setPredicateType(JsonPredicate.AND_PREDICATE_TYPE)
+                                 .addPredicate(eventPredicate)
+                                 .addMatcher(JsonMatcher.newBuilder()
+                                                        .setKey("event_value")
+                                                        .setValueMatcher(ValueMatcher.newNumberRangeMatcher(10.0, 1000.0))
+                                                        .build())
+                                 .addMatcher(JsonMatcher.newBuilder()
+                                                        .setScope("properties")
+                                                        .setKey("category")
+                                                        .setValueMatcher(ValueMatcher.newValueMatcher(JsonValue.wrap("shoes")))
+                                                        .build())
+                                 .addMatcher(JsonMatcher.newBuilder()
+                                                        .setKey("app_version")
+                                                        .setValueMatcher(ValueMatcher.newVersionMatcher("[1.0, 2.0)"))
+                                                        .build())
+                                 .build();
+
+        // Round trip through JSON to benchmark the predicate as it is parsed from remote data
+        predicate = JsonPredicate.parse(predicate.toJsonValue());
+
+        matchingValue = JsonMap.newBuilder()
+                               .put("event_name", "purchase")
+                               .put("event_value", 99.99)
+                               .put("app_version", "1.4.2")
+                               .put("properties", JsonMap.newBuilder().put("category", "shoes").put("size", 10).build())
+                               .build()
+                               .toJsonValue();
+
+        missingValue = JsonMap.newBuilder()
+                              .put("event_name", "screen_view")
+                              .build()
+                              .toJsonValue();
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        runner.writeResults();
+    }
+
+    @Test
+    public void applyMatch() throws Exception {
+        assertTrue(predicate.apply(matchingValue));
+        runner.run("applyMatch", blackhole -> blackhole.consume(predicate.apply(matchingValue)));
+    }
+
+    @Test
+    public void applyMiss() throws Exception {
+        runner.run("applyMiss", blackhole -> blackhole.consume(predicate.apply(missingValue)));
+    }
+
+    @Test
+    public void parse() throws Exception {
+        JsonValue json = predicate.toJsonValue();
+        runner.run("parse", blackhole -> blackhole.consume(JsonPredicate.parse(json)));
+    }
+
+}
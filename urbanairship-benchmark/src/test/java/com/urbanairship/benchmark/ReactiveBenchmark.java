@@ -0,0 +1,83 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.benchmark;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.reactive.Observable;
+import com.urbanairship.reactive.Subject;
+import com.urbanairship.reactive.Subscriber;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import androidx.annotation.NonNull;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmarks for emitting values through reactive operator chains.
+ * <p>
+ * Each operation emits a single value through a filter/map/map chain shaped like the automation
+ * trigger streams. The {@code boundChain} benchmark builds the same chain out of {@code flatMap}
+ * and {@code just}, which is how map and filter used to be implemented, as a baseline for the
+ * allocations per emitted value.
+ */
+public class ReactiveBenchmark extends BaseTestCase {
+
+    private static BenchmarkRunner runner;
+
+    @BeforeClass
+    public static void setupClass() {
+        runner = new BenchmarkRunner("reactive");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        runner.writeResults();
+    }
+
+    @Test
+    public void fusedChain() throws Exception {
+        Subject<Integer> subject = Subject.create();
+        Observable<String> chain = subject.filter(value -> value >= 0)
+                                          .map(value -> value * 2)
+                                          .map(value -> value > 100 ? "high" : "low");
+
+        run("fusedChain", subject, chain);
+    }
+
+    @Test
+    public void boundChain() throws Exception {
+        Subject<Integer> subject = Subject.create();
+        Observable<String> chain = subject.flatMap(value -> value >= 0 ? Observable.just(value) : Observable.<Integer>empty())
+                                          .flatMap(value -> Observable.just(value * 2))
+                                          .flatMap(value -> Observable.just(value > 100 ? "high" : "low"));
+
+        run("boundChain", subject, chain);
+    }
+
+    private static void run(@NonNull String name, @NonNull Subject<Integer> subject, @NonNull Observable<String> chain) throws Exception {
+        final int[] received = new int[1];
+        final Blackhole[] sink = new Blackhole[1];
+        chain.subscribe(new Subscriber<String>() {
+            @Override
+            public void onNext(@NonNull String value) {
+                received[0]++;
+                if (sink[0] != null) {
+                    sink[0].consume(value);
+                }
+            }
+        });
+
+        subject.onNext(1);
+        assertEquals(1, received[0]);
+
+        Integer value = 42;
+        runner.run(name, blackhole -> {
+            sink[0] = blackhole;
+            subject.onNext(value);
+        });
+    }
+
+}
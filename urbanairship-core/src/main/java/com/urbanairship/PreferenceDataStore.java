@@ -4,6 +4,7 @@ package com.urbanairship;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.os.Handler;
 
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonSerializable;
@@ -11,9 +12,14 @@ import com.urbanairship.json.JsonValue;
 import com.urbanairship.util.UAStringUtil;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
 
 import androidx.annotation.NonNull;
@@ -39,9 +45,32 @@ public final class PreferenceDataStore {
             "com.urbanairship.iam.tags.TAG_PREFER_LOCAL_DATA_TIME"
     };
 
+    /**
+     * Delay before dirty preferences are written to the database. Changes made within the delay
+     * are coalesced into a single transaction.
+     */
+    private static final long WRITE_DELAY_MS = 100;
+
     Executor executor = AirshipExecutors.newSerialExecutor();
     private final Map<String, Preference> preferences = new HashMap<>();
 
+    private final Set<Preference> dirtyPreferences = new LinkedHashSet<>();
+    private final Object writeLock = new Object();
+    private final Handler writeHandler = new Handler(AirshipLoopers.getBackgroundLooper());
+    private boolean isWriteScheduled = false;
+
+    private final Runnable writeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    flushPendingWrites();
+                }
+            });
+        }
+    };
+
     private final PreferenceDataDao dao;
     private final PreferenceDataDatabase db;
 
@@ -171,11 +200,29 @@ public final class PreferenceDataStore {
     }
 
     /**
-     * Unregisters any observers and closes the db connection.
+     * Unregisters any observers, writes any pending changes, and closes the db connection.
      */
     public void tearDown() {
+        writeHandler.removeCallbacks(writeRunnable);
         listeners.clear();
-        db.close();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                flushPendingWrites();
+                db.close();
+            }
+        });
+    }
+
+    /**
+     * Returns an editor to make a batch of changes. The changes are applied together and written
+     * to the database in a single transaction.
+     *
+     * @return A new editor.
+     */
+    @NonNull
+    public Editor edit() {
+        return new Editor();
     }
 
     /**
@@ -196,8 +243,7 @@ public final class PreferenceDataStore {
      * @return The boolean value for the preference or defaultValue if it doesn't exist.
      */
     public boolean getBoolean(@NonNull String key, boolean defaultValue) {
-        String value = getPreference(key).get();
-        return value == null ? defaultValue : Boolean.parseBoolean(value);
+        return getPreference(key).getBoolean(defaultValue);
     }
 
     /**
@@ -222,16 +268,7 @@ public final class PreferenceDataStore {
      * @return The long value for the preference or defaultValue if it doesn't exist.
      */
     public long getLong(@NonNull String key, long defaultValue) {
-        String value = getPreference(key).get();
-        if (value == null) {
-            return defaultValue;
-        }
-
-        try {
-            return Long.parseLong(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        return getPreference(key).getLong(defaultValue);
     }
 
     /**
@@ -243,16 +280,7 @@ public final class PreferenceDataStore {
      * @return The integer value for the preference or defaultValue if it doesn't exist.
      */
     public int getInt(@NonNull String key, int defaultValue) {
-        String value = getPreference(key).get();
-        if (value == null) {
-            return defaultValue;
-        }
-
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        return getPreference(key).getInt(defaultValue);
     }
 
     /**
@@ -263,13 +291,7 @@ public final class PreferenceDataStore {
      */
     @NonNull
     public JsonValue getJsonValue(@NonNull String key) {
-        try {
-            return JsonValue.parseString(getPreference(key).get());
-        } catch (JsonException e) {
-            // Should never happen
-            Logger.debug(e, "Unable to parse preference value: %s", key);
-            return JsonValue.NULL;
-        }
+        return getPreference(key).getJsonValue();
     }
 
     /**
@@ -375,6 +397,65 @@ public final class PreferenceDataStore {
         return getPreference(key).putSync(value);
     }
 
+    /**
+     * Marks preferences as dirty and schedules a write if one is not already scheduled.
+     *
+     * @param dirty The dirty preferences.
+     */
+    private void scheduleWrite(@NonNull Collection<Preference> dirty) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        synchronized (dirtyPreferences) {
+            dirtyPreferences.addAll(dirty);
+            if (isWriteScheduled) {
+                return;
+            }
+            isWriteScheduled = true;
+        }
+
+        writeHandler.postDelayed(writeRunnable, WRITE_DELAY_MS);
+    }
+
+    /**
+     * Writes all dirty preferences in a single transaction. Only the latest value of each
+     * preference is written.
+     */
+    @VisibleForTesting
+    void flushPendingWrites() {
+        synchronized (writeLock) {
+            final List<Preference> pending;
+            synchronized (dirtyPreferences) {
+                isWriteScheduled = false;
+                if (dirtyPreferences.isEmpty()) {
+                    return;
+                }
+                pending = new ArrayList<>(dirtyPreferences);
+                dirtyPreferences.clear();
+            }
+
+            try {
+                db.runInTransaction(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (Preference preference : pending) {
+                            String value = preference.get();
+                            if (value == null) {
+                                dao.delete(preference.key);
+                            } else {
+                                dao.upsert(new PreferenceData(preference.key, value));
+                            }
+                        }
+                    }
+                });
+                Logger.verbose("Saved %s preferences", pending.size());
+            } catch (Exception e) {
+                Logger.error(e, "Failed to write preferences");
+            }
+        }
+    }
+
     /**
      * Called when a preference changes in value.
      *
@@ -406,6 +487,116 @@ public final class PreferenceDataStore {
         }
     }
 
+    /**
+     * Batches preference changes. Changes are applied to the data store when {@link #apply()} is
+     * called and are written to the database in a single transaction.
+     */
+    public final class Editor {
+
+        private final Map<String, String> changes = new LinkedHashMap<>();
+
+        private Editor() {
+        }
+
+        /**
+         * Stores a String value.
+         *
+         * @param key The preference name.
+         * @param value The preference value, or {@code null} to remove the preference.
+         * @return The editor.
+         */
+        @NonNull
+        public Editor put(@NonNull String key, @Nullable String value) {
+            changes.put(key, value);
+            return this;
+        }
+
+        /**
+         * Stores a long value.
+         *
+         * @param key The preference name.
+         * @param value The preference value.
+         * @return The editor.
+         */
+        @NonNull
+        public Editor put(@NonNull String key, long value) {
+            return put(key, String.valueOf(value));
+        }
+
+        /**
+         * Stores an int value.
+         *
+         * @param key The preference name.
+         * @param value The preference value.
+         * @return The editor.
+         */
+        @NonNull
+        public Editor put(@NonNull String key, int value) {
+            return put(key, String.valueOf(value));
+        }
+
+        /**
+         * Stores a boolean value.
+         *
+         * @param key The preference name.
+         * @param value The preference value.
+         * @return The editor.
+         */
+        @NonNull
+        public Editor put(@NonNull String key, boolean value) {
+            return put(key, String.valueOf(value));
+        }
+
+        /**
+         * Stores a {@link JsonSerializable} value.
+         *
+         * @param key The preference name.
+         * @param value The preference value, or {@code null} to remove the preference.
+         * @return The editor.
+         */
+        @NonNull
+        public Editor put(@NonNull String key, @Nullable JsonSerializable value) {
+            JsonValue jsonValue = value == null ? null : value.toJsonValue();
+            return put(key, jsonValue == null ? null : jsonValue.toString());
+        }
+
+        /**
+         * Removes a preference.
+         *
+         * @param key The preference name.
+         * @return The editor.
+         */
+        @NonNull
+        public Editor remove(@NonNull String key) {
+            return put(key, (String) null);
+        }
+
+        /**
+         * Applies the changes.
+         */
+        public void apply() {
+            List<Preference> changed = new ArrayList<>(changes.size());
+            for (Map.Entry<String, String> entry : changes.entrySet()) {
+                Preference preference;
+                if (entry.getValue() == null) {
+                    synchronized (preferences) {
+                        preference = preferences.get(entry.getKey());
+                    }
+                } else {
+                    preference = getPreference(entry.getKey());
+                }
+
+                if (preference != null && preference.setValue(entry.getValue())) {
+                    changed.add(preference);
+                }
+            }
+
+            changes.clear();
+            scheduleWrite(changed);
+        }
+
+    }
+
     /**
      * A helper class that handles fetching, writing, and syncing with the
      * preference provider.
@@ -415,6 +606,13 @@ public final class PreferenceDataStore {
         private final String key;
         private String value;
 
+        // Values decoded from the current value, cleared whenever the value changes
+        private Long decodedLong;
+        private Integer decodedInt;
+        private JsonValue decodedJson;
+        private boolean isLongInvalid;
+        private boolean isIntInvalid;
+
         Preference(String key, String value) {
             this.key = key;
             this.value = value;
@@ -431,6 +629,92 @@ public final class PreferenceDataStore {
             }
         }
 
+        /**
+         * Gets the value as a long. The parsed value is cached until the value changes.
+         *
+         * @param defaultValue The value to return if the preference doesn't exist or
+         * cannot be coerced into a long.
+         * @return The long value.
+         */
+        long getLong(long defaultValue) {
+            synchronized (this) {
+                if (value == null || isLongInvalid) {
+                    return defaultValue;
+                }
+
+                if (decodedLong == null) {
+                    try {
+                        decodedLong = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        isLongInvalid = true;
+                        return defaultValue;
+                    }
+                }
+
+                return decodedLong;
+            }
+        }
+
+        /**
+         * Gets the value as an int. The parsed value is cached until the value changes.
+         *
+         * @param defaultValue The value to return if the preference doesn't exist or
+         * cannot be coerced into an integer.
+         * @return The int value.
+         */
+        int getInt(int defaultValue) {
+            synchronized (this) {
+                if (value == null || isIntInvalid) {
+                    return defaultValue;
+                }
+
+                if (decodedInt == null) {
+                    try {
+                        decodedInt = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        isIntInvalid = true;
+                        return defaultValue;
+                    }
+                }
+
+                return decodedInt;
+            }
+        }
+
+        /**
+         * Gets the value as a boolean.
+         *
+         * @param defaultValue The value to return if the preference doesn't exist.
+         * @return The boolean value.
+         */
+        boolean getBoolean(boolean defaultValue) {
+            synchronized (this) {
+                return value == null ? defaultValue : Boolean.parseBoolean(value);
+            }
+        }
+
+        /**
+         * Gets the value as a {@link JsonValue}. The parsed value is cached until the value changes.
+         *
+         * @return The parsed value, or {@link JsonValue#NULL} if the preference doesn't exist.
+         */
+        @NonNull
+        JsonValue getJsonValue() {
+            synchronized (this) {
+                if (decodedJson == null) {
+                    try {
+                        decodedJson = JsonValue.parseString(value);
+                    } catch (JsonException e) {
+                        // Should never happen
+                        Logger.debug(e, "Unable to parse preference value: %s", key);
+                        decodedJson = JsonValue.NULL;
+                    }
+                }
+
+                return decodedJson;
+            }
+        }
+
         /**
          * Put a new value for the preference.
          *
@@ -438,12 +722,7 @@ public final class PreferenceDataStore {
          */
         void put(final String value) {
             if (setValue(value)) {
-                executor.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        writeValue(value);
-                    }
-                });
+                scheduleWrite(Collections.singletonList(this));
             }
         }
 
@@ -457,12 +736,18 @@ public final class PreferenceDataStore {
          * the database, otherwise <code>false</code>
          */
         boolean putSync(String value) {
-            synchronized (this) {
-                if (writeValue(value)) {
-                    setValue(value);
-                    return true;
+            synchronized (writeLock) {
+                synchronized (this) {
+                    if (writeValue(value)) {
+                        // The synchronous write supersedes any pending write
+                        synchronized (dirtyPreferences) {
+                            dirtyPreferences.remove(this);
+                        }
+                        setValue(value);
+                        return true;
+                    }
+                    return false;
                 }
-                return false;
             }
         }
 
@@ -479,6 +764,11 @@ public final class PreferenceDataStore {
                     return false;
                 }
                 this.value = value;
+                this.decodedLong = null;
+                this.decodedInt = null;
+                this.decodedJson = null;
+                this.isLongInvalid = false;
+                this.isIntInvalid = false;
             }
             Logger.verbose("Preference updated: %s", key);
             onPreferenceChanged(key);
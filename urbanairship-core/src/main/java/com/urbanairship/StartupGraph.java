@@ -0,0 +1,148 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship;
+
+import com.urbanairship.base.Supplier;
+import com.urbanairship.modules.Module;
+import com.urbanairship.util.TaskGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Creates and initializes the Airship components during takeOff.
+ * <p>
+ * Each entry declares the entries it depends on. All entries are created first, then all of their
+ * components are initialized. In both passes an entry waits for its dependencies and otherwise
+ * runs in parallel with the others.
+ */
+class StartupGraph {
+
+    private static final ThreadLocal<Boolean> isStartupThread = new ThreadLocal<>();
+
+    private final TaskGraph createGraph;
+    private final TaskGraph initGraph;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Module> modules = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param executor The executor that creates and initializes the components.
+     */
+    StartupGraph(@NonNull final Executor executor) {
+        Executor startupExecutor = new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable runnable) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        isStartupThread.set(true);
+                        try {
+                            runnable.run();
+                        } finally {
+                            isStartupThread.remove();
+                        }
+                    }
+                });
+            }
+        };
+
+        this.createGraph = new TaskGraph(startupExecutor);
+        this.initGraph = new TaskGraph(startupExecutor);
+    }
+
+    /**
+     * Checks if the current thread is creating or initializing a component. The takeOff thread
+     * holds the airship lock while waiting on these threads.
+     *
+     * @return {@code true} if called from a startup thread, otherwise {@code false}.
+     */
+    static boolean isStartupThread() {
+        return Boolean.TRUE.equals(isStartupThread.get());
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param name The entry name.
+     * @param factory Creates the entry's module, or returns {@code null} if it has no components.
+     * @param dependencies The names of the entries this entry depends on.
+     */
+    void add(@NonNull final String name, @NonNull final Supplier<Module> factory, @NonNull String... dependencies) {
+        names.add(name);
+
+        createGraph.add(name, new Runnable() {
+            @Override
+            public void run() {
+                Module module = factory.get();
+                if (module != null) {
+                    modules.put(name, module);
+                }
+            }
+        }, dependencies);
+
+        initGraph.add(name, new Runnable() {
+            @Override
+            public void run() {
+                Module module = modules.get(name);
+                if (module != null) {
+                    for (AirshipComponent component : module.getComponents()) {
+                        component.init();
+                    }
+                }
+            }
+        }, dependencies);
+    }
+
+    /**
+     * Creates every entry. Blocks until finished.
+     */
+    void create() {
+        createGraph.run();
+        Logger.verbose("Airship component creation times: %s", createGraph.getDurations());
+    }
+
+    /**
+     * Initializes every component. Blocks until finished.
+     */
+    void init() {
+        initGraph.run();
+        Logger.verbose("Airship component init times: %s", initGraph.getDurations());
+    }
+
+    /**
+     * Gets the created modules, in the order their entries were added.
+     *
+     * @return The modules.
+     */
+    @NonNull
+    List<Module> getModules() {
+        List<Module> result = new ArrayList<>();
+        for (String name : names) {
+            Module module = modules.get(name);
+            if (module != null) {
+                result.add(module);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets a created module.
+     *
+     * @param name The entry name.
+     * @return The module, or {@code null} if the entry has no components.
+     */
+    @Nullable
+    Module getModule(@NonNull String name) {
+        return modules.get(name);
+    }
+
+}
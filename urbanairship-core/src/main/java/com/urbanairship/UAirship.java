@@ -40,6 +40,7 @@ import com.urbanairship.push.PushManager;
 import com.urbanairship.remoteconfig.RemoteConfigManager;
 import com.urbanairship.remotedata.RemoteData;
 import com.urbanairship.util.AppStoreUtils;
+import com.urbanairship.util.BoundedExecutor;
 import com.urbanairship.util.ProcessUtils;
 
 import java.lang.annotation.Retention;
@@ -109,6 +110,30 @@ public class UAirship {
      */
     public static final int UNKNOWN_PLATFORM = -1;
 
+    /**
+     * Max number of components created or initialized at a time during takeOff.
+     */
+    private static final int STARTUP_CONCURRENCY = 4;
+
+    private static final String STARTUP_CHANNEL = "channel";
+    private static final String STARTUP_ACTIONS = "actions";
+    private static final String STARTUP_ANALYTICS = "analytics";
+    private static final String STARTUP_APPLICATION_METRICS = "application_metrics";
+    private static final String STARTUP_PUSH = "push";
+    private static final String STARTUP_CHANNEL_CAPTURE = "channel_capture";
+    private static final String STARTUP_REMOTE_DATA = "remote_data";
+    private static final String STARTUP_REMOTE_CONFIG = "remote_config";
+    private static final String STARTUP_CONTACT = "contact";
+    private static final String STARTUP_NAMED_USER = "named_user";
+    private static final String STARTUP_DEBUG = "debug";
+    private static final String STARTUP_ACCENGAGE = "accengage";
+    private static final String STARTUP_MESSAGE_CENTER = "message_center";
+    private static final String STARTUP_LOCATION = "location";
+    private static final String STARTUP_AUTOMATION = "automation";
+    private static final String STARTUP_AD_ID = "ad_id";
+    private static final String STARTUP_CHAT = "chat";
+    private static final String STARTUP_PREFERENCE_CENTER = "preference_center";
+
     private final static Object airshipLock = new Object();
     volatile static boolean isFlying = false;
     volatile static boolean isTakingOff = false;
@@ -171,6 +196,12 @@ public class UAirship {
      */
     @NonNull
     public static UAirship shared() {
+        // The takeOff thread holds the lock while components are created and initialized on
+        // other threads
+        if (StartupGraph.isStartupThread()) {
+            return sharedAirship;
+        }
+
         synchronized (airshipLock) {
             if (!isTakingOff && !isFlying) {
                 throw new IllegalStateException("Take off must be called before shared()");
@@ -206,6 +237,10 @@ public class UAirship {
      */
     @Nullable
     public static UAirship waitForTakeOff(long millis) {
+        if (StartupGraph.isStartupThread()) {
+            return sharedAirship;
+        }
+
         synchronized (airshipLock) {
             if (isFlying) {
                 return sharedAirship;
@@ -693,6 +728,7 @@ public class UAirship {
      * Initializes UAirship instance.
      */
     private void init() {
+        long startTime = SystemClock.elapsedRealtime();
 
         // Create and init the preference data store first
         this.preferenceDataStore = PreferenceDataStore.loadDataStore(getApplicationContext(), airshipConfigOptions);
@@ -702,10 +738,10 @@ public class UAirship {
 
         this.localeManager = new LocaleManager(application, preferenceDataStore);
 
-        Supplier<PushProviders> pushProviders = PushProviders.lazyLoader(application, airshipConfigOptions);
+        final Supplier<PushProviders> pushProviders = PushProviders.lazyLoader(application, airshipConfigOptions);
 
         DeferredPlatformProvider platformProvider = new DeferredPlatformProvider(getApplicationContext(), preferenceDataStore, privacyManager, pushProviders);
-        RemoteAirshipUrlConfigProvider remoteAirshipUrlConfigProvider = new RemoteAirshipUrlConfigProvider(airshipConfigOptions, preferenceDataStore);
+        final RemoteAirshipUrlConfigProvider remoteAirshipUrlConfigProvider = new RemoteAirshipUrlConfigProvider(airshipConfigOptions, preferenceDataStore);
         this.runtimeConfig = new AirshipRuntimeConfig(platformProvider, airshipConfigOptions, remoteAirshipUrlConfigProvider);
         remoteAirshipUrlConfigProvider.addUrlConfigListener(new AirshipUrlConfig.Listener() {
             @Override
@@ -716,84 +752,186 @@ public class UAirship {
             }
         });
 
-        this.channel = new AirshipChannel(application, preferenceDataStore, runtimeConfig, privacyManager, localeManager);
+        long configTime = SystemClock.elapsedRealtime();
 
-        if (channel.getId() == null && "huawei".equalsIgnoreCase(Build.MANUFACTURER)) {
-            remoteAirshipUrlConfigProvider.disableFallbackUrls();
-        }
+        // Components that do not depend on each other are created and initialized in parallel
+        StartupGraph graph = new StartupGraph(new BoundedExecutor(AirshipExecutors.threadPoolExecutor(), STARTUP_CONCURRENCY));
 
-        components.add(channel);
+        graph.add(STARTUP_CHANNEL, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                channel = new AirshipChannel(application, preferenceDataStore, runtimeConfig, privacyManager, localeManager);
+
+                if (channel.getId() == null && "huawei".equalsIgnoreCase(Build.MANUFACTURER)) {
+                    remoteAirshipUrlConfigProvider.disableFallbackUrls();
+                }
 
-        this.urlAllowList = UrlAllowList.createDefaultUrlAllowList(airshipConfigOptions);
-        this.actionRegistry = new ActionRegistry();
-        this.actionRegistry.registerDefaultActions(getApplicationContext());
+                return Module.singleComponent(channel, 0);
+            }
+        });
+
+        graph.add(STARTUP_ACTIONS, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                urlAllowList = UrlAllowList.createDefaultUrlAllowList(airshipConfigOptions);
+                actionRegistry = new ActionRegistry();
+                actionRegistry.registerDefaultActions(getApplicationContext());
+                return null;
+            }
+        });
 
         // Airship components
-        this.analytics = new Analytics(application, preferenceDataStore, runtimeConfig, privacyManager, channel, localeManager);
-        components.add(this.analytics);
+        graph.add(STARTUP_ANALYTICS, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                analytics = new Analytics(application, preferenceDataStore, runtimeConfig, privacyManager, channel, localeManager);
+                return Module.singleComponent(analytics, 0);
+            }
+        }, STARTUP_CHANNEL);
 
-        //noinspection deprecation
-        this.applicationMetrics = new ApplicationMetrics(application, preferenceDataStore, privacyManager);
-        components.add(this.applicationMetrics);
+        graph.add(STARTUP_APPLICATION_METRICS, new Supplier<Module>() {
+            @Override
+            @SuppressWarnings("deprecation")
+            public Module get() {
+                applicationMetrics = new ApplicationMetrics(application, preferenceDataStore, privacyManager);
+                return Module.singleComponent(applicationMetrics, 0);
+            }
+        });
 
-        this.pushManager = new PushManager(application, preferenceDataStore, runtimeConfig, privacyManager, pushProviders, channel, analytics);
-        components.add(this.pushManager);
+        graph.add(STARTUP_PUSH, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                pushManager = new PushManager(application, preferenceDataStore, runtimeConfig, privacyManager, pushProviders, channel, analytics);
+                return Module.singleComponent(pushManager, 0);
+            }
+        }, STARTUP_CHANNEL, STARTUP_ANALYTICS);
 
-        this.channelCapture = new ChannelCapture(application, airshipConfigOptions, channel, preferenceDataStore, GlobalActivityMonitor.shared(application));
-        components.add(this.channelCapture);
+        graph.add(STARTUP_CHANNEL_CAPTURE, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                channelCapture = new ChannelCapture(application, airshipConfigOptions, channel, preferenceDataStore, GlobalActivityMonitor.shared(application));
+                return Module.singleComponent(channelCapture, 0);
+            }
+        }, STARTUP_CHANNEL);
 
-        this.remoteData = new RemoteData(application, preferenceDataStore, runtimeConfig, privacyManager, pushManager, localeManager, pushProviders);
-        components.add(this.remoteData);
+        graph.add(STARTUP_REMOTE_DATA, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                remoteData = new RemoteData(application, preferenceDataStore, runtimeConfig, privacyManager, pushManager, localeManager, pushProviders);
+                return Module.singleComponent(remoteData, 0);
+            }
+        }, STARTUP_PUSH);
 
-        this.remoteConfigManager = new RemoteConfigManager(application, preferenceDataStore, runtimeConfig, privacyManager, remoteData);
-        this.remoteConfigManager.addRemoteAirshipConfigListener(remoteAirshipUrlConfigProvider);
-        components.add(this.remoteConfigManager);
+        graph.add(STARTUP_REMOTE_CONFIG, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                remoteConfigManager = new RemoteConfigManager(application, preferenceDataStore, runtimeConfig, privacyManager, remoteData);
+                remoteConfigManager.addRemoteAirshipConfigListener(remoteAirshipUrlConfigProvider);
+                return Module.singleComponent(remoteConfigManager, 0);
+            }
+        }, STARTUP_REMOTE_DATA);
 
-        this.contact = new Contact(application, preferenceDataStore, runtimeConfig, privacyManager, channel);
-        components.add(this.contact);
+        graph.add(STARTUP_CONTACT, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                contact = new Contact(application, preferenceDataStore, runtimeConfig, privacyManager, channel);
+                return Module.singleComponent(contact, 0);
+            }
+        }, STARTUP_CHANNEL);
 
-        //noinspection deprecation
-        this.namedUser = new NamedUser(application, preferenceDataStore, contact);
-        components.add(this.namedUser);
+        graph.add(STARTUP_NAMED_USER, new Supplier<Module>() {
+            @Override
+            @SuppressWarnings("deprecation")
+            public Module get() {
+                namedUser = new NamedUser(application, preferenceDataStore, contact);
+                return Module.singleComponent(namedUser, 0);
+            }
+        }, STARTUP_CONTACT);
 
         // Debug
-        Module debugModule = Modules.debug(application, preferenceDataStore);
-        processModule(debugModule);
+        graph.add(STARTUP_DEBUG, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                return Modules.debug(application, preferenceDataStore);
+            }
+        });
 
         // Accengage
-        AccengageModule accengageModule = Modules.accengage(application, airshipConfigOptions, preferenceDataStore, privacyManager, channel, pushManager);
-        processModule(accengageModule);
-        this.accengageNotificationHandler = accengageModule == null ? null : accengageModule.getAccengageNotificationHandler();
+        graph.add(STARTUP_ACCENGAGE, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                return Modules.accengage(application, airshipConfigOptions, preferenceDataStore, privacyManager, channel, pushManager);
+            }
+        }, STARTUP_CHANNEL, STARTUP_PUSH);
 
         // Message Center
-        Module messageCenterModule = Modules.messageCenter(application, preferenceDataStore, privacyManager, channel, pushManager, getAirshipConfigOptions());
-        processModule(messageCenterModule);
+        graph.add(STARTUP_MESSAGE_CENTER, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                return Modules.messageCenter(application, preferenceDataStore, privacyManager, channel, pushManager, getAirshipConfigOptions());
+            }
+        }, STARTUP_CHANNEL, STARTUP_PUSH);
 
         // Location
-        LocationModule locationModule = Modules.location(application, preferenceDataStore, privacyManager, channel, analytics);
-        processModule(locationModule);
-        this.locationClient = locationModule == null ? null : locationModule.getLocationClient();
+        graph.add(STARTUP_LOCATION, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                return Modules.location(application, preferenceDataStore, privacyManager, channel, analytics);
+            }
+        }, STARTUP_CHANNEL, STARTUP_ANALYTICS);
 
         // Automation
-        Module automationModule = Modules.automation(application, preferenceDataStore, runtimeConfig,
-                privacyManager, channel, pushManager, analytics, remoteData, contact);
-        processModule(automationModule);
+        graph.add(STARTUP_AUTOMATION, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                return Modules.automation(application, preferenceDataStore, runtimeConfig,
+                        privacyManager, channel, pushManager, analytics, remoteData, contact);
+            }
+        }, STARTUP_CHANNEL, STARTUP_PUSH, STARTUP_ANALYTICS, STARTUP_REMOTE_DATA, STARTUP_CONTACT);
 
         // Ad Id
-        Module adIdModule = Modules.adId(application, preferenceDataStore, runtimeConfig, privacyManager, analytics);
-        processModule(adIdModule);
+        graph.add(STARTUP_AD_ID, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                return Modules.adId(application, preferenceDataStore, runtimeConfig, privacyManager, analytics);
+            }
+        }, STARTUP_ANALYTICS);
 
         // Chat
-        Module chat = Modules.chat(application, preferenceDataStore, runtimeConfig, privacyManager, channel, pushManager);
-        processModule(chat);
+        graph.add(STARTUP_CHAT, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                return Modules.chat(application, preferenceDataStore, runtimeConfig, privacyManager, channel, pushManager);
+            }
+        }, STARTUP_CHANNEL, STARTUP_PUSH);
 
         // Preference Center
-        Module preferenceCenter = Modules.preferenceCenter(application, preferenceDataStore, privacyManager, remoteData);
-        processModule(preferenceCenter);
+        graph.add(STARTUP_PREFERENCE_CENTER, new Supplier<Module>() {
+            @Override
+            public Module get() {
+                return Modules.preferenceCenter(application, preferenceDataStore, privacyManager, remoteData);
+            }
+        }, STARTUP_REMOTE_DATA);
 
-        for (AirshipComponent component : components) {
-            component.init();
+        graph.create();
+        long createTime = SystemClock.elapsedRealtime();
+
+        // Components and actions are added in a fixed order, regardless of when they were created
+        for (Module module : graph.getModules()) {
+            processModule(module);
         }
+
+        AccengageModule accengageModule = (AccengageModule) graph.getModule(STARTUP_ACCENGAGE);
+        this.accengageNotificationHandler = accengageModule == null ? null : accengageModule.getAccengageNotificationHandler();
+
+        LocationModule locationModule = (LocationModule) graph.getModule(STARTUP_LOCATION);
+        this.locationClient = locationModule == null ? null : locationModule.getLocationClient();
+
+        graph.init();
+        long initTime = SystemClock.elapsedRealtime();
+
+        Logger.debug("Airship startup took %d ms (config: %d ms, create: %d ms, init: %d ms)",
+                initTime - startTime, configTime - startTime, createTime - configTime, initTime - createTime);
     }
 
     private void processModule(@Nullable Module module) {
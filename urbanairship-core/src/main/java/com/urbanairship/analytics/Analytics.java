@@ -276,6 +276,7 @@ public class Analytics extends AirshipComponent {
     @Override
     protected void tearDown() {
         activityMonitor.removeApplicationListener(listener);
+        flushPendingEvents();
     }
 
     /**
@@ -429,6 +430,7 @@ public class Analytics extends AirshipComponent {
         trackScreen(null);
 
         addEvent(new AppBackgroundEvent(timeMS));
+        flushPendingEvents();
         setConversionSendId(null);
         setConversionMetadata(null);
 
@@ -456,6 +458,18 @@ public class Analytics extends AirshipComponent {
         }
     }
 
+    /**
+     * Commits any events that are waiting to be stored.
+     */
+    private void flushPendingEvents() {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                eventManager.flushPendingEvents();
+            }
+        });
+    }
+
     private void clearPendingEvents() {
         executor.execute(new Runnable() {
             @Override
@@ -73,12 +73,12 @@ public class EventApiClient {
                                .appendEncodedPath(WARP9_PATH)
                                .build();
 
-        String payload = JsonValue.wrapOpt(events).toString();
         double sentAt = System.currentTimeMillis() / 1000.0;
 
+        // The events are streamed straight into the compressed request body
         Request request = requestFactory.createRequest()
                                         .setOperation("POST", url)
-                                        .setRequestBody(payload, "application/json")
+                                        .setRequestBody(JsonValue.wrapOpt(events))
                                         .setCompressRequestBody(true)
                                         .setHeader("X-UA-Sent-At", String.format(Locale.US, "%.3f", sentAt))
                                         .setAirshipUserAgent(runtimeConfig)
@@ -20,9 +20,14 @@ import androidx.room.Transaction;
 @Dao
 public abstract class EventDao {
 
+    private static final int TRIM_PAGE_SIZE = 100;
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     public abstract void insert(EventEntity event);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insert(List<EventEntity> events);
+
     @Transaction
     @Query("SELECT * FROM events ORDER BY id ASC")
     public abstract List<EventEntity> get();
@@ -31,6 +36,38 @@ public abstract class EventDao {
     @Query("SELECT id, eventId, data FROM events ORDER BY id ASC LIMIT :limit")
     public abstract List<EventEntity.EventIdAndData> getBatch(int limit);
 
+    @Query("SELECT eventSize FROM events ORDER BY id ASC LIMIT :limit")
+    abstract List<Integer> getEventSizes(int limit);
+
+    /**
+     * Gets the oldest events that fit within a JSON array payload of the given size. The
+     * payload size is counted exactly from each event's stored size plus the array brackets
+     * and separators. At least one event is returned if any exist so a single oversized event
+     * does not block uploads.
+     *
+     * @param maxCount The max number of events.
+     * @param maxBytes The max payload size in bytes.
+     * @return The batch of events.
+     */
+    @Transaction
+    public List<EventEntity.EventIdAndData> getBatch(int maxCount, int maxBytes) {
+        List<Integer> sizes = getEventSizes(maxCount);
+
+        // Account for the enclosing brackets
+        long payloadSize = 2;
+        int count = 0;
+        for (Integer size : sizes) {
+            long eventSize = (size == null ? 0 : size) + (count > 0 ? 1 : 0);
+            if (count > 0 && payloadSize + eventSize > maxBytes) {
+                break;
+            }
+            payloadSize += eventSize;
+            count++;
+        }
+
+        return getBatch(count);
+    }
+
     @Transaction
     public void deleteBatch(List<EventEntity.EventIdAndData> events) {
         for (EventEntity.EventIdAndData event : events) {
@@ -59,6 +96,48 @@ public abstract class EventDao {
     @Query("DELETE FROM events WHERE sessionId = :sessionId")
     abstract int deleteSession(String sessionId);
 
+    @Query("SELECT id, eventSize FROM events WHERE id > :afterId ORDER BY id ASC LIMIT :limit")
+    abstract List<EventEntity.EventIdAndSize> getEventSizesAfter(int afterId, int limit);
+
+    @Query("DELETE FROM events WHERE id <= :id")
+    abstract int deleteThrough(int id);
+
+    /**
+     * Deletes the oldest events until at least the given number of bytes are removed. The
+     * events are deleted with a single statement.
+     *
+     * @param bytes The number of bytes to delete.
+     * @return The number of bytes deleted.
+     */
+    @Transaction
+    public int deleteOldest(int bytes) {
+        int deleted = 0;
+        int lastId = -1;
+
+        while (deleted < bytes) {
+            List<EventEntity.EventIdAndSize> page = getEventSizesAfter(lastId, TRIM_PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+
+            for (EventEntity.EventIdAndSize event : page) {
+                lastId = event.id;
+                deleted += event.eventSize;
+                if (deleted >= bytes) {
+                    break;
+                }
+            }
+        }
+
+        if (lastId == -1) {
+            return 0;
+        }
+
+        int count = deleteThrough(lastId);
+        Logger.debug("Deleted %d events (%d bytes) to trim the event database", count, deleted);
+        return deleted;
+    }
+
     @Transaction
     public void trimDatabase(int maxDatabaseSize) {
         while (databaseSize() > maxDatabaseSize) {
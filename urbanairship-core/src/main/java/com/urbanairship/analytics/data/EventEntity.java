@@ -103,6 +103,19 @@ public class EventEntity {
                 ObjectsCompat.equals(sessionId, entity.sessionId);
     }
 
+    /**
+     * Minimal wrapper for queries that only need to return the row ID and event size.
+     */
+    public static class EventIdAndSize {
+        public int id;
+        public int eventSize;
+
+        public EventIdAndSize(int id, int eventSize) {
+            this.id = id;
+            this.eventSize = eventSize;
+        }
+    }
+
     /**
      * Minimal wrapper for queries that only need to return the event ID and data fields.
      */
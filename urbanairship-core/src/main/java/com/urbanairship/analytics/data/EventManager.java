@@ -1,7 +1,10 @@
 package com.urbanairship.analytics.data;
 
 import android.content.Context;
+import android.os.Handler;
 
+import com.urbanairship.AirshipExecutors;
+import com.urbanairship.AirshipLoopers;
 import com.urbanairship.Logger;
 import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.analytics.Analytics;
@@ -19,6 +22,7 @@ import com.urbanairship.json.JsonValue;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
@@ -68,6 +72,26 @@ public class EventManager {
      */
     private static final long MULTIPLE_BATCH_DELAY = 1000; // 1s
 
+    /**
+     * Number of pending events that triggers an immediate group commit.
+     */
+    private static final int EVENT_GROUP_SIZE = 25;
+
+    /**
+     * Max time in milliseconds an event waits in memory before its group is committed.
+     */
+    private static final long EVENT_GROUP_DELAY_MS = 500;
+
+    /**
+     * Default fraction of the max database size that triggers a trim.
+     */
+    static final float DEFAULT_TRIM_HIGH_WATERMARK = 1.0f;
+
+    /**
+     * Default fraction of the max database size the database is trimmed down to.
+     */
+    static final float DEFAULT_TRIM_LOW_WATERMARK = 0.75f;
+
     private final PreferenceDataStore preferenceDataStore;
     private final JobDispatcher jobDispatcher;
     private final ActivityMonitor activityMonitor;
@@ -77,9 +101,35 @@ public class EventManager {
 
     private final Object eventLock = new Object();
     private final Object scheduleLock = new Object();
+    private final Object pendingLock = new Object();
+
+    Executor executor = AirshipExecutors.newSerialExecutor();
+    private final Handler flushHandler = new Handler(AirshipLoopers.getBackgroundLooper());
+
+    // Events waiting to be committed as a group. Guarded by pendingLock.
+    private List<EventEntity> pendingEvents = new ArrayList<>(EVENT_GROUP_SIZE);
+    private int pendingPriority = Event.LOW_PRIORITY;
+    private boolean isFlushScheduled;
+
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    flushPendingEvents();
+                }
+            });
+        }
+    };
 
     private boolean isScheduled;
 
+    // Running size of the stored events, -1 until loaded from the database. Guarded by eventLock.
+    private long storedEventSize = -1;
+    private float trimHighWatermark = DEFAULT_TRIM_HIGH_WATERMARK;
+    private float trimLowWatermark = DEFAULT_TRIM_LOW_WATERMARK;
+
     public EventManager(@NonNull Context context,
                         @NonNull PreferenceDataStore preferenceDataStore,
                         @NonNull AirshipRuntimeConfig runtimeConfig) {
@@ -104,6 +154,26 @@ public class EventManager {
 
     }
 
+    /**
+     * Sets the event database trim watermarks as fractions of the max database size. Once the
+     * stored events grow past the high watermark, the oldest events are deleted until the size is
+     * at or below the low watermark.
+     *
+     * @param highWatermark The high watermark, between 0 and 1.
+     * @param lowWatermark The low watermark, between 0 and the high watermark.
+     * @throws IllegalArgumentException If the watermarks are out of range.
+     */
+    public void setTrimWatermarks(float highWatermark, float lowWatermark) {
+        if (highWatermark <= 0 || highWatermark > 1 || lowWatermark < 0 || lowWatermark > highWatermark) {
+            throw new IllegalArgumentException("Invalid watermarks: " + highWatermark + ", " + lowWatermark);
+        }
+
+        synchronized (eventLock) {
+            this.trimHighWatermark = highWatermark;
+            this.trimLowWatermark = lowWatermark;
+        }
+    }
+
     /**
      * Schedule a batch event upload at a given time in the future.
      *
@@ -149,6 +219,10 @@ public class EventManager {
 
     /**
      * Adds an event.
+     * <p>
+     * Events are held in memory and committed in groups, either once enough events are pending,
+     * after a short delay, or right away for high priority events. Call
+     * {@link #flushPendingEvents()} to commit any pending events immediately.
      *
      * @param event The event.
      * @param sessionId The event's session ID.
@@ -163,15 +237,66 @@ public class EventManager {
             return;
         }
 
+        boolean flushNow;
+        synchronized (pendingLock) {
+            pendingEvents.add(entity);
+            pendingPriority = Math.max(pendingPriority, event.getPriority());
+            flushNow = pendingEvents.size() >= EVENT_GROUP_SIZE || event.getPriority() == Event.HIGH_PRIORITY;
+
+            if (!flushNow && !isFlushScheduled) {
+                isFlushScheduled = true;
+                flushHandler.postDelayed(flushRunnable, EVENT_GROUP_DELAY_MS);
+            }
+        }
+
+        if (flushNow) {
+            flushPendingEvents();
+        }
+    }
+
+    /**
+     * Commits any pending events in a single transaction and schedules an upload for the group.
+     */
+    @WorkerThread
+    public void flushPendingEvents() {
+        List<EventEntity> group;
+        int priority;
+        long groupSize = 0;
+
         synchronized (eventLock) {
-            eventDao.insert(entity);
+            synchronized (pendingLock) {
+                isFlushScheduled = false;
+                flushHandler.removeCallbacks(flushRunnable);
+                if (pendingEvents.isEmpty()) {
+                    return;
+                }
+
+                group = pendingEvents;
+                priority = pendingPriority;
+                pendingEvents = new ArrayList<>(EVENT_GROUP_SIZE);
+                pendingPriority = Event.LOW_PRIORITY;
+            }
 
-            // Handle database max size exceeded
-            int maxSize = preferenceDataStore.getInt(MAX_TOTAL_DB_SIZE_KEY, EventResponse.MAX_TOTAL_DB_SIZE_BYTES);
-            eventDao.trimDatabase(maxSize);
+            for (EventEntity entity : group) {
+                groupSize += entity.eventSize;
+            }
+
+            // Insert while holding the event lock so groups are stored in the order they were added
+            eventDao.insert(group);
+            onEventsStored(groupSize);
         }
 
-        switch (event.getPriority()) {
+        Logger.verbose("Stored %s events", group.size());
+        scheduleUpload(priority);
+    }
+
+    /**
+     * Schedules an upload for newly stored events.
+     *
+     * @param priority The highest priority of the stored events.
+     */
+    private void scheduleUpload(int priority) {
+        switch (priority) {
             case Event.HIGH_PRIORITY:
                 scheduleEventUpload(HIGH_PRIORITY_BATCH_DELAY, TimeUnit.MILLISECONDS);
                 break;
@@ -201,10 +326,42 @@ public class EventManager {
     @WorkerThread
     public void deleteEvents() {
         synchronized (eventLock) {
+            synchronized (pendingLock) {
+                pendingEvents.clear();
+                pendingPriority = Event.LOW_PRIORITY;
+            }
+
             eventDao.deleteAll();
+            storedEventSize = 0;
         }
     }
 
+    /**
+     * Updates the running event size and trims the database once it grows past the high watermark.
+     * Must be called while holding the event lock.
+     *
+     * @param addedSize The size of the stored events.
+     */
+    @WorkerThread
+    private void onEventsStored(long addedSize) {
+        if (storedEventSize < 0) {
+            // Load the size once, including the events just stored
+            storedEventSize = eventDao.databaseSize();
+        } else {
+            storedEventSize += addedSize;
+        }
+
+        int maxSize = preferenceDataStore.getInt(MAX_TOTAL_DB_SIZE_KEY, EventResponse.MAX_TOTAL_DB_SIZE_BYTES);
+        if (storedEventSize <= (long) (maxSize * trimHighWatermark)) {
+            return;
+        }
+
+        long targetSize = (long) (maxSize * trimLowWatermark);
+        Logger.debug("Event database size %s exceeded. Trimming to %s.", storedEventSize, targetSize);
+        int deleted = eventDao.deleteOldest((int) Math.min(Integer.MAX_VALUE, storedEventSize - targetSize));
+        storedEventSize = Math.max(0, storedEventSize - deleted);
+    }
+
     /**
      * Gets the next upload delay in milliseconds. The next upload delay is calculated by the following:
      * Max(0, (Last Send Time + MIN_BATCH_INTERVAL) - Current Time)
@@ -226,6 +383,8 @@ public class EventManager {
      */
     @WorkerThread
     public boolean uploadEvents(@NonNull Map<String, String> headers) {
+        flushPendingEvents();
+
         synchronized (scheduleLock) {
             isScheduled = false;
             preferenceDataStore.put(LAST_SEND_KEY, System.currentTimeMillis());
@@ -242,11 +401,9 @@ public class EventManager {
                 return true;
             }
 
-            final int avgSize = Math.max(1, eventDao.databaseSize() / eventCount);
-
-            //pull enough events to fill a batch (roughly)
-            int batchEventCount = Math.min(MAX_BATCH_EVENT_COUNT, preferenceDataStore.getInt(MAX_BATCH_SIZE_KEY, EventResponse.MAX_BATCH_SIZE_BYTES) / avgSize);
-            events = eventDao.getBatch(batchEventCount);
+            // Pull enough events to fill a batch without going over the max batch size
+            int maxBatchSize = preferenceDataStore.getInt(MAX_BATCH_SIZE_KEY, EventResponse.MAX_BATCH_SIZE_BYTES);
+            events = eventDao.getBatch(MAX_BATCH_EVENT_COUNT, maxBatchSize);
         }
 
         if (events.isEmpty()) {
@@ -269,12 +426,17 @@ public class EventManager {
             Logger.debug("Analytic events uploaded.");
             synchronized (eventLock) {
                 eventDao.deleteBatch(events);
+
+                // Reload the size on the next insert
+                storedEventSize = -1;
             }
 
             // Update preferences
-            preferenceDataStore.put(MAX_TOTAL_DB_SIZE_KEY, response.getResult().getMaxTotalSize());
-            preferenceDataStore.put(MAX_BATCH_SIZE_KEY, response.getResult().getMaxBatchSize());
-            preferenceDataStore.put(MIN_BATCH_INTERVAL_KEY, response.getResult().getMinBatchInterval());
+            preferenceDataStore.edit()
+                               .put(MAX_TOTAL_DB_SIZE_KEY, response.getResult().getMaxTotalSize())
+                               .put(MAX_BATCH_SIZE_KEY, response.getResult().getMaxBatchSize())
+                               .put(MIN_BATCH_INTERVAL_KEY, response.getResult().getMinBatchInterval())
+                               .apply();
 
             // If there are still events left, schedule the next send
             if (eventCount - events.size() > 0) {
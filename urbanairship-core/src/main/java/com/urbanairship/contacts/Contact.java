@@ -31,12 +31,15 @@ import com.urbanairship.job.JobDispatcher;
 import com.urbanairship.job.JobInfo;
 import com.urbanairship.job.JobResult;
 import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
 import com.urbanairship.util.CachedValue;
 import com.urbanairship.util.Clock;
+import com.urbanairship.util.JsonDataStoreQueue;
 import com.urbanairship.util.UAStringUtil;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +53,7 @@ import androidx.annotation.RestrictTo;
 import androidx.annotation.Size;
 import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
+import androidx.arch.core.util.Function;
 
 /**
  * Airship contact. A contact is distinct from a channel and represents a "user"
@@ -97,6 +101,9 @@ public class Contact extends AirshipComponent {
     private final CachedValue<Map<String, Set<Scope>>> subscriptionListCache;
 
     private final Object operationLock = new Object();
+    private final JsonDataStoreQueue<ContactOperation> operationStore;
+    private List<ContactOperation> operations;
+    private ContactOperation inFlightOperation;
     private final ContactApiClient contactApiClient;
     private boolean isContactIdRefreshed = false;
 
@@ -136,6 +143,23 @@ public class Contact extends AirshipComponent {
         this.activityMonitor = activityMonitor;
         this.clock = clock;
         this.subscriptionListCache = subscriptionListCache;
+        this.operationStore = new JsonDataStoreQueue<>(preferenceDataStore, OPERATIONS_KEY,
+                new Function<ContactOperation, JsonSerializable>() {
+                    @Override
+                    public JsonSerializable apply(ContactOperation input) {
+                        return input;
+                    }
+                }, new Function<JsonValue, ContactOperation>() {
+                    @Override
+                    public ContactOperation apply(JsonValue input) {
+                        try {
+                            return ContactOperation.fromJson(input);
+                        } catch (JsonException e) {
+                            Logger.error("Failed to parse contact operation", e);
+                            return null;
+                        }
+                    }
+                });
     }
 
     @Override
@@ -500,44 +524,81 @@ public class Contact extends AirshipComponent {
     private void addOperation(@NonNull ContactOperation operation) {
         synchronized (operationLock) {
             List<ContactOperation> operations = getOperations();
+
+            // Merge into the last operation if it is also an update. Updates are not merged across
+            // other operations, since a resolve can only be skipped once the contact ID is
+            // refreshed, which is not known until the operation is prepared. The in flight
+            // operation is removed once its request finishes, so nothing is merged into it.
+            if (ContactOperation.OPERATION_UPDATE.equals(operation.getType()) && !operations.isEmpty()) {
+                int last = operations.size() - 1;
+                ContactOperation lastOperation = operations.get(last);
+                if (lastOperation != inFlightOperation && ContactOperation.OPERATION_UPDATE.equals(lastOperation.getType())) {
+                    ContactOperation merged = mergeUpdates(lastOperation, operation);
+                    operations.set(last, merged);
+                    operationStore.set(last, merged);
+                    return;
+                }
+            }
+
             operations.add(operation);
-            storeOperations(operations);
+            operationStore.add(operation);
         }
     }
 
+    /**
+     * Gets the pending operations. The list is loaded once and kept in sync with the
+     * operation store, so it must only be modified along with the store.
+     *
+     * @return The pending operations.
+     */
     @NonNull
     private List<ContactOperation> getOperations() {
-        List<ContactOperation> operations = new ArrayList<>();
         synchronized (operationLock) {
-            for (JsonValue value : preferenceDataStore.getJsonValue(OPERATIONS_KEY).optList()) {
-                try {
-                    ContactOperation operation = ContactOperation.fromJson(value);
-                    operations.add(operation);
-                } catch (JsonException e) {
-                    Logger.error("Failed to parse contact operation", e);
+            if (operations == null) {
+                operations = operationStore.getList();
+                if (operations.contains(null)) {
+                    operations.removeAll(Collections.singleton((ContactOperation) null));
+                    operationStore.removeAll();
+                    operationStore.addAll(operations);
                 }
             }
-        }
-
-        return operations;
-    }
-
-    private void storeOperations(@NonNull List<ContactOperation> operations) {
-        synchronized (operationLock) {
-            preferenceDataStore.put(OPERATIONS_KEY, JsonValue.wrapOpt(operations));
+            return operations;
         }
     }
 
-    private void removeFirstOperation() {
+    /**
+     * Removes operations from the front of the log.
+     *
+     * @param count The number of operations to remove.
+     */
+    private void removeOperations(int count) {
         synchronized (operationLock) {
             List<ContactOperation> operations = getOperations();
-            if (!operations.isEmpty()) {
-                operations.remove(0);
-                storeOperations(operations);
+            count = Math.min(count, operations.size());
+            if (count > 0) {
+                operations.subList(0, count).clear();
+                operationStore.pop(count);
             }
         }
     }
 
+    @NonNull
+    private static ContactOperation mergeUpdates(@NonNull ContactOperation first, @NonNull ContactOperation second) {
+        ContactOperation.UpdatePayload firstPayload = first.coercePayload();
+        ContactOperation.UpdatePayload secondPayload = second.coercePayload();
+
+        List<TagGroupsMutation> combinedTags = new ArrayList<>(firstPayload.getTagGroupMutations());
+        combinedTags.addAll(secondPayload.getTagGroupMutations());
+
+        List<AttributeMutation> combinedAttributes = new ArrayList<>(firstPayload.getAttributeMutations());
+        combinedAttributes.addAll(secondPayload.getAttributeMutations());
+
+        List<ScopedSubscriptionListMutation> combinedSubscriptionLists = new ArrayList<>(firstPayload.getSubscriptionListMutations());
+        combinedSubscriptionLists.addAll(secondPayload.getSubscriptionListMutations());
+
+        return ContactOperation.update(combinedTags, combinedAttributes, combinedSubscriptionLists);
+    }
+
     /**
      * Dispatches a job to update the contact.
      */
@@ -602,9 +663,13 @@ public class Contact extends AirshipComponent {
             return JobResult.SUCCESS;
         }
 
-        ContactOperation nextOperation = prepareNextOperation();
-        if (nextOperation == null) {
-            return JobResult.SUCCESS;
+        ContactOperation nextOperation;
+        synchronized (operationLock) {
+            nextOperation = prepareNextOperation();
+            if (nextOperation == null) {
+                return JobResult.SUCCESS;
+            }
+            inFlightOperation = nextOperation;
         }
 
         try {
@@ -613,7 +678,7 @@ public class Contact extends AirshipComponent {
             if (response.isServerError() || response.isTooManyRequestsError()) {
                 return JobResult.RETRY;
             } else {
-                removeFirstOperation();
+                removeOperations(1);
                 dispatchContactUpdateJob(JobInfo.REPLACE);
                 return JobResult.SUCCESS;
             }
@@ -622,9 +687,13 @@ public class Contact extends AirshipComponent {
             return JobResult.RETRY;
         } catch (IllegalStateException e) {
             Logger.error("Unable to process operation %s, skipping.", nextOperation, e);
-            removeFirstOperation();
+            removeOperations(1);
             dispatchContactUpdateJob(JobInfo.REPLACE);
             return JobResult.SUCCESS;
+        } finally {
+            synchronized (operationLock) {
+                inFlightOperation = null;
+            }
         }
     }
 
@@ -635,8 +704,15 @@ public class Contact extends AirshipComponent {
         synchronized (operationLock) {
             List<ContactOperation> operations = getOperations();
 
-            while (!operations.isEmpty()) {
-                ContactOperation first = operations.remove(0);
+            // The in flight operation stays at the head until its request finishes
+            if (inFlightOperation != null && !operations.isEmpty() && operations.get(0) == inFlightOperation) {
+                return inFlightOperation;
+            }
+
+            // Index of the first operation that has not been consumed
+            int index = 0;
+            while (index < operations.size()) {
+                ContactOperation first = operations.get(index++);
                 if (!shouldSkipOperation(first, true)) {
                     next = first;
                     break;
@@ -647,11 +723,11 @@ public class Contact extends AirshipComponent {
                 switch (next.getType()) {
                     case ContactOperation.OPERATION_UPDATE:
                         // Collapse any sequential updates (ignoring anything that can be skipped inbetween)
-                        while (!operations.isEmpty()) {
-                            ContactOperation nextNext = operations.get(0);
+                        while (index < operations.size()) {
+                            ContactOperation nextNext = operations.get(index);
 
                             if (shouldSkipOperation(nextNext, false)) {
-                                operations.remove(0);
+                                index++;
                                 continue;
                             }
 
@@ -671,7 +747,7 @@ public class Contact extends AirshipComponent {
                                 combinedSubscriptionLists.addAll(firstPayload.getSubscriptionListMutations());
                                 combinedSubscriptionLists.addAll(nextPayload.getSubscriptionListMutations());
 
-                                operations.remove(0);
+                                index++;
                                 next = ContactOperation.update(combinedTags, combinedAttributes, combinedSubscriptionLists);
                                 continue;
                             }
@@ -683,16 +759,16 @@ public class Contact extends AirshipComponent {
                         // Only do last identify operation if the current contact info is not anonymous (ignoring anything that can be skipped inbetween)
                         ContactIdentity contactIdentity = getLastContactIdentity();
                         if (isContactIdRefreshed && (contactIdentity == null || !contactIdentity.isAnonymous())) {
-                            while (!operations.isEmpty()) {
-                                ContactOperation nextNext = operations.get(0);
+                            while (index < operations.size()) {
+                                ContactOperation nextNext = operations.get(index);
 
                                 if (shouldSkipOperation(nextNext, false)) {
-                                    operations.remove(0);
+                                    index++;
                                     continue;
                                 }
 
                                 if (nextNext.getType().equals(ContactOperation.OPERATION_IDENTIFY)) {
-                                    next = operations.remove(0);
+                                    next = operations.get(index++);
                                     continue;
                                 }
 
@@ -707,12 +783,14 @@ public class Contact extends AirshipComponent {
             }
 
             if (next != null) {
-                ArrayList<ContactOperation> nextList = new ArrayList<>();
-                nextList.add(next);
-                nextList.addAll(operations);
-                storeOperations(nextList);
+                // Store the prepared operation in place of the last one it consumed
+                if (operations.get(index - 1) != next) {
+                    operations.set(index - 1, next);
+                    operationStore.set(index - 1, next);
+                }
+                removeOperations(index - 1);
             } else {
-                storeOperations(operations);
+                removeOperations(index);
             }
         }
 
@@ -14,6 +14,7 @@ import com.urbanairship.util.PlatformUtils;
 import com.urbanairship.util.UAStringUtil;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -65,6 +66,9 @@ public class Request {
     @Nullable
     protected String body;
 
+    @Nullable
+    protected JsonSerializable jsonBody;
+
     @Nullable
     protected String contentType;
 
@@ -136,14 +140,18 @@ public class Request {
     }
 
     /**
-     * Sets the JSON request body.
+     * Sets the JSON request body. The JSON is streamed to the connection when the request
+     * executes instead of being encoded into an intermediate String.
      *
      * @param json The JSON.
      * @return The request.
      */
     @NonNull
     public Request setRequestBody(@NonNull JsonSerializable json) {
-        return setRequestBody(json.toJsonValue().toString(), "application/json");
+        this.jsonBody = json;
+        this.body = null;
+        this.contentType = "application/json";
+        return this;
     }
 
     /**
@@ -156,6 +164,7 @@ public class Request {
     @NonNull
     public Request setRequestBody(@Nullable String body, @Nullable String contentType) {
         this.body = body;
+        this.jsonBody = null;
         this.contentType = contentType;
         return this;
     }
@@ -273,7 +282,8 @@ public class Request {
             conn.setRequestMethod(requestMethod);
             conn.setConnectTimeout(NETWORK_TIMEOUT_MS);
 
-            if (body != null) {
+            boolean hasBody = body != null || jsonBody != null;
+            if (hasBody) {
                 conn.setDoOutput(true);
                 conn.setRequestProperty("Content-Type", contentType);
             }
@@ -297,23 +307,29 @@ public class Request {
             }
 
             // Create the form content
-            if (body != null) {
-
+            if (hasBody) {
+                OutputStream out;
                 if (compressRequestBody) {
                     conn.setRequestProperty("Content-Encoding", "gzip");
-                    OutputStream out = conn.getOutputStream();
-                    GZIPOutputStream gos = new GZIPOutputStream(out);
-                    Writer writer = new OutputStreamWriter(gos, "UTF-8");
-                    writer.write(body);
-                    writer.close();
-                    gos.close();
-                    out.close();
+
+                    // The compressed length is unknown up front. Stream it in chunks instead of
+                    // letting the connection buffer the entire body to compute a content length.
+                    conn.setChunkedStreamingMode(0);
+                    out = new GZIPOutputStream(conn.getOutputStream());
                 } else {
-                    OutputStream out = conn.getOutputStream();
-                    Writer writer = new OutputStreamWriter(out, "UTF-8");
-                    writer.write(body);
+                    out = conn.getOutputStream();
+                }
+
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                try {
+                    if (jsonBody != null) {
+                        jsonBody.toJsonValue().write(writer);
+                    } else {
+                        writer.write(body);
+                    }
+                } finally {
+                    // Closes the gzip and connection streams
                     writer.close();
-                    out.close();
                 }
             }
 
@@ -2,22 +2,32 @@ package com.urbanairship.images;
 
 import android.content.Context;
 import android.graphics.drawable.Drawable;
-import android.net.http.HttpResponseCache;
 import android.util.LruCache;
 
-import com.urbanairship.Logger;
+import com.urbanairship.util.FileUtils;
+import com.urbanairship.util.ImageUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.WorkerThread;
 
+/**
+ * Memory cache of decoded drawables, backed by the shared {@link ImageDiskCache}.
+ * <p>
+ * Drawables are cached per URL and target size. Concurrent requests for the same URL and size
+ * share a single download and decode.
+ */
 class ImageCache {
 
-    private static final String CACHE_DIR = "urbanairship-cache";
-
     /**
      * Max amount of memory cache.
      */
@@ -28,17 +38,19 @@ class ImageCache {
      */
     private static final int MAX_MEM_CACHE_FILE_SIZE = 1024 * 1024; // 1MB
 
-    /**
-     * Disk cache size.
-     */
-    private static final int DISK_CACHE_SIZE = 1024 * 1024 * 50; // 50MB
-
     private final LruCache<String, CacheEntry> memoryCache;
+    private final Map<String, FutureTask<Drawable>> pendingDecodes = new HashMap<>();
 
     private final Context context;
+    private final ImageDiskCache diskCache;
 
     ImageCache(@NonNull Context context) {
+        this(context, ImageDiskCache.shared(context));
+    }
+
+    ImageCache(@NonNull Context context, @NonNull ImageDiskCache diskCache) {
         this.context = context.getApplicationContext();
+        this.diskCache = diskCache;
 
         // Memory Cache - 1/8 the available memory. Taken from https://developer.android.com/topic/performance/graphics/cache-bitmap
         int memCacheSize = (int) Math.min(MAX_MEM_CACHE_SIZE, Runtime.getRuntime().maxMemory() / 8);
@@ -71,25 +83,98 @@ class ImageCache {
     }
 
     /**
-     * Installs a HttpResponseCache if a cache is not already installed.
+     * Gets a drawable from the memory cache, or downloads and decodes it. Concurrent calls with
+     * the same key wait on the first call instead of fetching again.
+     *
+     * @param key The memory cache key. Must be unique for the URL and target size.
+     * @param url The image URL.
+     * @param width The target width.
+     * @param height The target height.
+     * @param fallbackWidth The width to use if the target width is zero.
+     * @param fallbackHeight The height to use if the target height is zero.
+     * @return The drawable, or {@code null} if the image failed to download or decode.
+     * @throws IOException If the image failed to download.
      */
     @WorkerThread
-    void installHttpCache() {
-        // URL Cache
-        File cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR);
-        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
-            Logger.error("Failed to create the cache.");
+    @Nullable
+    Drawable fetchDrawable(@NonNull final String key,
+                           @NonNull final String url,
+                           final int width,
+                           final int height,
+                           final int fallbackWidth,
+                           final int fallbackHeight) throws IOException {
+
+        Drawable cached = getDrawable(key);
+        if (cached != null) {
+            return cached;
         }
 
-        if (HttpResponseCache.getInstalled() == null) {
+        FutureTask<Drawable> task;
+        boolean isOwner = false;
+        synchronized (pendingDecodes) {
+            task = pendingDecodes.get(key);
+            if (task == null) {
+                task = new FutureTask<>(new Callable<Drawable>() {
+                    @Override
+                    public Drawable call() throws IOException {
+                        return decode(key, url, width, height, fallbackWidth, fallbackHeight);
+                    }
+                });
+                pendingDecodes.put(key, task);
+                isOwner = true;
+            }
+        }
+
+        if (isOwner) {
             try {
-                HttpResponseCache.install(cacheDir, DISK_CACHE_SIZE);
-            } catch (IOException e) {
-                Logger.error("Unable to install image loader cache");
+                task.run();
+            } finally {
+                synchronized (pendingDecodes) {
+                    pendingDecodes.remove(key);
+                }
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
+            throw new IOException("Failed to load image " + url, e.getCause());
         }
     }
 
+    @WorkerThread
+    @Nullable
+    private Drawable decode(@NonNull String key,
+                            @NonNull String url,
+                            int width,
+                            int height,
+                            int fallbackWidth,
+                            int fallbackHeight) throws IOException {
+
+        FileUtils.DownloadResult downloadResult = diskCache.fetch(url);
+        if (!downloadResult.isSuccess) {
+            return null;
+        }
+
+        File file = diskCache.get(url);
+        ImageUtils.DrawableResult result = ImageUtils.fetchScaledDrawable(context,
+                file == null ? new URL(url) : file.toURI().toURL(),
+                width, height, fallbackWidth, fallbackHeight);
+
+        if (result == null) {
+            return null;
+        }
+
+        cacheDrawable(key, result.drawable, result.bytes);
+        return result.drawable;
+    }
+
     private static class CacheEntry {
 
         private final long byteCount;
@@ -0,0 +1,361 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.images;
+
+import android.content.Context;
+import android.webkit.URLUtil;
+
+import com.urbanairship.AirshipExecutors;
+import com.urbanairship.Logger;
+import com.urbanairship.util.FileUtils;
+import com.urbanairship.util.UAStringUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+/**
+ * Disk LRU cache for downloaded images.
+ * <p>
+ * Files are stored under the SHA-256 hash of their URL. Concurrent fetches for the same URL share
+ * a single download. The total size of the cache is tracked in memory and the least recently used
+ * files are removed once it grows past the max size.
+ * <p>
+ * Lookups read a concurrent copy of the index and never take the lock that guards the disk, so
+ * they do not wait on loading or trimming. Files found by a lookup are marked as used the next
+ * time the index is written.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ImageDiskCache {
+
+    private static final String CACHE_DIR = "urbanairship-image-cache";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Directory of the HttpResponseCache the image loader used to install.
+     */
+    private static final String LEGACY_CACHE_DIR = "urbanairship-cache";
+
+    /**
+     * Disk cache size.
+     */
+    private static final long DISK_CACHE_SIZE = 1024 * 1024 * 50; // 50MB
+
+    private static ImageDiskCache shared;
+
+    private final File directory;
+    private final long maxSize;
+
+    private final Object lock = new Object();
+    private final Object loadLock = new Object();
+
+    // File name to file size, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, FutureTask<FileUtils.DownloadResult>> pendingDownloads = new HashMap<>();
+    private long size;
+
+    // Lock free copies for lookups
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+    private final Set<String> usedSinceWrite = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private volatile boolean isLoaded;
+
+    /**
+     * Gets the shared disk cache.
+     *
+     * @param context The context.
+     * @return The shared disk cache.
+     */
+    @NonNull
+    public static ImageDiskCache shared(@NonNull Context context) {
+        synchronized (ImageDiskCache.class) {
+            if (shared == null) {
+                File cacheDir = context.getApplicationContext().getCacheDir();
+                shared = new ImageDiskCache(new File(cacheDir, CACHE_DIR), DISK_CACHE_SIZE,
+                        AirshipExecutors.threadPoolExecutor(), new File(cacheDir, LEGACY_CACHE_DIR));
+            }
+            return shared;
+        }
+    }
+
+    @VisibleForTesting
+    ImageDiskCache(@NonNull File directory, long maxSize, @NonNull Executor executor) {
+        this(directory, maxSize, executor, null);
+    }
+
+    @VisibleForTesting
+    ImageDiskCache(@NonNull File directory, long maxSize, @NonNull Executor executor, @Nullable final File legacyDirectory) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+
+        // Load the index in the background so lookups on the main thread do not touch the disk
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                // Remove the HttpResponseCache left over from older SDK versions
+                if (legacyDirectory != null && legacyDirectory.exists() && !FileUtils.deleteRecursively(legacyDirectory)) {
+                    Logger.debug("Failed to delete the legacy image cache %s", legacyDirectory);
+                }
+
+                load();
+            }
+        });
+    }
+
+    /**
+     * Gets the cached file for a URL. Only checks the in-memory index without locking, so this is
+     * safe to call from the main thread.
+     *
+     * @param url The URL.
+     * @return The cached file, or {@code null} if the URL is not cached or the index is not
+     * loaded yet.
+     */
+    @Nullable
+    public File get(@NonNull String url) {
+        String name = fileName(url);
+        if (!isLoaded || !index.containsKey(name)) {
+            return null;
+        }
+
+        usedSinceWrite.add(name);
+        return new File(directory, name);
+    }
+
+    /**
+     * Fetches a URL into the cache. If the URL is already cached the file is not downloaded
+     * again, and if the URL is already being downloaded this waits for that download instead of
+     * starting another one. Once successful, the file is available from {@link #get(String)}.
+     * File URLs are not cached.
+     *
+     * @param url The URL.
+     * @return The download result. Cached files report a 200 status.
+     * @throws IOException If the URL is invalid or the download fails.
+     */
+    @WorkerThread
+    @NonNull
+    public FileUtils.DownloadResult fetch(@NonNull final String url) throws IOException {
+        if (URLUtil.isFileUrl(url)) {
+            try {
+                return new FileUtils.DownloadResult(new File(new URI(url)).exists(), HttpURLConnection.HTTP_OK);
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                throw new IOException("Invalid file URL: " + url, e);
+            }
+        }
+
+        final String name = fileName(url);
+        FutureTask<FileUtils.DownloadResult> task;
+        boolean isOwner = false;
+
+        load();
+
+        synchronized (lock) {
+            Long cachedSize = entries.get(name);
+            if (cachedSize != null) {
+                if (new File(directory, name).exists()) {
+                    return new FileUtils.DownloadResult(true, HttpURLConnection.HTTP_OK);
+                }
+
+                // Removed outside of the cache
+                entries.remove(name);
+                index.remove(name);
+                size -= cachedSize;
+            }
+
+            task = pendingDownloads.get(name);
+            if (task == null) {
+                task = new FutureTask<>(new Callable<FileUtils.DownloadResult>() {
+                    @Override
+                    public FileUtils.DownloadResult call() throws IOException {
+                        return download(url, name);
+                    }
+                });
+                pendingDownloads.put(name, task);
+                isOwner = true;
+            }
+        }
+
+        if (isOwner) {
+            try {
+                task.run();
+            } finally {
+                synchronized (lock) {
+                    pendingDownloads.remove(name);
+                }
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading " + url, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to download " + url, e.getCause());
+        }
+    }
+
+    @WorkerThread
+    @NonNull
+    private FileUtils.DownloadResult download(@NonNull String url, @NonNull String name) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Failed to create the image cache directory.");
+        }
+
+        File temp = new File(directory, name + TEMP_FILE_SUFFIX);
+        FileUtils.DownloadResult result = FileUtils.downloadFile(new URL(url), temp);
+        if (!result.isSuccess) {
+            temp.delete();
+            return result;
+        }
+
+        File file = new File(directory, name);
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Failed to move downloaded image into the cache.");
+        }
+
+        long length = file.length();
+        synchronized (lock) {
+            Long previous = entries.put(name, length);
+            index.put(name, length);
+            size += length - (previous == null ? 0 : previous);
+            trim(name);
+        }
+
+        return result;
+    }
+
+    /**
+     * Loads the index from disk if it is not loaded yet. The files are listed without holding
+     * the lock, and the index is swapped in once it is built.
+     */
+    private void load() {
+        if (isLoaded) {
+            return;
+        }
+
+        synchronized (loadLock) {
+            if (isLoaded) {
+                return;
+            }
+
+            // Downloads only start once the index is loaded, so nothing has been added yet
+            Map<String, Long> loaded = readIndex();
+            synchronized (lock) {
+                entries.putAll(loaded);
+                index.putAll(loaded);
+                for (Long length : loaded.values()) {
+                    size += length;
+                }
+                trim(null);
+                isLoaded = true;
+            }
+        }
+    }
+
+    /**
+     * Reads the cached files from disk.
+     *
+     * @return File name to file size, oldest first.
+     */
+    @NonNull
+    private Map<String, Long> readIndex() {
+        Map<String, Long> loaded = new LinkedHashMap<>();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return loaded;
+        }
+
+        List<File> cached = new ArrayList<>(files.length);
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                // Left over from an interrupted download
+                file.delete();
+            } else {
+                cached.add(file);
+            }
+        }
+
+        File[] sorted = cached.toArray(new File[0]);
+        Arrays.sort(sorted, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return Long.compare(o1.lastModified(), o2.lastModified());
+            }
+        });
+
+        for (File file : sorted) {
+            loaded.put(file.getName(), file.length());
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Removes the least recently used files until the cache fits its max size. Must be called
+     * with the lock held.
+     *
+     * @param keep A file name that should not be removed.
+     */
+    private void trim(@Nullable String keep) {
+        // Apply the lookups to the access order
+        Iterator<String> used = usedSinceWrite.iterator();
+        while (used.hasNext()) {
+            entries.get(used.next());
+            used.remove();
+        }
+
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+
+            File file = new File(directory, entry.getKey());
+            if (file.exists() && !file.delete()) {
+                Logger.debug("Failed to delete cached image %s", file);
+                continue;
+            }
+
+            size -= entry.getValue();
+            index.remove(entry.getKey());
+            iterator.remove();
+        }
+    }
+
+    @NonNull
+    private static String fileName(@NonNull String url) {
+        String hash = UAStringUtil.sha256(url);
+        return hash == null ? String.valueOf(url.hashCode()) : hash;
+    }
+
+}
@@ -12,11 +12,9 @@ import android.widget.ImageView;
 import com.urbanairship.AirshipExecutors;
 import com.urbanairship.CancelableOperation;
 import com.urbanairship.Logger;
-import com.urbanairship.util.ImageUtils;
 
 import java.io.IOException;
 import java.lang.ref.WeakReference;
-import java.net.URL;
 import java.util.concurrent.Executor;
 
 import androidx.annotation.MainThread;
@@ -192,8 +190,6 @@ abstract class ImageRequest {
     @Nullable
     @WorkerThread
     private Drawable fetchDrawableOnBackground() throws IOException {
-        imageCache.installHttpCache();
-
         if (imageViewReference.get() == null) {
             return null;
         }
@@ -204,14 +200,7 @@ abstract class ImageRequest {
 
         int fallbackWidth = imageRequestOptions.getZeroWidthFallback();
         int fallbackHeight = imageRequestOptions.getZeroHeightFallback();
-        ImageUtils.DrawableResult result = ImageUtils.fetchScaledDrawable(context, new URL(imageRequestOptions.getUrl()), width, height, fallbackWidth, fallbackHeight);
-
-        if (result == null) {
-            return null;
-        }
-        imageCache.cacheDrawable(getCacheKey(), result.drawable, result.bytes);
-        return result.drawable;
-
+        return imageCache.fetchDrawable(getCacheKey(), imageRequestOptions.getUrl(), width, height, fallbackWidth, fallbackHeight);
     }
 
     @MainThread
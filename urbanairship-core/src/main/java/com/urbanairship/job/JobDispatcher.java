@@ -6,12 +6,16 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 
+import com.urbanairship.AirshipLoopers;
 import com.urbanairship.Logger;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
@@ -31,6 +35,17 @@ public class JobDispatcher {
     static final long RESCHEDULE_RETRY_DELAY_MS = TimeUnit.HOURS.toMillis(1);
     private static final long RETRY_DELAY_MS = 1000;
 
+    /**
+     * How long dispatched jobs are held so duplicates can be coalesced before scheduling.
+     */
+    private static final long COALESCE_WINDOW_MS = 100;
+
+    /**
+     * How long after the dispatcher is created jobs are coalesced. Covers the burst of jobs
+     * dispatched during takeOff.
+     */
+    private static final long COALESCE_STARTUP_PERIOD_MS = TimeUnit.SECONDS.toMillis(10);
+
     @SuppressLint("StaticFieldLeak")
     private static JobDispatcher instance;
 
@@ -40,6 +55,16 @@ public class JobDispatcher {
     private final Scheduler scheduler;
 
     private final List<Pending> pendingJobInfos = new ArrayList<>();
+
+    private final long coalesceWindowMs;
+    private final long coalesceUntilMs;
+    private final List<JobInfo> queuedJobInfos = new ArrayList<>();
+    private final Handler queueHandler;
+    private final Runnable flushQueueRunnable = this::flushQueue;
+
+    private final AtomicLong dispatchedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
     private final Runnable retryPendingRunnable = () -> {
         try {
             dispatchPending();
@@ -75,7 +100,8 @@ public class JobDispatcher {
     }
 
     private JobDispatcher(@NonNull Context context) {
-        this(context, new WorkManagerScheduler());
+        this(context, new WorkManagerScheduler(), new JobRunner.DefaultRunner(), new RateLimiter(context),
+                COALESCE_WINDOW_MS, AirshipLoopers.getBackgroundLooper());
     }
 
     @VisibleForTesting
@@ -89,10 +115,23 @@ public class JobDispatcher {
                          @NonNull Scheduler scheduler,
                          @NonNull JobRunner jobRunner,
                          @NonNull RateLimiter rateLimiter) {
+        this(context, scheduler, jobRunner, rateLimiter, 0, Looper.getMainLooper());
+    }
+
+    @VisibleForTesting
+    JobDispatcher(@NonNull Context context,
+                  @NonNull Scheduler scheduler,
+                  @NonNull JobRunner jobRunner,
+                  @NonNull RateLimiter rateLimiter,
+                  long coalesceWindowMs,
+                  @NonNull Looper queueLooper) {
         this.context = context.getApplicationContext();
         this.scheduler = scheduler;
         this.jobRunner = jobRunner;
         this.rateLimiter = rateLimiter;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.coalesceUntilMs = SystemClock.elapsedRealtime() + COALESCE_STARTUP_PERIOD_MS;
+        this.queueHandler = new Handler(queueLooper);
     }
 
     /**
@@ -107,19 +146,126 @@ public class JobDispatcher {
         this.rateLimiter.setLimit(limitId, rate, duration, durationUnit);
     }
 
+    /**
+     * Gets the dispatch metrics.
+     *
+     * @return The metrics.
+     */
+    @NonNull
+    public Metrics getMetrics() {
+        return new Metrics(dispatchedCount.get(), coalescedCount.get(), rateLimitedCount.get());
+    }
+
     /**
      * Dispatches a jobInfo to be performed immediately.
+     * <p>
+     * During the startup period, {@link JobInfo#KEEP} and {@link JobInfo#REPLACE} jobs are held in
+     * memory for a short window before they are scheduled. A job with the same component and action
+     * as a held job is coalesced with it: {@link JobInfo#KEEP} drops the new job and
+     * {@link JobInfo#REPLACE} replaces the held jobs. Held jobs are lost if the process is killed
+     * before the window ends, so only jobs that are dispatched again on the next start should use
+     * these strategies during startup.
+     * <p>
+     * {@link JobInfo#APPEND} jobs, and any job dispatched after the startup period, are scheduled
+     * before this method returns, after any held jobs.
      *
      * @param jobInfo The jobInfo.
      */
     public void dispatch(@NonNull JobInfo jobInfo) {
-       dispatch(jobInfo, getDelay(jobInfo));
+        if (!shouldCoalesce(jobInfo)) {
+            // Flush first so jobs are still scheduled in the order they were dispatched
+            flushQueue();
+            dispatch(jobInfo, getDelay(jobInfo));
+            return;
+        }
+
+        synchronized (queuedJobInfos) {
+            String name = uniqueName(jobInfo);
+            switch (jobInfo.getConflictStrategy()) {
+                case JobInfo.KEEP:
+                    for (JobInfo queued : queuedJobInfos) {
+                        if (name.equals(uniqueName(queued))) {
+                            coalescedCount.incrementAndGet();
+                            return;
+                        }
+                    }
+                    break;
+
+                case JobInfo.REPLACE:
+                    Iterator<JobInfo> iterator = queuedJobInfos.iterator();
+                    while (iterator.hasNext()) {
+                        if (name.equals(uniqueName(iterator.next()))) {
+                            iterator.remove();
+                            coalescedCount.incrementAndGet();
+                        }
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+
+            queuedJobInfos.add(jobInfo);
+            if (queuedJobInfos.size() == 1) {
+                queueHandler.postDelayed(flushQueueRunnable, coalesceWindowMs);
+            }
+        }
+    }
+
+    private boolean shouldCoalesce(@NonNull JobInfo jobInfo) {
+        if (coalesceWindowMs <= 0 || jobInfo.getConflictStrategy() == JobInfo.APPEND) {
+            return false;
+        }
+        return SystemClock.elapsedRealtime() < coalesceUntilMs;
+    }
+
+    private void flushQueue() {
+        List<JobInfo> jobInfos;
+        synchronized (queuedJobInfos) {
+            jobInfos = new ArrayList<>(queuedJobInfos);
+            queuedJobInfos.clear();
+        }
+
+        if (jobInfos.isEmpty()) {
+            return;
+        }
+
+        Logger.verbose("Dispatching %s queued jobs", jobInfos.size());
+
+        try {
+            dispatchPending();
+        } catch (SchedulerException e) {
+            Logger.error(e, "Scheduler failed to schedule jobInfo");
+        }
+
+        for (JobInfo jobInfo : jobInfos) {
+            schedule(jobInfo, getDelay(jobInfo));
+        }
     }
 
     private void dispatch(@NonNull JobInfo jobInfo, long delayMs) {
         try {
             dispatchPending();
+        } catch (SchedulerException e) {
+            Logger.error(e, "Scheduler failed to schedule jobInfo");
+        }
+
+        schedule(jobInfo, delayMs);
+    }
+
+    private void schedule(@NonNull JobInfo jobInfo, long delayMs) {
+        synchronized (pendingJobInfos) {
+            // Keep the dispatch order if earlier jobs are still waiting on the scheduler
+            if (!pendingJobInfos.isEmpty()) {
+                pendingJobInfos.add(new Pending(jobInfo, delayMs));
+                schedulePending();
+                return;
+            }
+        }
+
+        try {
             scheduler.schedule(context, jobInfo, delayMs);
+            dispatchedCount.incrementAndGet();
         } catch (SchedulerException e) {
             Logger.error(e, "Scheduler failed to schedule jobInfo");
             synchronized (pendingJobInfos) {
@@ -140,6 +286,7 @@ public class JobDispatcher {
             for (Pending pending : new ArrayList<>(pendingJobInfos)) {
                 scheduler.schedule(context, pending.jobInfo, pending.delayMs);
                 pendingJobInfos.remove(pending);
+                dispatchedCount.incrementAndGet();
             }
         }
     }
@@ -149,6 +296,7 @@ public class JobDispatcher {
 
         long rateLimitDelay = getRateLimitDelay(jobInfo);
         if (rateLimitDelay > 0) {
+            rateLimitedCount.incrementAndGet();
             callback.accept(JobResult.FAILURE);
             dispatch(jobInfo, rateLimitDelay);
             return;
@@ -171,7 +319,16 @@ public class JobDispatcher {
     }
 
     private long getDelay(@NonNull JobInfo jobInfo) {
-        return Math.max(jobInfo.getMinDelayMs(), getRateLimitDelay(jobInfo));
+        long rateLimitDelay = getRateLimitDelay(jobInfo);
+        if (rateLimitDelay > 0) {
+            rateLimitedCount.incrementAndGet();
+        }
+        return Math.max(jobInfo.getMinDelayMs(), rateLimitDelay);
+    }
+
+    @NonNull
+    private static String uniqueName(@NonNull JobInfo jobInfo) {
+        return jobInfo.getAirshipComponentName() + ":" + jobInfo.getAction();
     }
 
     private long getRateLimitDelay(@NonNull JobInfo jobInfo) {
@@ -187,6 +344,60 @@ public class JobDispatcher {
         return delay;
     }
 
+    /**
+     * Job dispatch metrics.
+     */
+    public static final class Metrics {
+
+        private final long dispatchedCount;
+        private final long coalescedCount;
+        private final long rateLimitedCount;
+
+        Metrics(long dispatchedCount, long coalescedCount, long rateLimitedCount) {
+            this.dispatchedCount = dispatchedCount;
+            this.coalescedCount = coalescedCount;
+            this.rateLimitedCount = rateLimitedCount;
+        }
+
+        /**
+         * The number of jobs handed to the scheduler.
+         *
+         * @return The dispatched count.
+         */
+        public long getDispatchedCount() {
+            return dispatchedCount;
+        }
+
+        /**
+         * The number of jobs dropped or replaced by a later job with the same component and action.
+         *
+         * @return The coalesced count.
+         */
+        public long getCoalescedCount() {
+            return coalescedCount;
+        }
+
+        /**
+         * The number of times a job was delayed by a rate limit.
+         *
+         * @return The rate limited count.
+         */
+        public long getRateLimitedCount() {
+            return rateLimitedCount;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Metrics{" +
+                    "dispatchedCount=" + dispatchedCount +
+                    ", coalescedCount=" + coalescedCount +
+                    ", rateLimitedCount=" + rateLimitedCount +
+                    '}';
+        }
+
+    }
+
     private static class Pending {
         @NonNull
         private final JobInfo jobInfo;
@@ -2,12 +2,14 @@
 
 package com.urbanairship.job;
 
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.urbanairship.Logger;
 import com.urbanairship.util.Clock;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.IntRange;
@@ -18,22 +20,45 @@ import androidx.annotation.VisibleForTesting;
 
 /**
  * Rate limit tracker.
+ * <p>
+ * Each limit keeps its most recent hits in a ring buffer sized to the limit's rate, so tracking and
+ * checking a limit are constant time. Limits are locked individually. When created with a context,
+ * the hits are persisted so limits hold across process restarts.
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class RateLimiter {
 
+    private static final String SHARED_PREFERENCES_FILE = "com.urbanairship.job.RateLimiter";
+    private static final String HIT_SEPARATOR = ",";
+
     private final Clock clock;
-    private final Map<String, List<Long>> hits = new HashMap<>();
-    private final Map<String, Rule> rules = new HashMap<>();
-    private final Object lock = new Object();
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    @Nullable
+    private final SharedPreferences preferences;
 
     public RateLimiter() {
-        this(Clock.DEFAULT_CLOCK);
+        this(Clock.DEFAULT_CLOCK, null);
+    }
+
+    /**
+     * Creates a rate limiter that persists its hits.
+     *
+     * @param context The application context.
+     */
+    public RateLimiter(@NonNull Context context) {
+        this(Clock.DEFAULT_CLOCK, context.getApplicationContext().getSharedPreferences(SHARED_PREFERENCES_FILE, Context.MODE_PRIVATE));
     }
 
     @VisibleForTesting
     public RateLimiter(Clock clock) {
+        this(clock, null);
+    }
+
+    @VisibleForTesting
+    RateLimiter(@NonNull Clock clock, @Nullable SharedPreferences preferences) {
         this.clock = clock;
+        this.preferences = preferences;
     }
 
     /**
@@ -42,14 +67,19 @@ public class RateLimiter {
      * @param limitId The limit Id.
      */
     public void track(@NonNull String limitId) {
-        synchronized (lock) {
-            List<Long> hits = this.hits.get(limitId);
-            Rule rule = this.rules.get(limitId);
-            long currentTime = clock.currentTimeMillis();
-            if (hits != null && rule != null) {
-                hits.add(currentTime);
-                filter(hits, rule, currentTime);
-            }
+        Limit limit = limits.get(limitId);
+        if (limit == null) {
+            return;
+        }
+
+        String persisted;
+        synchronized (limit) {
+            limit.add(clock.currentTimeMillis());
+            persisted = preferences == null ? null : limit.encode();
+        }
+
+        if (persisted != null) {
+            preferences.edit().putString(limitId, persisted).apply();
         }
     }
 
@@ -61,19 +91,18 @@ public class RateLimiter {
      */
     @Nullable
     public Status status(@NonNull String limitId) {
-        synchronized (lock) {
-            List<Long> hits = this.hits.get(limitId);
-            Rule rule = this.rules.get(limitId);
-            long currentTime = clock.currentTimeMillis();
-
-            if (hits == null || rule == null) {
-                return null;
-            }
+        Limit limit = limits.get(limitId);
+        if (limit == null) {
+            return null;
+        }
 
-            filter(hits, rule, currentTime);
+        synchronized (limit) {
+            long currentTime = clock.currentTimeMillis();
 
-            if (hits.size() >= rule.rate) {
-                long nextExpired = rule.durationMs - (currentTime - hits.get(hits.size() - rule.rate));
+            // The limit is over while the oldest of the last `rate` hits is still in the window
+            Long oldest = limit.oldest();
+            if (oldest != null && currentTime < oldest + limit.durationMs) {
+                long nextExpired = limit.durationMs - (currentTime - oldest);
                 return new Status(LimitStatus.OVER, nextExpired);
             } else {
                 return new Status(LimitStatus.UNDER, 0);
@@ -90,18 +119,13 @@ public class RateLimiter {
      * @param durationUnit The duration unit.
      */
     public void setLimit(@NonNull String limitId, @IntRange(from = 1) int rate, long duration, @NonNull TimeUnit durationUnit) {
-        synchronized (lock) {
-            this.rules.put(limitId, new Rule(rate, durationUnit.toMillis(duration)));
-            this.hits.put(limitId, new ArrayList<>());
-        }
-    }
+        Limit limit = new Limit(rate, durationUnit.toMillis(duration));
 
-    private void filter(@NonNull List<Long> hits, @NonNull Rule rule, long currentTimeMs) {
-        for (long hit : new ArrayList<>(hits)) {
-            if (currentTimeMs >= (hit + rule.durationMs)) {
-                hits.remove(hit);
-            }
+        if (preferences != null) {
+            limit.restore(preferences.getString(limitId, null), clock.currentTimeMillis());
         }
+
+        limits.put(limitId, limit);
     }
 
     /**
@@ -153,16 +177,73 @@ public class RateLimiter {
         }
     }
 
-    private static final class Rule {
+    /**
+     * Ring buffer of the most recent hits for a limit.
+     */
+    private static final class Limit {
 
         final long durationMs;
-        final int rate;
+        final long[] hits;
+        int next;
+        int size;
 
-        Rule(int rate, long durationMs) {
-            this.rate = rate;
+        Limit(int rate, long durationMs) {
+            this.hits = new long[rate];
             this.durationMs = durationMs;
         }
 
+        void add(long time) {
+            hits[next] = time;
+            next = (next + 1) % hits.length;
+            size = Math.min(size + 1, hits.length);
+        }
+
+        /**
+         * Gets the oldest of the last {@code rate} hits.
+         *
+         * @return The hit time, or {@code null} if there are fewer hits than the rate.
+         */
+        @Nullable
+        Long oldest() {
+            if (size < hits.length) {
+                return null;
+            }
+
+            // Once full, the next slot to write holds the oldest hit
+            return hits[next];
+        }
+
+        @NonNull
+        String encode() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    builder.append(HIT_SEPARATOR);
+                }
+                builder.append(hits[(next - size + i + hits.length) % hits.length]);
+            }
+            return builder.toString();
+        }
+
+        void restore(@Nullable String encoded, long currentTime) {
+            if (encoded == null || encoded.isEmpty()) {
+                return;
+            }
+
+            for (String hit : encoded.split(HIT_SEPARATOR)) {
+                try {
+                    long time = Long.parseLong(hit);
+
+                    // Skip expired hits and hits from the future in case the clock changed
+                    if (time <= currentTime && currentTime < time + durationMs) {
+                        add(time);
+                    }
+                } catch (NumberFormatException e) {
+                    Logger.error(e, "RateLimiter - Invalid hit: %s", hit);
+                }
+            }
+        }
+
     }
 
 }
@@ -4,9 +4,8 @@ package com.urbanairship.json;
 
 import com.urbanairship.Logger;
 
-import org.json.JSONException;
-import org.json.JSONStringer;
-
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -33,7 +32,22 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
      * @param list A list of JsonValues.
      */
     public JsonList(@Nullable List<JsonValue> list) {
-        this.list = list == null ? new ArrayList<JsonValue>() : new ArrayList<>(list);
+        this(list, true);
+    }
+
+    /**
+     * Creates a JsonList from a List.
+     *
+     * @param list A list of JsonValues.
+     * @param copy {@code true} to copy the list, or {@code false} to take ownership of it. The list
+     * must not be modified afterwards if it is not copied.
+     */
+    JsonList(@Nullable List<JsonValue> list, boolean copy) {
+        if (list == null) {
+            this.list = new ArrayList<>();
+        } else {
+            this.list = copy ? new ArrayList<>(list) : list;
+        }
     }
 
     /**
@@ -150,29 +164,26 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
     @NonNull
     @Override
     public String toString() {
+        StringBuilder builder = new StringBuilder();
         try {
-            JSONStringer stringer = new JSONStringer();
-            write(stringer);
-            return stringer.toString();
-        } catch (JSONException | StringIndexOutOfBoundsException e) {
+            JsonWriter.write(this, builder);
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonList - Failed to create JSON String.");
             return "";
         }
+        return builder.toString();
     }
 
     /**
-     * Helper method that is used to write the list as a JSON String.
+     * Writes the JsonList as a JSON encoded String directly to the writer without building
+     * an intermediate String.
      *
-     * @param stringer The JSONStringer object.
-     * @throws org.json.JSONException If the value is unable to be written as JSON.
+     * @param writer The writer.
+     * @throws IOException If the writer fails to write.
      */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        stringer.array();
-        for (JsonValue actionValue : this) {
-            actionValue.write(stringer);
-        }
-        stringer.endArray();
+    public void write(@NonNull Writer writer) throws IOException {
+        JsonWriter.write(this, writer);
     }
 
     @NonNull
@@ -4,9 +4,8 @@ package com.urbanairship.json;
 
 import com.urbanairship.Logger;
 
-import org.json.JSONException;
-import org.json.JSONStringer;
-
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -33,7 +32,22 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
      * @param map A map of strings to JsonValues.
      */
     public JsonMap(@Nullable Map<String, JsonValue> map) {
-        this.map = map == null ? new HashMap<String, JsonValue>() : new HashMap<>(map);
+        this(map, true);
+    }
+
+    /**
+     * Creates a JsonMap from a Map.
+     *
+     * @param map A map of strings to JsonValues.
+     * @param copy {@code true} to copy the map, or {@code false} to take ownership of it. The map
+     * must not be modified afterwards if it is not copied.
+     */
+    JsonMap(@Nullable Map<String, JsonValue> map, boolean copy) {
+        if (map == null) {
+            this.map = new HashMap<>();
+        } else {
+            this.map = copy ? new HashMap<>(map) : map;
+        }
     }
 
     /**
@@ -190,30 +204,26 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
     @NonNull
     @Override
     public String toString() {
+        StringBuilder builder = new StringBuilder();
         try {
-            JSONStringer stringer = new JSONStringer();
-            write(stringer);
-            return stringer.toString();
-        } catch (JSONException | StringIndexOutOfBoundsException e) {
+            JsonWriter.write(this, builder);
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonMap - Failed to create JSON String.");
             return "";
         }
+        return builder.toString();
     }
 
     /**
-     * Helper method that is used to write the value as a JSON String.
+     * Writes the JsonMap as a JSON encoded String directly to the writer without building
+     * an intermediate String.
      *
-     * @param stringer The JSONStringer object.
-     * @throws org.json.JSONException If the value is unable to be written as JSON.
+     * @param writer The writer.
+     * @throws IOException If the writer fails to write.
      */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        stringer.object();
-        for (Map.Entry<String, JsonValue> entry : entrySet()) {
-            stringer.key(entry.getKey());
-            entry.getValue().write(stringer);
-        }
-        stringer.endObject();
+    public void write(@NonNull Writer writer) throws IOException {
+        JsonWriter.write(this, writer);
     }
 
     @NonNull
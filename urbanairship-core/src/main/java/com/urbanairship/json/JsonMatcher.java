@@ -69,6 +69,45 @@ public class JsonMatcher implements JsonSerializable, Predicate<JsonSerializable
         return value.apply(jsonValue, (ignoreCase != null) && ignoreCase);
     }
 
+    /**
+     * Gets the key.
+     *
+     * @return The key.
+     */
+    @Nullable
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the scope.
+     *
+     * @return The scope as a list of fields.
+     */
+    @NonNull
+    List<String> getScope() {
+        return scopeList;
+    }
+
+    /**
+     * Gets the value matcher.
+     *
+     * @return The value matcher.
+     */
+    @NonNull
+    ValueMatcher getValueMatcher() {
+        return value;
+    }
+
+    /**
+     * Checks if the matcher ignores case.
+     *
+     * @return {@code true} if case is ignored, otherwise {@code false}.
+     */
+    boolean isIgnoreCase() {
+        return ignoreCase != null && ignoreCase;
+    }
+
     /**
      * Parses a JsonValue object into a JsonMatcher.
      *
@@ -0,0 +1,295 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Single pass JSON parser that builds {@link JsonValue} instances directly from the encoded
+ * String without an intermediate org.json tree.
+ * <p>
+ * Parsing follows the same rules as the org.json backed parser it replaces:
+ * <ul>
+ * <li>Whole numbers that fit in an int are parsed as Integers, larger whole numbers as Longs, and
+ * everything else as Doubles.</li>
+ * <li>Null values within maps and lists are dropped.</li>
+ * </ul>
+ */
+final class JsonParser {
+
+    private final String json;
+    private final int length;
+    private int pos;
+
+    private JsonParser(@NonNull String json) {
+        this.json = json;
+        this.length = json.length();
+    }
+
+    /**
+     * Parses a JSON encoded String.
+     *
+     * @param json The JSON encoded String.
+     * @return The parsed JsonValue.
+     * @throws JsonException If the String is not valid JSON.
+     */
+    @NonNull
+    static JsonValue parse(@NonNull String json) throws JsonException {
+        JsonParser parser = new JsonParser(json);
+        JsonValue value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != parser.length) {
+            throw parser.syntaxError("Unexpected trailing content");
+        }
+        return value;
+    }
+
+    @NonNull
+    private JsonValue readValue() throws JsonException {
+        skipWhitespace();
+        if (pos >= length) {
+            throw syntaxError("Unexpected end of input");
+        }
+
+        char c = json.charAt(pos);
+        switch (c) {
+            case '{':
+                pos++;
+                return readMap();
+            case '[':
+                pos++;
+                return readList();
+            case '"':
+                pos++;
+                return JsonValue.wrap(readString());
+            case 't':
+                expectLiteral("true");
+                return JsonValue.wrap(true);
+            case 'f':
+                expectLiteral("false");
+                return JsonValue.wrap(false);
+            case 'n':
+                expectLiteral("null");
+                return JsonValue.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return readNumber();
+                }
+                throw syntaxError("Unexpected character '" + c + "'");
+        }
+    }
+
+    @NonNull
+    private JsonValue readMap() throws JsonException {
+        Map<String, JsonValue> map = new HashMap<>();
+
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return JsonValue.wrap(new JsonMap(map, false));
+        }
+
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw syntaxError("Expected key");
+            }
+            pos++;
+            String key = readString();
+
+            skipWhitespace();
+            if (peek() != ':') {
+                throw syntaxError("Expected ':' after key");
+            }
+            pos++;
+
+            JsonValue value = readValue();
+            if (!value.isNull()) {
+                map.put(key, value);
+            }
+
+            skipWhitespace();
+            char c = peek();
+            pos++;
+            if (c == '}') {
+                return JsonValue.wrap(new JsonMap(map, false));
+            }
+            if (c != ',') {
+                throw syntaxError("Expected ',' or '}'");
+            }
+        }
+    }
+
+    @NonNull
+    private JsonValue readList() throws JsonException {
+        List<JsonValue> list = new ArrayList<>();
+
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return JsonValue.wrap(new JsonList(list, false));
+        }
+
+        while (true) {
+            JsonValue value = readValue();
+            if (!value.isNull()) {
+                list.add(value);
+            }
+
+            skipWhitespace();
+            char c = peek();
+            pos++;
+            if (c == ']') {
+                return JsonValue.wrap(new JsonList(list, false));
+            }
+            if (c != ',') {
+                throw syntaxError("Expected ',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * Reads a string. The opening quote must already be consumed.
+     */
+    @NonNull
+    private String readString() throws JsonException {
+        int start = pos;
+        StringBuilder builder = null;
+
+        while (pos < length) {
+            char c = json.charAt(pos++);
+            if (c == '"') {
+                if (builder == null) {
+                    return json.substring(start, pos - 1);
+                }
+                builder.append(json, start, pos - 1);
+                return builder.toString();
+            }
+
+            if (c == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(json, start, pos - 1);
+                builder.append(readEscape());
+                start = pos;
+            }
+        }
+
+        throw syntaxError("Unterminated string");
+    }
+
+    private char readEscape() throws JsonException {
+        if (pos >= length) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+
+        char c = json.charAt(pos++);
+        switch (c) {
+            case 'u':
+                if (pos + 4 > length) {
+                    throw syntaxError("Unterminated escape sequence");
+                }
+                int result = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(json.charAt(pos++), 16);
+                    if (digit == -1) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    result = (result << 4) | digit;
+                }
+                return (char) result;
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '\'':
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw syntaxError("Invalid escape sequence '\\" + c + "'");
+        }
+    }
+
+    @NonNull
+    private JsonValue readNumber() throws JsonException {
+        int start = pos;
+        boolean isDecimal = false;
+
+        while (pos < length) {
+            char c = json.charAt(pos);
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+') {
+                pos++;
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                isDecimal = true;
+                pos++;
+            } else {
+                break;
+            }
+        }
+
+        String literal = json.substring(start, pos);
+
+        try {
+            if (!isDecimal) {
+                long longValue = Long.parseLong(literal);
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return JsonValue.wrap((int) longValue);
+                }
+                return JsonValue.wrap(longValue);
+            }
+        } catch (NumberFormatException ignored) {
+            // Fall back to a double
+        }
+
+        try {
+            return JsonValue.wrapOpt(Double.valueOf(literal));
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid number " + literal);
+        }
+    }
+
+    private void expectLiteral(@NonNull String literal) throws JsonException {
+        if (!json.startsWith(literal, pos)) {
+            throw syntaxError("Expected " + literal);
+        }
+        pos += literal.length();
+    }
+
+    private char peek() throws JsonException {
+        if (pos >= length) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return json.charAt(pos);
+    }
+
+    private void skipWhitespace() {
+        while (pos < length) {
+            char c = json.charAt(pos);
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    @NonNull
+    private JsonException syntaxError(@NonNull String message) {
+        return new JsonException("Unable to parse string: " + message + " at character " + pos);
+    }
+
+}
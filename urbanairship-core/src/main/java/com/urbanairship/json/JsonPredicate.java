@@ -50,6 +50,9 @@ public class JsonPredicate implements JsonSerializable, Predicate<JsonSerializab
     private final List<Predicate<JsonSerializable>> items;
     private final String type;
 
+    @Nullable
+    private volatile JsonPredicateEvaluator evaluator;
+
     private JsonPredicate(Builder builder) {
         this.items = builder.items;
         this.type = builder.type;
@@ -139,34 +142,35 @@ public class JsonPredicate implements JsonSerializable, Predicate<JsonSerializab
 
     @Override
     public boolean apply(@Nullable JsonSerializable value) {
-        if (items.size() == 0) {
-            return true;
+        // Compiled lazily and cached, the predicate is immutable once built
+        JsonPredicateEvaluator compiled = evaluator;
+        if (compiled == null) {
+            compiled = JsonPredicateEvaluator.compile(type, items);
+            evaluator = compiled;
         }
 
-        switch (type) {
-            case NOT_PREDICATE_TYPE:
-                return !items.get(0).apply(value);
-
-            case AND_PREDICATE_TYPE:
-                for (Predicate<JsonSerializable> item : items) {
-                    if (!item.apply(value)) {
-                        return false;
-                    }
-                }
-
-                return true;
-
-            case OR_PREDICATE_TYPE:
-            default:
-                for (Predicate<JsonSerializable> item : items) {
-                    if (item.apply(value)) {
-                        return true;
-                    }
-                }
+        return compiled.apply(value);
+    }
 
-                return false;
-        }
+    /**
+     * Gets the predicate type.
+     *
+     * @return The predicate type.
+     */
+    @NonNull
+    @PredicateType
+    String getPredicateType() {
+        return type;
+    }
 
+    /**
+     * Gets the predicate items.
+     *
+     * @return The child predicates and matchers.
+     */
+    @NonNull
+    List<Predicate<JsonSerializable>> getItems() {
+        return items;
     }
 
     /**
@@ -0,0 +1,392 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.Predicate;
+import com.urbanairship.json.matchers.ArrayContainsMatcher;
+import com.urbanairship.json.matchers.ExactValueMatcher;
+import com.urbanairship.json.matchers.NumberRangeMatcher;
+import com.urbanairship.json.matchers.PresenceMatcher;
+import com.urbanairship.json.matchers.VersionMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Compiled form of a {@link JsonPredicate}.
+ * <p>
+ * Compiling flattens the predicate tree into evaluation nodes that:
+ * <ul>
+ * <li>Resolve the value being matched once instead of once per matcher.</li>
+ * <li>Walk a pre-built scope and key path.</li>
+ * <li>Check number ranges against primitive bounds.</li>
+ * <li>Remember the last version string checked by a version matcher, since the same app version
+ * is checked over and over.</li>
+ * <li>Order the children of and/or predicates cheapest first so short-circuiting skips the
+ * expensive checks whenever possible.</li>
+ * </ul>
+ * Evaluation has no side effects, so reordering children does not change the result.
+ */
+final class JsonPredicateEvaluator {
+
+    private static final int COST_PRESENCE = 1;
+    private static final int COST_EXACT = 2;
+    private static final int COST_RANGE = 2;
+    private static final int COST_VERSION = 4;
+    private static final int COST_ARRAY_CONTAINS = 16;
+    private static final int COST_UNKNOWN = 16;
+
+    private final Node root;
+
+    private JsonPredicateEvaluator(@NonNull Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles a predicate.
+     *
+     * @param type The predicate type.
+     * @param items The predicate items.
+     * @return The compiled evaluator.
+     */
+    @NonNull
+    static JsonPredicateEvaluator compile(@NonNull String type, @NonNull List<Predicate<JsonSerializable>> items) {
+        return new JsonPredicateEvaluator(compileNode(type, items));
+    }
+
+    /**
+     * Evaluates the predicate.
+     *
+     * @param value The value.
+     * @return {@code true} if the value matches, otherwise {@code false}.
+     */
+    boolean apply(@Nullable JsonSerializable value) {
+        return root.apply(value == null ? JsonValue.NULL : value.toJsonValue());
+    }
+
+    @NonNull
+    private static Node compileNode(@NonNull String type, @NonNull List<Predicate<JsonSerializable>> items) {
+        if (items.isEmpty()) {
+            return ConstantNode.TRUE;
+        }
+
+        Node[] children = new Node[items.size()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = compileItem(items.get(i));
+        }
+
+        switch (type) {
+            case JsonPredicate.NOT_PREDICATE_TYPE:
+                Node child = children[0];
+                if (child instanceof NotNode) {
+                    return ((NotNode) child).child;
+                }
+                return new NotNode(child);
+
+            case JsonPredicate.AND_PREDICATE_TYPE:
+                if (children.length == 1) {
+                    return children[0];
+                }
+                return new AndNode(sortByCost(children));
+
+            case JsonPredicate.OR_PREDICATE_TYPE:
+            default:
+                if (children.length == 1) {
+                    return children[0];
+                }
+                return new OrNode(sortByCost(children));
+        }
+    }
+
+    @NonNull
+    private static Node compileItem(@NonNull Predicate<JsonSerializable> item) {
+        if (item instanceof JsonPredicate) {
+            JsonPredicate predicate = (JsonPredicate) item;
+            return compileNode(predicate.getPredicateType(), predicate.getItems());
+        }
+
+        if (item instanceof JsonMatcher) {
+            return compileMatcher((JsonMatcher) item);
+        }
+
+        return new DelegatingNode(item);
+    }
+
+    @NonNull
+    private static Node compileMatcher(@NonNull JsonMatcher matcher) {
+        List<String> path = new ArrayList<>(matcher.getScope());
+        if (matcher.getKey() != null) {
+            path.add(matcher.getKey());
+        }
+
+        String[] segments = path.toArray(new String[0]);
+        ValueMatcher valueMatcher = matcher.getValueMatcher();
+        boolean ignoreCase = matcher.isIgnoreCase();
+
+        if (valueMatcher instanceof NumberRangeMatcher) {
+            NumberRangeMatcher rangeMatcher = (NumberRangeMatcher) valueMatcher;
+            return new RangeNode(segments, rangeMatcher.getMin(), rangeMatcher.getMax());
+        }
+
+        if (valueMatcher instanceof VersionMatcher) {
+            return new VersionNode(segments, valueMatcher);
+        }
+
+        int cost;
+        if (valueMatcher instanceof PresenceMatcher) {
+            cost = COST_PRESENCE;
+        } else if (valueMatcher instanceof ExactValueMatcher) {
+            cost = COST_EXACT;
+        } else if (valueMatcher instanceof ArrayContainsMatcher) {
+            cost = COST_ARRAY_CONTAINS;
+        } else {
+            cost = COST_UNKNOWN;
+        }
+
+        return new ValueNode(segments, valueMatcher, ignoreCase, cost);
+    }
+
+    @NonNull
+    private static Node[] sortByCost(@NonNull Node[] nodes) {
+        // Stable sort keeps the authored order for nodes of equal cost
+        Arrays.sort(nodes, new Comparator<Node>() {
+            @Override
+            public int compare(Node o1, Node o2) {
+                return o1.cost - o2.cost;
+            }
+        });
+        return nodes;
+    }
+
+    private static int sumCost(@NonNull Node[] nodes) {
+        int cost = 0;
+        for (Node node : nodes) {
+            cost += node.cost;
+        }
+        return cost;
+    }
+
+    /**
+     * Resolves a scope and key path.
+     *
+     * @param value The root value.
+     * @param path The path segments.
+     * @return The resolved value, or {@link JsonValue#NULL} if the path does not exist.
+     */
+    @NonNull
+    private static JsonValue resolve(@NonNull JsonValue value, @NonNull String[] path) {
+        for (String segment : path) {
+            JsonMap map = value.getMap();
+            if (map == null) {
+                return JsonValue.NULL;
+            }
+            value = map.opt(segment);
+        }
+        return value;
+    }
+
+    private abstract static class Node {
+
+        final int cost;
+
+        Node(int cost) {
+            this.cost = cost;
+        }
+
+        abstract boolean apply(@NonNull JsonValue value);
+
+    }
+
+    private static final class ConstantNode extends Node {
+
+        static final ConstantNode TRUE = new ConstantNode();
+
+        private ConstantNode() {
+            super(0);
+        }
+
+        @Override
+        boolean apply(@NonNull JsonValue value) {
+            return true;
+        }
+
+    }
+
+    private static final class NotNode extends Node {
+
+        private final Node child;
+
+        NotNode(@NonNull Node child) {
+            super(child.cost);
+            this.child = child;
+        }
+
+        @Override
+        boolean apply(@NonNull JsonValue value) {
+            return !child.apply(value);
+        }
+
+    }
+
+    private static final class AndNode extends Node {
+
+        private final Node[] children;
+
+        AndNode(@NonNull Node[] children) {
+            super(sumCost(children));
+            this.children = children;
+        }
+
+        @Override
+        boolean apply(@NonNull JsonValue value) {
+            for (Node child : children) {
+                if (!child.apply(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    private static final class OrNode extends Node {
+
+        private final Node[] children;
+
+        OrNode(@NonNull Node[] children) {
+            super(sumCost(children));
+            this.children = children;
+        }
+
+        @Override
+        boolean apply(@NonNull JsonValue value) {
+            for (Node child : children) {
+                if (child.apply(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private static final class ValueNode extends Node {
+
+        private final String[] path;
+        private final ValueMatcher matcher;
+        private final boolean ignoreCase;
+
+        ValueNode(@NonNull String[] path, @NonNull ValueMatcher matcher, boolean ignoreCase, int cost) {
+            super(cost + path.length);
+            this.path = path;
+            this.matcher = matcher;
+            this.ignoreCase = ignoreCase;
+        }
+
+        @Override
+        boolean apply(@NonNull JsonValue value) {
+            return matcher.apply(resolve(value, path), ignoreCase);
+        }
+
+    }
+
+    private static final class RangeNode extends Node {
+
+        private final String[] path;
+        private final boolean hasBounds;
+        private final double min;
+        private final double max;
+
+        RangeNode(@NonNull String[] path, @Nullable Double min, @Nullable Double max) {
+            super(COST_RANGE + path.length);
+            this.path = path;
+            this.hasBounds = min != null || max != null;
+            this.min = min == null ? Double.NEGATIVE_INFINITY : min;
+            this.max = max == null ? Double.POSITIVE_INFINITY : max;
+        }
+
+        @Override
+        boolean apply(@NonNull JsonValue value) {
+            if (!hasBounds) {
+                return true;
+            }
+
+            JsonValue resolved = resolve(value, path);
+            if (!resolved.isNumber()) {
+                return false;
+            }
+
+            double number = resolved.getDouble(0);
+            return number >= min && number <= max;
+        }
+
+    }
+
+    private static final class VersionNode extends Node {
+
+        private final String[] path;
+        private final ValueMatcher matcher;
+
+        @Nullable
+        private volatile VersionResult lastResult;
+
+        VersionNode(@NonNull String[] path, @NonNull ValueMatcher matcher) {
+            super(COST_VERSION + path.length);
+            this.path = path;
+            this.matcher = matcher;
+        }
+
+        @Override
+        boolean apply(@NonNull JsonValue value) {
+            JsonValue resolved = resolve(value, path);
+            String version = resolved.getString();
+            if (version == null) {
+                return false;
+            }
+
+            VersionResult last = lastResult;
+            if (last != null && last.version.equals(version)) {
+                return last.matches;
+            }
+
+            boolean matches = matcher.apply(resolved, false);
+            lastResult = new VersionResult(version, matches);
+            return matches;
+        }
+
+    }
+
+    private static final class VersionResult {
+
+        final String version;
+        final boolean matches;
+
+        VersionResult(@NonNull String version, boolean matches) {
+            this.version = version;
+            this.matches = matches;
+        }
+
+    }
+
+    private static final class DelegatingNode extends Node {
+
+        private final Predicate<JsonSerializable> predicate;
+
+        DelegatingNode(@NonNull Predicate<JsonSerializable> predicate) {
+            super(COST_UNKNOWN);
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean apply(@NonNull JsonValue value) {
+            return predicate.apply(value);
+        }
+
+    }
+
+}
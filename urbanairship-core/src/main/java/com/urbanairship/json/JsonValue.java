@@ -9,11 +9,10 @@ import com.urbanairship.Logger;
 import com.urbanairship.util.UAStringUtil;
 
 import org.json.JSONArray;
-import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONStringer;
-import org.json.JSONTokener;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -165,13 +164,7 @@ public class JsonValue implements Parcelable, JsonSerializable {
         }
 
         if (isNumber()) {
-            try {
-                return JSONObject.numberToString((Number) value);
-            } catch (JSONException e) {
-                // Should never happen
-                Logger.error(e, "JsonValue - Failed to coerce JSON Number into String.");
-                return null;
-            }
+            return JsonWriter.numberToString((Number) value);
         }
 
         return String.valueOf(value);
@@ -499,13 +492,7 @@ public class JsonValue implements Parcelable, JsonSerializable {
             return JsonValue.NULL;
         }
 
-        JSONTokener tokener = new JSONTokener(jsonString);
-
-        try {
-            return JsonValue.wrap(tokener.nextValue());
-        } catch (JSONException e) {
-            throw new JsonException("Unable to parse string", e);
-        }
+        return JsonParser.parse(jsonString);
     }
 
     @Override
@@ -556,46 +543,34 @@ public class JsonValue implements Parcelable, JsonSerializable {
             return "null";
         }
 
-        try {
-            if (value instanceof String) {
-                return JSONObject.quote((String) value);
-            }
-
-            if (value instanceof Number) {
-                return JSONObject.numberToString((Number) value);
-            }
+        if (value instanceof Boolean) {
+            return String.valueOf(value);
+        }
 
-            if (value instanceof JsonMap || value instanceof JsonList) {
-                return value.toString();
-            }
+        if (value instanceof Number) {
+            return JsonWriter.numberToString((Number) value);
+        }
 
-            return String.valueOf(value);
-        } catch (JSONException e) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            JsonWriter.write(this, builder);
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonValue - Failed to create JSON String.");
             return "";
         }
+        return builder.toString();
     }
 
     /**
-     * Helper method that is used to write the value as a JSON String.
+     * Writes the JsonValue as a JSON encoded String directly to the writer without building
+     * an intermediate String.
      *
-     * @param stringer The JSONStringer object.
-     * @throws JSONException If the value is unable to be written as JSON.
+     * @param writer The writer.
+     * @throws IOException If the writer fails to write.
      */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        if (isNull()) {
-            stringer.value(null);
-            return;
-        }
-
-        if (value instanceof JsonList) {
-            ((JsonList) value).write(stringer);
-        } else if (value instanceof JsonMap) {
-            ((JsonMap) value).write(stringer);
-        } else {
-            stringer.value(value);
-        }
+    public void write(@NonNull Writer writer) throws IOException {
+        JsonWriter.write(this, writer);
     }
 
     /**
@@ -0,0 +1,189 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import java.io.IOException;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Streams {@link JsonValue} instances as JSON directly to an {@link Appendable}.
+ * <p>
+ * The output matches the org.json JSONStringer encoding: forward slashes are escaped, control
+ * characters are written as unicode escapes, and whole doubles are written without a fraction.
+ */
+final class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Double NEGATIVE_ZERO = -0d;
+
+    private JsonWriter() {}
+
+    /**
+     * Writes a value.
+     *
+     * @param value The value.
+     * @param out The output.
+     * @throws IOException If the output fails to append.
+     */
+    static void write(@NonNull JsonValue value, @NonNull Appendable out) throws IOException {
+        writeObject(value.getValue(), out);
+    }
+
+    /**
+     * Writes a map.
+     *
+     * @param map The map.
+     * @param out The output.
+     * @throws IOException If the output fails to append.
+     */
+    static void write(@NonNull JsonMap map, @NonNull Appendable out) throws IOException {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<String, JsonValue> entry : map) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            writeString(entry.getKey(), out);
+            out.append(':');
+            writeObject(entry.getValue().getValue(), out);
+        }
+        out.append('}');
+    }
+
+    /**
+     * Writes a list.
+     *
+     * @param list The list.
+     * @param out The output.
+     * @throws IOException If the output fails to append.
+     */
+    static void write(@NonNull JsonList list, @NonNull Appendable out) throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (JsonValue value : list) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            writeObject(value.getValue(), out);
+        }
+        out.append(']');
+    }
+
+    private static void writeObject(@Nullable Object value, @NonNull Appendable out) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            writeString((String) value, out);
+        } else if (value instanceof JsonMap) {
+            write((JsonMap) value, out);
+        } else if (value instanceof JsonList) {
+            write((JsonList) value, out);
+        } else if (value instanceof Number) {
+            out.append(numberToString((Number) value));
+        } else {
+            out.append(String.valueOf(value));
+        }
+    }
+
+    /**
+     * Writes a quoted and escaped string.
+     *
+     * @param value The string.
+     * @param out The output.
+     * @throws IOException If the output fails to append.
+     */
+    static void writeString(@NonNull String value, @NonNull Appendable out) throws IOException {
+        out.append('"');
+
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '"':
+                    replacement = "\\\"";
+                    break;
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case '/':
+                    replacement = "\\/";
+                    break;
+                case '\t':
+                    replacement = "\\t";
+                    break;
+                case '\b':
+                    replacement = "\\b";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                case '\r':
+                    replacement = "\\r";
+                    break;
+                case '\f':
+                    replacement = "\\f";
+                    break;
+                default:
+                    if (c > 0x1F) {
+                        continue;
+                    }
+                    replacement = null;
+            }
+
+            if (start < i) {
+                out.append(value, start, i);
+            }
+
+            if (replacement != null) {
+                out.append(replacement);
+            } else {
+                out.append("\\u00").append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+            }
+
+            start = i + 1;
+        }
+
+        if (start < length) {
+            out.append(value, start, length);
+        }
+
+        out.append('"');
+    }
+
+    /**
+     * Encodes a number. Whole numbers are written without a fraction.
+     *
+     * @param number The number.
+     * @return The encoded number, or {@code "null"} if the number is infinite or NaN.
+     */
+    @NonNull
+    static String numberToString(@NonNull Number number) {
+        if (number instanceof Integer || number instanceof Long) {
+            return number.toString();
+        }
+
+        double doubleValue = number.doubleValue();
+        if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+            return "null";
+        }
+
+        if (number.equals(NEGATIVE_ZERO)) {
+            return "-0";
+        }
+
+        long longValue = number.longValue();
+        if (doubleValue == (double) longValue) {
+            return Long.toString(longValue);
+        }
+
+        return number.toString();
+    }
+
+}
@@ -42,6 +42,30 @@ public class NumberRangeMatcher extends ValueMatcher {
         this.max = max;
     }
 
+    /**
+     * Gets the min value.
+     *
+     * @return The min value.
+     * @hide
+     */
+    @Nullable
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public Double getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the max value.
+     *
+     * @return The max value.
+     * @hide
+     */
+    @Nullable
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public Double getMax() {
+        return max;
+    }
+
     @Override
     public boolean equals(@Nullable Object o) {
         if (this == o) {
@@ -8,6 +8,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.SystemClock;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -28,6 +29,7 @@ import com.urbanairship.job.JobDispatcher;
 import com.urbanairship.job.JobInfo;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.modules.accengage.AccengageNotificationHandler;
+import com.urbanairship.push.notifications.AirshipNotificationProvider;
 import com.urbanairship.push.notifications.NotificationArguments;
 import com.urbanairship.push.notifications.NotificationChannelCompat;
 import com.urbanairship.push.notifications.NotificationChannelUtils;
@@ -35,17 +37,29 @@ import com.urbanairship.push.notifications.NotificationProvider;
 import com.urbanairship.push.notifications.NotificationResult;
 import com.urbanairship.util.Checks;
 import com.urbanairship.util.PendingIntentCompat;
+import com.urbanairship.util.UAStringUtil;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Runnable that processes an incoming push.
+ * <p>
+ * When not running as a long running task, the notification is built and its channel resolved
+ * in parallel within a processing budget. If the notification is not built in time, a text only
+ * notification is posted instead so the push is not lost when the processing window closes.
  */
 class IncomingPushRunnable implements Runnable {
 
     private static final long AIRSHIP_WAIT_TIME_MS = 5000; // 5 seconds.
     private static final long LONG_AIRSHIP_WAIT_TIME_MS = 10000; // 10 seconds.
+    private static final long PROCESSING_BUDGET_MS = 9000; // 9 seconds.
 
     private final Context context;
     private final PushMessage message;
@@ -55,6 +69,10 @@ class IncomingPushRunnable implements Runnable {
     private final boolean isProcessed;
     private final JobDispatcher jobDispatcher;
     private final ActivityMonitor activityMonitor;
+    private final ExecutorService executor;
+    private final long processingBudgetMs;
+
+    private long deadline;
 
     /**
      * Default constructor.
@@ -70,10 +88,13 @@ class IncomingPushRunnable implements Runnable {
         this.notificationManager = builder.notificationManager == null ? NotificationManagerCompat.from(context) : builder.notificationManager;
         this.jobDispatcher = builder.jobDispatcher == null ? JobDispatcher.shared(context) : builder.jobDispatcher;
         this.activityMonitor = builder.activityMonitor == null ? GlobalActivityMonitor.shared(context) : builder.activityMonitor;
+        this.executor = builder.executor == null ? PushManager.PUSH_EXECUTOR : builder.executor;
+        this.processingBudgetMs = builder.processingBudgetMs;
     }
 
     @Override
     public void run() {
+        deadline = SystemClock.elapsedRealtime() + processingBudgetMs;
         Autopilot.automaticTakeOff(context);
 
         long airshipWaitTime = isLongRunning ? LONG_AIRSHIP_WAIT_TIME_MS : AIRSHIP_WAIT_TIME_MS;
@@ -135,7 +156,9 @@ class IncomingPushRunnable implements Runnable {
         }
 
         // Run the push actions
+        long start = SystemClock.elapsedRealtime();
         runActions();
+        onStageFinished(airship, PushProcessingListener.STAGE_ACTIONS, start);
 
         // Set last received metadata
         airship.getPushManager().setLastReceivedMetadata(message.getMetadata());
@@ -175,6 +198,7 @@ class IncomingPushRunnable implements Runnable {
             return;
         }
 
+        long start = SystemClock.elapsedRealtime();
         NotificationArguments arguments;
         try {
             arguments = provider.onCreateNotificationArguments(context, message);
@@ -184,6 +208,7 @@ class IncomingPushRunnable implements Runnable {
             airship.getAnalytics().addEvent(new PushArrivedEvent(message));
             return;
         }
+        onStageFinished(airship, PushProcessingListener.STAGE_NOTIFICATION_ARGUMENTS, start);
 
         if (!isLongRunning && arguments.getRequiresLongRunningTask()) {
             Logger.debug("Push requires a long running task. Scheduled for a later time: %s", message);
@@ -191,13 +216,10 @@ class IncomingPushRunnable implements Runnable {
             return;
         }
 
-        NotificationResult result;
-        try {
-            result = provider.onCreateNotification(context, arguments);
-        } catch (Exception e) {
-            Logger.error(e, "Cancelling notification display to create and display notification.");
-            result = NotificationResult.cancel();
-        }
+        // Resolve the expected channel while the notification is built
+        Future<NotificationChannelCompat> channelFuture = isLongRunning ? null : fetchNotificationChannel(airship, arguments.getNotificationChannelId());
+
+        NotificationResult result = createNotification(airship, provider, arguments);
 
         Logger.debug("Received result status %s for push message: %s", result.getStatus(), message);
 
@@ -206,7 +228,9 @@ class IncomingPushRunnable implements Runnable {
                 Notification notification = result.getNotification();
                 Checks.checkNotNull(notification, "Invalid notification result. Missing notification.");
 
-                NotificationChannelCompat notificationChannel = getNotificationChannel(airship, notification, arguments);
+                start = SystemClock.elapsedRealtime();
+                NotificationChannelCompat notificationChannel = getNotificationChannel(airship, notification, arguments, channelFuture);
+                onStageFinished(airship, PushProcessingListener.STAGE_NOTIFICATION_CHANNEL, start);
 
                 // Apply legacy settings
                 if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
@@ -223,7 +247,9 @@ class IncomingPushRunnable implements Runnable {
                 provider.onNotificationCreated(context, notification, arguments);
 
                 // Post the notification
+                start = SystemClock.elapsedRealtime();
                 boolean posted = postNotification(notification, arguments);
+                onStageFinished(airship, PushProcessingListener.STAGE_NOTIFICATION_POST, start);
 
                 airship.getAnalytics().addEvent(new PushArrivedEvent(message, notificationChannel));
                 airship.getPushManager().onPushReceived(message, posted);
@@ -235,17 +261,147 @@ class IncomingPushRunnable implements Runnable {
                 break;
 
             case NotificationResult.CANCEL:
+                if (channelFuture != null) {
+                    channelFuture.cancel(false);
+                }
                 airship.getAnalytics().addEvent(new PushArrivedEvent(message));
                 airship.getPushManager().onPushReceived(message, false);
                 break;
 
             case NotificationResult.RETRY:
+                if (channelFuture != null) {
+                    channelFuture.cancel(false);
+                }
                 Logger.debug("Scheduling notification to be retried for a later time: %s", message);
                 reschedulePush(message);
                 break;
         }
     }
 
+    /**
+     * Creates the notification. Long running tasks build the notification directly, otherwise
+     * the notification is built on the executor and a text only notification is created if the
+     * build does not finish within the processing budget.
+     *
+     * @param airship The airship instance.
+     * @param provider The notification provider.
+     * @param arguments The notification arguments.
+     * @return The notification result.
+     */
+    @NonNull
+    private NotificationResult createNotification(@NonNull UAirship airship,
+                                                  @NonNull final NotificationProvider provider,
+                                                  @NonNull final NotificationArguments arguments) {
+        long start = SystemClock.elapsedRealtime();
+        NotificationResult result;
+
+        if (isLongRunning) {
+            try {
+                result = provider.onCreateNotification(context, arguments);
+            } catch (Exception e) {
+                Logger.error(e, "Cancelling notification display to create and display notification.");
+                result = NotificationResult.cancel();
+            }
+            onStageFinished(airship, PushProcessingListener.STAGE_NOTIFICATION_BUILD, start);
+            return result;
+        }
+
+        Future<NotificationResult> future = executor.submit(new Callable<NotificationResult>() {
+            @Override
+            public NotificationResult call() {
+                return provider.onCreateNotification(context, arguments);
+            }
+        });
+
+        try {
+            result = future.get(getRemainingTime(), TimeUnit.MILLISECONDS);
+            onStageFinished(airship, PushProcessingListener.STAGE_NOTIFICATION_BUILD, start);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            onStageFinished(airship, PushProcessingListener.STAGE_NOTIFICATION_BUILD, start);
+            Logger.info("Notification for message %s was not built in time, falling back to a text only notification.", message);
+
+            start = SystemClock.elapsedRealtime();
+            Notification fallback = createFallbackNotification(provider, arguments);
+            result = fallback == null ? NotificationResult.cancel() : NotificationResult.notification(fallback);
+            onStageFinished(airship, PushProcessingListener.STAGE_NOTIFICATION_FALLBACK, start);
+        } catch (ExecutionException e) {
+            Logger.error(e.getCause(), "Cancelling notification display to create and display notification.");
+            result = NotificationResult.cancel();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            Logger.error(e, "Interrupted while creating notification, retrying later.");
+            result = NotificationResult.retry();
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a text only notification for the message.
+     *
+     * @param provider The notification provider.
+     * @param arguments The notification arguments.
+     * @return The notification, or {@code null} if the message has no alert.
+     */
+    @Nullable
+    private Notification createFallbackNotification(@NonNull NotificationProvider provider, @NonNull NotificationArguments arguments) {
+        if (UAStringUtil.isEmpty(message.getAlert())) {
+            return null;
+        }
+
+        int smallIcon = context.getApplicationInfo().icon;
+        int accentColor = 0;
+        if (provider instanceof AirshipNotificationProvider) {
+            smallIcon = ((AirshipNotificationProvider) provider).getSmallIcon();
+            accentColor = ((AirshipNotificationProvider) provider).getDefaultAccentColor();
+        }
+
+        return new NotificationCompat.Builder(context, arguments.getNotificationChannelId())
+                .setContentTitle(message.getTitle())
+                .setContentText(message.getAlert())
+                .setAutoCancel(true)
+                .setLocalOnly(message.isLocalOnly())
+                .setColor(message.getIconColor(accentColor))
+                .setSmallIcon(message.getIcon(context, smallIcon))
+                .setPriority(message.getPriority())
+                .setCategory(message.getCategory())
+                .setVisibility(message.getVisibility())
+                .setDefaults(NotificationCompat.DEFAULT_ALL)
+                .build();
+    }
+
+    /**
+     * Starts fetching a notification channel on the executor.
+     *
+     * @param airship The airship instance.
+     * @param channelId The channel ID.
+     * @return The channel future.
+     */
+    @NonNull
+    private Future<NotificationChannelCompat> fetchNotificationChannel(@NonNull final UAirship airship, @NonNull final String channelId) {
+        return executor.submit(new Callable<NotificationChannelCompat>() {
+            @Override
+            public NotificationChannelCompat call() {
+                return airship.getPushManager()
+                              .getNotificationChannelRegistry()
+                              .getNotificationChannelSync(channelId);
+            }
+        });
+    }
+
+    private long getRemainingTime() {
+        return Math.max(0, deadline - SystemClock.elapsedRealtime());
+    }
+
+    private void onStageFinished(@NonNull UAirship airship, @NonNull @PushProcessingListener.Stage String stage, long startMs) {
+        PushProcessingListener listener = airship.getPushManager().getPushProcessingListener();
+        if (listener != null) {
+            listener.onStageFinished(message, stage, SystemClock.elapsedRealtime() - startMs);
+        }
+    }
+
     @Nullable
     private NotificationProvider getNotificationProvider(UAirship airship) {
         if (message.isAirshipPush()) {
@@ -285,7 +441,10 @@ class IncomingPushRunnable implements Runnable {
     }
 
     @Nullable
-    private NotificationChannelCompat getNotificationChannel(@NonNull UAirship airship, @NonNull Notification notification, @NonNull NotificationArguments arguments) {
+    private NotificationChannelCompat getNotificationChannel(@NonNull UAirship airship,
+                                                             @NonNull Notification notification,
+                                                             @NonNull NotificationArguments arguments,
+                                                             @Nullable Future<NotificationChannelCompat> prefetched) {
         String channelId;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             channelId = NotificationCompat.getChannelId(notification);
@@ -293,6 +452,24 @@ class IncomingPushRunnable implements Runnable {
             channelId = arguments.getNotificationChannelId();
         }
 
+        if (prefetched != null) {
+            if (channelId != null && channelId.equals(arguments.getNotificationChannelId())) {
+                try {
+                    return prefetched.get(getRemainingTime(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    Logger.error("Timed out resolving notification channel %s.", channelId);
+                    return null;
+                } catch (ExecutionException e) {
+                    Logger.error(e.getCause(), "Failed to resolve notification channel %s.", channelId);
+                    return null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            prefetched.cancel(false);
+        }
+
         if (channelId != null) {
             return airship.getPushManager()
                           .getNotificationChannelRegistry()
@@ -427,7 +604,8 @@ class IncomingPushRunnable implements Runnable {
         private NotificationManagerCompat notificationManager;
         private JobDispatcher jobDispatcher;
         private ActivityMonitor activityMonitor;
-
+        private ExecutorService executor;
+        private long processingBudgetMs = PROCESSING_BUDGET_MS;
 
         /**
          * Default constructor.
@@ -524,6 +702,30 @@ class IncomingPushRunnable implements Runnable {
             return this;
         }
 
+        /**
+         * Sets the executor used to build the notification and resolve its channel.
+         *
+         * @param executor The executor.
+         * @return The builder instance.
+         */
+        @NonNull
+        Builder setExecutor(@NonNull ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the processing budget. Only applies when the runnable is not long running.
+         *
+         * @param processingBudgetMs The processing budget in milliseconds.
+         * @return The builder instance.
+         */
+        @NonNull
+        Builder setProcessingBudget(long processingBudgetMs) {
+            this.processingBudgetMs = processingBudgetMs;
+            return this;
+        }
+
         /**
          * Builds the runnable.
          *
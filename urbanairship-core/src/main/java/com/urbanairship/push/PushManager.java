@@ -225,6 +225,7 @@ public class PushManager extends AirshipComponent {
     private final PrivacyManager privacyManager;
 
     private NotificationListener notificationListener;
+    private PushProcessingListener pushProcessingListener;
     private final List<PushTokenListener> pushTokenListeners = new CopyOnWriteArrayList<>();
 
     private final List<PushListener> pushListeners = new CopyOnWriteArrayList<>();
@@ -762,6 +763,25 @@ public class PushManager extends AirshipComponent {
         this.notificationListener = listener;
     }
 
+    /**
+     * Sets the push processing listener.
+     *
+     * @param listener The listener.
+     */
+    public void setPushProcessingListener(@Nullable PushProcessingListener listener) {
+        this.pushProcessingListener = listener;
+    }
+
+    /**
+     * Gets the push processing listener.
+     *
+     * @return The push processing listener.
+     */
+    @Nullable
+    public PushProcessingListener getPushProcessingListener() {
+        return pushProcessingListener;
+    }
+
     /**
      * Adds a push listener.
      *
@@ -0,0 +1,68 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.push;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.StringDef;
+import androidx.annotation.WorkerThread;
+
+/**
+ * Listener for the time spent in each stage of processing an incoming push.
+ */
+public interface PushProcessingListener {
+
+    /**
+     * Dispatching the push actions.
+     */
+    @NonNull
+    String STAGE_ACTIONS = "actions";
+
+    /**
+     * Creating the notification arguments.
+     */
+    @NonNull
+    String STAGE_NOTIFICATION_ARGUMENTS = "notification_arguments";
+
+    /**
+     * Building the notification, including any image downloads.
+     */
+    @NonNull
+    String STAGE_NOTIFICATION_BUILD = "notification_build";
+
+    /**
+     * Building a text only notification after the notification build ran out of time.
+     */
+    @NonNull
+    String STAGE_NOTIFICATION_FALLBACK = "notification_fallback";
+
+    /**
+     * Resolving the notification channel.
+     */
+    @NonNull
+    String STAGE_NOTIFICATION_CHANNEL = "notification_channel";
+
+    /**
+     * Posting the notification.
+     */
+    @NonNull
+    String STAGE_NOTIFICATION_POST = "notification_post";
+
+    @Retention(RetentionPolicy.SOURCE)
+    @StringDef({ STAGE_ACTIONS, STAGE_NOTIFICATION_ARGUMENTS, STAGE_NOTIFICATION_BUILD,
+            STAGE_NOTIFICATION_FALLBACK, STAGE_NOTIFICATION_CHANNEL, STAGE_NOTIFICATION_POST })
+    @interface Stage {}
+
+    /**
+     * Called when a processing stage finishes.
+     *
+     * @param message The push message.
+     * @param stage The stage.
+     * @param durationMs The time spent in the stage in milliseconds.
+     */
+    @WorkerThread
+    void onStageFinished(@NonNull PushMessage message, @NonNull @Stage String stage, long durationMs);
+
+}
@@ -168,13 +168,7 @@ public class Observable<T> {
      */
     @NonNull
     public <R> Observable<R> flatMap(@NonNull final Function<T, Observable<R>> func) {
-        return bind(new Function<T, Observable<R>>() {
-            @NonNull
-            @Override
-            public Observable<R> apply(@NonNull T value) {
-                return func.apply(value);
-            }
-        });
+        return bind(func);
     }
 
     /**
@@ -186,11 +180,11 @@ public class Observable<T> {
      */
     @NonNull
     public <R> Observable<R> map(@NonNull final Function<T, R> func) {
-        return flatMap(new Function<T, Observable<R>>() {
-            @NonNull
+        return fuse(new Stage<T, R>() {
+            @Nullable
             @Override
-            public Observable<R> apply(@NonNull T value) {
-                return just(func.apply(value));
+            public R apply(@NonNull T value) {
+                return func.apply(value);
             }
         });
     }
@@ -203,15 +197,11 @@ public class Observable<T> {
      */
     @NonNull
     public Observable<T> filter(@NonNull final Predicate<T> pred) {
-        return flatMap(new Function<T, Observable<T>>() {
-            @NonNull
+        return fuse(new Stage<T, T>() {
+            @Nullable
             @Override
-            public Observable<T> apply(@NonNull T value) {
-                if (pred.apply(value)) {
-                    return just(value);
-                } else {
-                    return empty();
-                }
+            public T apply(@NonNull T value) {
+                return pred.apply(value) ? value : null;
             }
         });
     }
@@ -606,6 +596,22 @@ public class Observable<T> {
         });
     }
 
+    /**
+     * Appends a map or filter stage. Consecutive stages are fused into a single Observable that
+     * applies them in one pass, instead of binding a new Observable for every value.
+     *
+     * @param stage The stage.
+     * @param <R> The return type.
+     * @return An Observable of the return type.
+     */
+    @NonNull
+    private <R> Observable<R> fuse(@NonNull Stage<T, R> stage) {
+        if (this instanceof FusedObservable) {
+            return ((FusedObservable<?, T>) this).then(stage);
+        }
+        return new FusedObservable<>(this, stage);
+    }
+
     /**
      * Bind operator for Observables
      *
@@ -664,6 +670,82 @@ public class Observable<T> {
         });
     }
 
+    /**
+     * A fused map or filter stage.
+     *
+     * @param <T> The source type.
+     * @param <R> The return type.
+     */
+    private interface Stage<T, R> {
+
+        /**
+         * Applies the stage.
+         *
+         * @param value The value.
+         * @return The result, or {@code null} to drop the value.
+         */
+        @Nullable
+        R apply(@NonNull T value);
+
+    }
+
+    /**
+     * Observable that applies a chain of fused stages to the values of a source Observable.
+     * Subscribing adds a single observer to the source and emitting a value allocates nothing
+     * beyond what the stages themselves allocate.
+     *
+     * @param <S> The source type.
+     * @param <T> The type under observation.
+     */
+    private static class FusedObservable<S, T> extends Observable<T> {
+
+        private final Observable<S> source;
+        private final Stage<S, T> stage;
+
+        FusedObservable(@NonNull Observable<S> source, @NonNull Stage<S, T> stage) {
+            this.source = source;
+            this.stage = stage;
+        }
+
+        @NonNull
+        <R> Observable<R> then(@NonNull final Stage<T, R> next) {
+            final Stage<S, T> first = stage;
+            return new FusedObservable<>(source, new Stage<S, R>() {
+                @Nullable
+                @Override
+                public R apply(@NonNull S value) {
+                    T result = first.apply(value);
+                    return result == null ? null : next.apply(result);
+                }
+            });
+        }
+
+        @NonNull
+        @Override
+        public Subscription subscribe(@NonNull final Observer<T> observer) {
+            return source.subscribe(new Observer<S>() {
+                @Override
+                public void onNext(@NonNull S value) {
+                    T result = stage.apply(value);
+                    if (result != null) {
+                        observer.onNext(result);
+                    }
+                }
+
+                @Override
+                public void onCompleted() {
+                    observer.onCompleted();
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    observer.onError(e);
+                }
+            });
+        }
+
+    }
+
     /**
      * Generic value holder class.
      *
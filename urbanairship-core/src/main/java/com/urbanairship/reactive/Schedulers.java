@@ -5,6 +5,11 @@ package com.urbanairship.reactive;
 import android.os.Handler;
 import android.os.Looper;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
 
@@ -16,17 +21,27 @@ import androidx.annotation.RestrictTo;
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class Schedulers {
 
-    private static LooperScheduler main;
+    // Schedulers are weakly held so loopers of finished threads can be collected
+    private static final Map<Looper, WeakReference<LooperScheduler>> looperSchedulers = new WeakHashMap<>();
 
     /**
-     * Creates a Scheduler that targets the provided looper at scheduler time.
+     * Gets a Scheduler that targets the provided looper at scheduler time. Schedulers are shared
+     * per looper, so every caller posts through the same Handler.
      *
      * @param looper The looper to schedule on.
      * @return A Scheduler.
      */
     @NonNull
     public static LooperScheduler looper(@NonNull Looper looper) {
-        return new LooperScheduler(looper);
+        synchronized (looperSchedulers) {
+            WeakReference<LooperScheduler> reference = looperSchedulers.get(looper);
+            LooperScheduler scheduler = reference == null ? null : reference.get();
+            if (scheduler == null) {
+                scheduler = new LooperScheduler(looper);
+                looperSchedulers.put(looper, new WeakReference<>(scheduler));
+            }
+            return scheduler;
+        }
     }
 
     /**
@@ -36,11 +51,18 @@ public class Schedulers {
      */
     @NonNull
     public static LooperScheduler main() {
-        if (main == null) {
-            main = looper(Looper.getMainLooper());
-        }
+        return looper(Looper.getMainLooper());
+    }
 
-        return main;
+    /**
+     * Creates a serial Scheduler that targets the provided looper.
+     *
+     * @param looper The looper to schedule on.
+     * @return A Scheduler.
+     */
+    @NonNull
+    public static SerialScheduler serial(@NonNull Looper looper) {
+        return new SerialScheduler(looper(looper));
     }
 
     /**
@@ -48,7 +70,7 @@ public class Schedulers {
      */
     public static class LooperScheduler implements Scheduler {
 
-        private final Looper looper;
+        private final Handler handler;
 
         /**
          * Run loop Scheduler constructor.
@@ -56,39 +78,114 @@ public class Schedulers {
          * @param looper The looper to scheduler on.
          */
         public LooperScheduler(@NonNull Looper looper) {
-            this.looper = looper;
+            this.handler = new Handler(looper);
         }
 
         @NonNull
         public Subscription schedule(@NonNull final Runnable runnable) {
-            final Subscription subscription = Subscription.empty();
+            ScheduledRunnable scheduled = new ScheduledRunnable(runnable);
+            handler.post(scheduled);
+            return scheduled;
+        }
 
-            new Handler(looper).post(new Runnable() {
-                @Override
-                public void run() {
-                    if (!subscription.isCancelled()) {
-                        runnable.run();
+        @NonNull
+        public Subscription schedule(long delayTimeMs, @NonNull final Runnable runnable) {
+            ScheduledRunnable scheduled = new ScheduledRunnable(runnable);
+            handler.postDelayed(scheduled, delayTimeMs);
+            return scheduled;
+        }
+
+    }
+
+    /**
+     * Scheduler that runs its runnables one after another, in the order they were scheduled, on
+     * a looper.
+     * <p>
+     * Instead of posting a message per runnable, runnables are queued and a single drain is posted
+     * to the looper whenever the queue goes from empty to not empty. Bursts of values delivered
+     * through {@link Observable#observeOn(Scheduler)} are handled in one message. As a result,
+     * runnables scheduled while a drain is pending run ahead of other messages posted to the
+     * looper after that drain.
+     * <p>
+     * The scheduler can be shared by any number of Observables targeting the same looper.
+     */
+    public static class SerialScheduler implements Scheduler {
+
+        private final LooperScheduler looperScheduler;
+        private final ArrayDeque<ScheduledRunnable> queue = new ArrayDeque<>();
+        private boolean isDrainPending;
+
+        private final Runnable drain = new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    ScheduledRunnable next;
+                    synchronized (queue) {
+                        next = queue.poll();
+                        if (next == null) {
+                            isDrainPending = false;
+                            return;
+                        }
                     }
+                    next.run();
                 }
-            });
+            }
+        };
 
-            return subscription;
+        SerialScheduler(@NonNull LooperScheduler looperScheduler) {
+            this.looperScheduler = looperScheduler;
         }
 
         @NonNull
-        public Subscription schedule(long delayTimeMs, @NonNull final Runnable runnable) {
-            final Subscription subscription = Subscription.empty();
+        @Override
+        public Subscription schedule(@NonNull Runnable runnable) {
+            ScheduledRunnable scheduled = new ScheduledRunnable(runnable);
+            enqueue(scheduled);
+            return scheduled;
+        }
 
-            new Handler(looper).postDelayed(new Runnable() {
+        @NonNull
+        @Override
+        public Subscription schedule(long delayTimeMs, @NonNull Runnable runnable) {
+            final ScheduledRunnable scheduled = new ScheduledRunnable(runnable);
+            looperScheduler.handler.postDelayed(new Runnable() {
                 @Override
                 public void run() {
-                    if (!subscription.isCancelled()) {
-                        runnable.run();
-                    }
+                    enqueue(scheduled);
                 }
             }, delayTimeMs);
+            return scheduled;
+        }
+
+        private void enqueue(@NonNull ScheduledRunnable scheduled) {
+            synchronized (queue) {
+                queue.add(scheduled);
+                if (isDrainPending) {
+                    return;
+                }
+                isDrainPending = true;
+            }
+            looperScheduler.handler.post(drain);
+        }
+
+    }
+
+    /**
+     * Runnable that is also its own Subscription, skipping the wrapped runnable once cancelled.
+     */
+    private static class ScheduledRunnable extends Subscription implements Runnable {
+
+        private final Runnable runnable;
+
+        ScheduledRunnable(@NonNull Runnable runnable) {
+            this.runnable = runnable;
+        }
 
-            return subscription;
+        @Override
+        public void run() {
+            if (!isCancelled()) {
+                runnable.run();
+            }
         }
 
     }
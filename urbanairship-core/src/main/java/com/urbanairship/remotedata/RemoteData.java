@@ -75,6 +75,11 @@ public class RemoteData extends AirshipComponent {
      */
     private static final String LAST_MODIFIED_KEY = "com.urbanairship.remotedata.LAST_MODIFIED";
 
+    /**
+     * The key for getting and setting the entity tag of the last response from the preference datastore.
+     */
+    private static final String ETAG_KEY = "com.urbanairship.remotedata.ETAG";
+
     /**
      * The key for getting and setting the foreground refresh interval from the preference datastore.
      */
@@ -99,11 +104,6 @@ public class RemoteData extends AirshipComponent {
      */
     private static final String URL_METADATA_KEY = "url";
 
-    /**
-     * Key for the last modified timestamp in the remote-data metadata.
-     */
-    private static final String LAST_MODIFIED_METADATA_KEY = "last_modified";
-
     /**
      * Default foreground refresh interval in milliseconds.
      */
@@ -439,7 +439,8 @@ public class RemoteData extends AirshipComponent {
 
     /**
      * Produces an Observable of RemoteDataPayload drawn from the cache.
-     * Subscription side effects are implicitly tied to the background thread.
+     * Subscription side effects are implicitly tied to the background thread. The store keeps the
+     * decoded payloads in memory, so new subscribers do not parse the stored payloads again.
      *
      * @param types The data types.
      * @return An Observable of RemoteDataPayload.
@@ -456,7 +457,7 @@ public class RemoteData extends AirshipComponent {
      */
     public boolean isMetadataCurrent(@NonNull JsonMap jsonMap) {
         Uri uri = apiClient.getRemoteDataUrl(localeManager.getLocale());
-        return jsonMap.equals(createMetadata(uri, preferenceDataStore.getString(LAST_MODIFIED_KEY, null)));
+        return jsonMap.equals(createMetadata(uri));
     }
 
     /**
@@ -480,15 +481,15 @@ public class RemoteData extends AirshipComponent {
             isRefreshing = true;
         }
 
-        String lastModified = isLastMetadataCurrent() ? preferenceDataStore.getString(LAST_MODIFIED_KEY, null) : null;
+        boolean isMetadataCurrent = isLastMetadataCurrent();
+        String lastModified = isMetadataCurrent ? preferenceDataStore.getString(LAST_MODIFIED_KEY, null) : null;
+        String eTag = isMetadataCurrent ? preferenceDataStore.getString(ETAG_KEY, null) : null;
         Locale locale = localeManager.getLocale();
 
         Response<RemoteDataApiClient.Result> response;
         try {
-            response = apiClient.fetchRemoteDataPayloads(lastModified, locale, (headers, url, payloads) -> {
-                List<String> lmValues = headers.get("Last-Modified");
-                String lm = (lmValues != null && !lmValues.isEmpty()) ? lmValues.get(0) : null;
-                return RemoteDataPayload.parsePayloads(payloads, createMetadata(url, lm));
+            response = apiClient.fetchRemoteDataPayloads(lastModified, eTag, locale, (headers, url, payloads) -> {
+                return RemoteDataPayload.parsePayloads(payloads, createMetadata(url));
             });
         } catch (RequestException e) {
             Logger.error(e, "RemoteDataJobHandler - Failed to refresh data");
@@ -505,12 +506,18 @@ public class RemoteData extends AirshipComponent {
 
         if (response.isSuccessful()) {
             String lm = response.getResponseHeader("Last-Modified");
-            JsonMap metadata = createMetadata(response.getResult().url, lm);
+            JsonMap metadata = createMetadata(response.getResult().url);
             Set<RemoteDataPayload> remoteDataPayloads = response.getResult().payloads;
-            if (saveNewPayloads(remoteDataPayloads)) {
+            Set<String> updatedTypes = new HashSet<>();
+            if (dataStore.savePayloads(remoteDataPayloads, updatedTypes)) {
                 preferenceDataStore.put(LAST_REFRESH_METADATA, metadata);
                 preferenceDataStore.put(LAST_MODIFIED_KEY, lm);
-                notifyPayloadUpdates(remoteDataPayloads);
+                preferenceDataStore.put(ETAG_KEY, response.getResponseHeader("ETag"));
+
+                // Subscribers already have the unchanged types
+                if (!updatedTypes.isEmpty()) {
+                    notifyPayloadUpdates(remoteDataPayloads);
+                }
                 onRefreshFinished(true);
                 return JobResult.SUCCESS;
             }
@@ -545,19 +552,22 @@ public class RemoteData extends AirshipComponent {
         }
     }
 
-    private boolean saveNewPayloads(@NonNull final Set<RemoteDataPayload> payloads) {
-        return dataStore.deletePayloads() && dataStore.savePayloads(payloads);
-    }
-
     private void notifyPayloadUpdates(@NonNull final Set<RemoteDataPayload> payloads) {
         backgroundHandler.post(() -> payloadUpdates.onNext(payloads));
     }
 
+    /**
+     * Creates the payload metadata. The metadata only holds the URL, which includes the locale,
+     * so it stays the same across refreshes of the same listing. The Last-Modified header is
+     * stored on its own, since it changes whenever any type in the listing changes.
+     *
+     * @param uri The remote data URL.
+     * @return The metadata.
+     */
     @NonNull
-    private JsonMap createMetadata(@Nullable Uri uri, @Nullable String lastModified) {
+    private JsonMap createMetadata(@Nullable Uri uri) {
         return JsonMap.newBuilder()
                       .putOpt(URL_METADATA_KEY, uri == null ? null : uri.toString())
-                      .putOpt(LAST_MODIFIED_METADATA_KEY, lastModified)
                       .build();
     }
 }
@@ -111,6 +111,20 @@ public class RemoteDataApiClient {
      */
     @NonNull
     Response<Result> fetchRemoteDataPayloads(@Nullable String lastModified, @NonNull final Locale locale, @NonNull final PayloadParser payloadParser) throws RequestException {
+        return fetchRemoteDataPayloads(lastModified, null, locale, payloadParser);
+    }
+
+    /**
+     * Executes a conditional remote data request. The response is a 304 if the remote data has
+     * not changed since the last-modified timestamp or entity tag.
+     *
+     * @param lastModified An optional last-modified timestamp in ISO-8601 format.
+     * @param eTag An optional entity tag from a previous response.
+     * @param locale The current locale.
+     * @return The fetch payload response.
+     */
+    @NonNull
+    Response<Result> fetchRemoteDataPayloads(@Nullable String lastModified, @Nullable String eTag, @NonNull final Locale locale, @NonNull final PayloadParser payloadParser) throws RequestException {
         final Uri url = getRemoteDataUrl(locale);
 
         Request request = requestFactory.createRequest()
@@ -122,6 +136,10 @@ public class RemoteDataApiClient {
             request.setHeader("If-Modified-Since", lastModified);
         }
 
+        if (eTag != null) {
+            request.setHeader("If-None-Match", eTag);
+        }
+
         return request.execute((status, headers, responseBody) -> {
             if (status == 200) {
                 JsonList payloads = JsonValue.parseString(responseBody).optMap().opt("payloads").getList();
@@ -14,9 +14,16 @@ import com.urbanairship.json.JsonValue;
 import com.urbanairship.util.DataManager;
 import com.urbanairship.util.UAStringUtil;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import androidx.annotation.NonNull;
@@ -47,10 +54,24 @@ public class RemoteDataStore extends DataManager {
     // Metadata JSON-serialized data.
     private static final String COLUMN_NAME_METADATA = "metadata";
 
+    // SHA-256 of the type, timestamp and data
+    private static final String COLUMN_NAME_HASH = "hash";
+
     /**
      * The database version.
      */
-    private static final int DATABASE_VERSION = 2;
+    private static final int DATABASE_VERSION = 3;
+
+    /**
+     * Max number of arguments in a single query. SQLite's default limit is 999.
+     */
+    private static final int MAX_QUERY_ARGS = 500;
+
+    private final Object lock = new Object();
+
+    // Decoded payloads by type. Types without payloads map to an empty set.
+    private final Map<String, Set<RemoteDataPayload>> decodedPayloads = new HashMap<>();
+    private boolean isFullyDecoded;
 
     /**
      * RemoteDataStore constructor.
@@ -70,8 +91,9 @@ public class RemoteDataStore extends DataManager {
                 + COLUMN_NAME_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
                 + COLUMN_NAME_TYPE + " TEXT,"
                 + COLUMN_NAME_TIMESTAMP + " INTEGER,"
-                + COLUMN_NAME_DATA + " TEXT,"
-                + COLUMN_NAME_METADATA + " TEXT"
+                + COLUMN_NAME_DATA + " BLOB,"
+                + COLUMN_NAME_METADATA + " TEXT,"
+                + COLUMN_NAME_HASH + " TEXT"
                 + ");");
     }
 
@@ -80,6 +102,10 @@ public class RemoteDataStore extends DataManager {
         switch (oldVersion) {
             case 1:
                 db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_NAME_METADATA + " TEXT;");
+                db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_NAME_HASH + " TEXT;");
+                break;
+            case 2:
+                db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_NAME_HASH + " TEXT;");
                 break;
             default:
                 db.execSQL("DROP TABLE IF EXISTS " + TABLE_NAME);
@@ -95,50 +121,136 @@ public class RemoteDataStore extends DataManager {
     }
 
     /**
-     * Saves a list of RemoteDataPayloads.
+     * Replaces the stored payloads. Types whose payloads are unchanged are left as is.
      *
      * @param payloads The payloads.
      * @return A boolean indicating success.
      */
     public boolean savePayloads(@NonNull Set<RemoteDataPayload> payloads) {
-        if (payloads.isEmpty()) {
-            return true;
-        }
+        return savePayloads(payloads, null);
+    }
 
-        final SQLiteDatabase db = getWritableDatabase();
-        if (db == null) {
-            Logger.error("RemoteDataStore - Unable to save remote data payloads.");
-            return false;
+    /**
+     * Replaces the stored payloads. Each payload is hashed and only the types whose hashes
+     * changed are rewritten. Types that are no longer in the payloads are removed. The metadata
+     * is not part of the hash, so if only the metadata of a type changed its rows are updated in
+     * place.
+     *
+     * @param payloads The payloads.
+     * @param updatedTypes Optional collection that will receive the types that were added, changed
+     * or removed.
+     * @return A boolean indicating success.
+     */
+    public boolean savePayloads(@NonNull Set<RemoteDataPayload> payloads, @Nullable Collection<String> updatedTypes) {
+        Map<String, Set<RemoteDataPayload>> payloadsByType = new HashMap<>();
+        for (RemoteDataPayload payload : payloads) {
+            Set<RemoteDataPayload> typePayloads = payloadsByType.get(payload.getType());
+            if (typePayloads == null) {
+                typePayloads = new HashSet<>();
+                payloadsByType.put(payload.getType(), typePayloads);
+            }
+            typePayloads.add(payload);
         }
 
-        try {
-            db.beginTransaction();
-
-            for (RemoteDataPayload payload : payloads) {
-                ContentValues value = new ContentValues();
-                value.put(COLUMN_NAME_TYPE, payload.getType());
-                value.put(COLUMN_NAME_TIMESTAMP, payload.getTimestamp());
-                value.put(COLUMN_NAME_DATA, payload.getData().toString());
-                value.put(COLUMN_NAME_METADATA, payload.getMetadata().toString());
-                try {
-                    long id = db.insert(TABLE_NAME, null, value);
-                    if (id == -1) {
+        synchronized (lock) {
+            Map<String, Map<String, String>> storedMetadata = getStoredMetadata();
+            if (storedMetadata == null) {
+                Logger.error("RemoteDataStore - Unable to save remote data payloads.");
+                return false;
+            }
+
+            Set<String> types = new HashSet<>(storedMetadata.keySet());
+            types.addAll(payloadsByType.keySet());
+
+            List<String> changedTypes = new ArrayList<>();
+            List<String> metadataTypes = new ArrayList<>();
+            List<ContentValues> rows = new ArrayList<>();
+            List<ContentValues> metadataRows = new ArrayList<>();
+            for (String type : types) {
+                Set<RemoteDataPayload> typePayloads = payloadsByType.get(type);
+                Map<String, ContentValues> typeRows = new HashMap<>();
+                if (typePayloads != null) {
+                    for (RemoteDataPayload payload : typePayloads) {
+                        ContentValues row = createRow(payload);
+                        typeRows.put(row.getAsString(COLUMN_NAME_HASH), row);
+                    }
+                }
+
+                Map<String, String> stored = storedMetadata.get(type);
+                if (stored == null || !typeRows.keySet().equals(stored.keySet())) {
+                    changedTypes.add(type);
+                    rows.addAll(typeRows.values());
+                    continue;
+                }
+
+                boolean isMetadataChanged = false;
+                for (Map.Entry<String, ContentValues> entry : typeRows.entrySet()) {
+                    String metadata = entry.getValue().getAsString(COLUMN_NAME_METADATA);
+                    if (!metadata.equals(stored.get(entry.getKey()))) {
+                        metadataRows.add(entry.getValue());
+                        isMetadataChanged = true;
+                    }
+                }
+
+                if (isMetadataChanged) {
+                    metadataTypes.add(type);
+                }
+            }
+
+            if (changedTypes.isEmpty() && metadataTypes.isEmpty()) {
+                return true;
+            }
+
+            final SQLiteDatabase db = getWritableDatabase();
+            if (db == null) {
+                Logger.error("RemoteDataStore - Unable to save remote data payloads.");
+                return false;
+            }
+
+            try {
+                db.beginTransaction();
+
+                for (List<String> chunk : chunk(changedTypes)) {
+                    String where = COLUMN_NAME_TYPE + " IN ( " + UAStringUtil.repeat("?", chunk.size(), ", ") + " )";
+                    db.delete(TABLE_NAME, where, chunk.toArray(new String[0]));
+                }
+
+                for (ContentValues row : rows) {
+                    if (db.insert(TABLE_NAME, null, row) == -1) {
                         db.endTransaction();
+                        invalidate();
                         return false;
                     }
-                } catch (SQLException e) {
-                    Logger.error(e, "RemoteDataStore - Unable to save remote data payload.");
                 }
+
+                for (ContentValues row : metadataRows) {
+                    ContentValues metadata = new ContentValues();
+                    metadata.put(COLUMN_NAME_METADATA, row.getAsString(COLUMN_NAME_METADATA));
+                    String where = COLUMN_NAME_TYPE + " = ? AND " + COLUMN_NAME_HASH + " = ?";
+                    db.update(TABLE_NAME, metadata, where, new String[] { row.getAsString(COLUMN_NAME_TYPE), row.getAsString(COLUMN_NAME_HASH) });
+                }
+
+                db.setTransactionSuccessful();
+                db.endTransaction();
+            } catch (SQLException e) {
+                Logger.error(e, "RemoteDataStore - Unable to save remote data payloads.");
+                invalidate();
+                return false;
             }
 
-            db.setTransactionSuccessful();
-            db.endTransaction();
-        } catch (SQLException e) {
-            Logger.error(e, "RemoteDataStore - Unable to save remote data payloads.");
-            return false;
-        }
+            // The saved payloads are already decoded, so cache them directly
+            changedTypes.addAll(metadataTypes);
+            for (String type : changedTypes) {
+                Set<RemoteDataPayload> typePayloads = payloadsByType.get(type);
+                decodedPayloads.put(type, typePayloads == null ? Collections.<RemoteDataPayload>emptySet() : typePayloads);
+            }
 
-        return true;
+            if (updatedTypes != null) {
+                updatedTypes.addAll(changedTypes);
+            }
+
+            return true;
+        }
     }
 
     /**
@@ -152,36 +264,47 @@ public class RemoteDataStore extends DataManager {
     }
 
     /**
-     * Gets all payloads of the specified types.
+     * Gets all payloads of the specified types. Payloads are decoded the first time their type is
+     * requested and then served from memory until the type changes.
      *
      * @param types The specified types.
      * @return A List of RemoteDataPayload.
      */
     @NonNull
     Set<RemoteDataPayload> getPayloads(@Nullable Collection<String> types) {
-        Cursor cursor = null;
-
-        try {
+        synchronized (lock) {
             if (types == null) {
-                cursor = this.query(TABLE_NAME, null,
-                        null, null, null);
-            } else {
-                String where = COLUMN_NAME_TYPE + " IN ( " + UAStringUtil.repeat("?", types.size(), ", ") + " )";
-
-                cursor = this.query(TABLE_NAME, null,
-                        where, types.toArray(new String[0]), null);
-            }
+                if (!isFullyDecoded) {
+                    decodedPayloads.clear();
+                    if (!decode(null)) {
+                        return Collections.emptySet();
+                    }
+                    isFullyDecoded = true;
+                }
+                types = decodedPayloads.keySet();
+            } else if (!isFullyDecoded) {
+                List<String> missing = new ArrayList<>();
+                for (String type : new HashSet<>(types)) {
+                    if (!decodedPayloads.containsKey(type)) {
+                        missing.add(type);
+                    }
+                }
 
-            if (cursor == null) {
-                return Collections.emptySet();
+                for (List<String> chunk : chunk(missing)) {
+                    if (!decode(chunk)) {
+                        return Collections.emptySet();
+                    }
+                }
             }
 
-            return generatePayloadEntries(cursor);
-
-        } finally {
-            if (cursor != null) {
-                cursor.close();
+            Set<RemoteDataPayload> payloads = new HashSet<>();
+            for (String type : types) {
+                Set<RemoteDataPayload> typePayloads = decodedPayloads.get(type);
+                if (typePayloads != null) {
+                    payloads.addAll(typePayloads);
+                }
             }
+            return payloads;
         }
     }
 
@@ -191,42 +314,177 @@ public class RemoteDataStore extends DataManager {
      * @return A boolean indicating success.
      */
     boolean deletePayloads() {
-        boolean success = delete(TABLE_NAME, null, null) >= 0;
-        if (!success) {
-            Logger.error("RemoteDataStore - failed to delete payloads");
+        synchronized (lock) {
+            boolean success = delete(TABLE_NAME, null, null) >= 0;
+            invalidate();
+            if (success) {
+                // Nothing left to decode
+                isFullyDecoded = true;
+            } else {
+                Logger.error("RemoteDataStore - failed to delete payloads");
+            }
+            return success;
         }
-        return success;
     }
 
     /**
-     * Helper method to generate payload entries from a a cursor.
+     * Clears the decoded payloads. Must be called with the lock held.
+     */
+    private void invalidate() {
+        decodedPayloads.clear();
+        isFullyDecoded = false;
+    }
+
+    /**
+     * Decodes the stored payloads into the cache. Must be called with the lock held.
      *
-     * @param cursor The cursor.
-     * @return A list of RemoteDataPayloadEntry objects.
+     * @param types The types to decode, or {@code null} for all types.
+     * @return {@code true} if the payloads were read, otherwise {@code false}.
      */
-    @NonNull
-    private Set<RemoteDataPayload> generatePayloadEntries(@NonNull Cursor cursor) {
-        cursor.moveToFirst();
+    private boolean decode(@Nullable List<String> types) {
+        Cursor cursor;
+        if (types == null) {
+            cursor = this.query(TABLE_NAME, null, null, null, null);
+        } else {
+            String where = COLUMN_NAME_TYPE + " IN ( " + UAStringUtil.repeat("?", types.size(), ", ") + " )";
+            cursor = this.query(TABLE_NAME, null, where, types.toArray(new String[0]), null);
+        }
 
-        Set<RemoteDataPayload> entries = new HashSet<>();
-        while (!cursor.isAfterLast()) {
+        if (cursor == null) {
+            return false;
+        }
 
-            try {
-                RemoteDataPayload payload = RemoteDataPayload.newBuilder()
-                                                             .setType(cursor.getString(cursor.getColumnIndex(COLUMN_NAME_TYPE)))
-                                                             .setTimeStamp(cursor.getLong(cursor.getColumnIndex(COLUMN_NAME_TIMESTAMP)))
-                                                             .setMetadata(JsonValue.parseString(cursor.getString(cursor.getColumnIndex(COLUMN_NAME_METADATA))).optMap())
-                                                             .setData(JsonValue.parseString(cursor.getString(cursor.getColumnIndex(COLUMN_NAME_DATA))).optMap())
-                                                             .build();
-                entries.add(payload);
-            } catch (IllegalArgumentException | JsonException e) {
-                Logger.error(e, "RemoteDataStore - failed to retrieve payload");
+        try {
+            if (types != null) {
+                // Remember types without payloads so they are not queried again
+                for (String type : types) {
+                    decodedPayloads.put(type, new HashSet<RemoteDataPayload>());
+                }
             }
 
-            cursor.moveToNext();
+            int typeIndex = cursor.getColumnIndex(COLUMN_NAME_TYPE);
+            int timestampIndex = cursor.getColumnIndex(COLUMN_NAME_TIMESTAMP);
+            int metadataIndex = cursor.getColumnIndex(COLUMN_NAME_METADATA);
+            int dataIndex = cursor.getColumnIndex(COLUMN_NAME_DATA);
+
+            cursor.moveToFirst();
+            while (!cursor.isAfterLast()) {
+                String type = cursor.getString(typeIndex);
+                try {
+                    RemoteDataPayload payload = RemoteDataPayload.newBuilder()
+                                                                 .setType(type)
+                                                                 .setTimeStamp(cursor.getLong(timestampIndex))
+                                                                 .setMetadata(JsonValue.parseString(cursor.getString(metadataIndex)).optMap())
+                                                                 .setData(JsonValue.parseString(readData(cursor, dataIndex)).optMap())
+                                                                 .build();
+
+                    Set<RemoteDataPayload> typePayloads = decodedPayloads.get(type);
+                    if (typePayloads == null) {
+                        typePayloads = new HashSet<>();
+                        decodedPayloads.put(type, typePayloads);
+                    }
+                    typePayloads.add(payload);
+                } catch (IllegalArgumentException | JsonException e) {
+                    Logger.error(e, "RemoteDataStore - failed to retrieve payload");
+                }
+
+                cursor.moveToNext();
+            }
+        } finally {
+            cursor.close();
         }
 
-        return entries;
+        return true;
+    }
+
+    /**
+     * Reads the stored payload hashes and metadata by type. Must be called with the lock held.
+     *
+     * @return The metadata by hash by type, or {@code null} if the database is not available.
+     */
+    @Nullable
+    private Map<String, Map<String, String>> getStoredMetadata() {
+        Cursor cursor = this.query(TABLE_NAME, new String[] { COLUMN_NAME_TYPE, COLUMN_NAME_HASH, COLUMN_NAME_METADATA }, null, null, null);
+        if (cursor == null) {
+            return null;
+        }
+
+        Map<String, Map<String, String>> metadata = new HashMap<>();
+        try {
+            cursor.moveToFirst();
+            while (!cursor.isAfterLast()) {
+                String type = cursor.getString(0);
+                Map<String, String> typeMetadata = metadata.get(type);
+                if (typeMetadata == null) {
+                    typeMetadata = new HashMap<>();
+                    metadata.put(type, typeMetadata);
+                }
+
+                // Rows stored before hashes were added never match, so they are rewritten
+                String hash = cursor.getString(1);
+                typeMetadata.put(hash == null ? "" : hash, cursor.getString(2));
+                cursor.moveToNext();
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return metadata;
+    }
+
+    @NonNull
+    private static ContentValues createRow(@NonNull RemoteDataPayload payload) {
+        String metadata = payload.getMetadata().toString();
+        byte[] data = payload.getData().toString().getBytes(StandardCharsets.UTF_8);
+
+        // The metadata is compared on its own so a metadata change does not rewrite the data
+        MessageDigest digest = sha256();
+        digest.update(payload.getType().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(String.valueOf(payload.getTimestamp()).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(data);
+
+        ContentValues value = new ContentValues();
+        value.put(COLUMN_NAME_TYPE, payload.getType());
+        value.put(COLUMN_NAME_TIMESTAMP, payload.getTimestamp());
+        value.put(COLUMN_NAME_DATA, data);
+        value.put(COLUMN_NAME_METADATA, metadata);
+        value.put(COLUMN_NAME_HASH, UAStringUtil.byteToHex(digest.digest()));
+        return value;
+    }
+
+    @NonNull
+    private static String readData(@NonNull Cursor cursor, int index) {
+        // Rows stored before the data was kept as bytes are still text
+        if (cursor.getType(index) == Cursor.FIELD_TYPE_STRING) {
+            return cursor.getString(index);
+        }
+
+        byte[] data = cursor.getBlob(index);
+        return data == null ? "" : new String(data, StandardCharsets.UTF_8);
+    }
+
+    @NonNull
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Android platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Splits types into chunks that fit in the SQLite host parameter limit.
+     */
+    @NonNull
+    private static List<List<String>> chunk(@NonNull List<String> types) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < types.size(); i += MAX_QUERY_ARGS) {
+            chunks.add(types.subList(i, Math.min(types.size(), i + MAX_QUERY_ARGS)));
+        }
+        return chunks;
     }
 
 }
@@ -0,0 +1,78 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Executor that executes {@link Runnable} on another executor, running at most a fixed number of
+ * them at a time. Runnables start in the order they are submitted.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class BoundedExecutor implements Executor {
+
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final ArrayDeque<Runnable> runnables = new ArrayDeque<>();
+    private int executingCount = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param executor The executor that performs the runnables.
+     * @param maxConcurrency The max number of runnables to run at a time.
+     */
+    public BoundedExecutor(@NonNull Executor executor, int maxConcurrency) {
+        this.executor = executor;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    @Override
+    public void execute(@Nullable final Runnable runnable) {
+        if (runnable == null) {
+            return;
+        }
+
+        Runnable wrapped = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } finally {
+                    next();
+                }
+            }
+        };
+
+        synchronized (runnables) {
+            if (executingCount >= maxConcurrency) {
+                runnables.offer(wrapped);
+                return;
+            }
+            executingCount++;
+        }
+
+        executor.execute(wrapped);
+    }
+
+    private void next() {
+        Runnable next;
+        synchronized (runnables) {
+            next = runnables.pollFirst();
+            if (next == null) {
+                executingCount--;
+                return;
+            }
+        }
+
+        executor.execute(next);
+    }
+
+}
@@ -68,7 +68,13 @@ public abstract class FileUtils {
          */
         public final boolean isSuccess;
 
-        DownloadResult(boolean isSuccess, int statusCode) {
+        /**
+         * Default constructor.
+         *
+         * @param isSuccess If file downloaded successfully or not.
+         * @param statusCode The status code.
+         */
+        public DownloadResult(boolean isSuccess, int statusCode) {
             this.isSuccess = isSuccess;
             this.statusCode = statusCode;
         }
@@ -7,6 +7,7 @@ import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import androidx.annotation.NonNull;
@@ -17,6 +18,13 @@ import androidx.arch.core.util.Function;
 /**
  * JsonDataStoreQueue is a thread safe storage queue for json serializable items
  * backed by the preference data store.
+ * <p>
+ * Each entry is stored in its own preference along with a head and tail index, so adding and
+ * removing entries only writes the entries that changed instead of the whole queue. Once the
+ * head has moved past the number of remaining entries, the entries are moved back to index 0 so
+ * a queue that never fully drains reuses its entry keys. The head entry is kept decoded in
+ * memory. Queues stored as a single JSON list by older SDK versions are migrated on first
+ * access.
  *
  * @param <T> The value to be stored.
  * @hide
@@ -24,11 +32,29 @@ import androidx.arch.core.util.Function;
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class JsonDataStoreQueue<T> {
 
+    private static final String HEAD_KEY_SUFFIX = ".HEAD";
+    private static final String TAIL_KEY_SUFFIX = ".TAIL";
+    private static final String ENTRY_KEY_SUFFIX = ".ENTRY.";
+
+    /**
+     * Min head index before the entries are moved back to index 0.
+     */
+    private static final long COMPACT_THRESHOLD = 100;
+
     private final PreferenceDataStore dataStore;
     private final String storeKey;
+    private final String headKey;
+    private final String tailKey;
     private final Function<JsonValue, T> deserializer;
     private final Function<T, ? extends JsonSerializable> serializer;
 
+    private boolean isLoaded;
+    private long head;
+    private long tail;
+
+    private T cachedHead;
+    private boolean isHeadCached;
+
     /**
      * Default constructor.
      *
@@ -44,6 +70,8 @@ public class JsonDataStoreQueue<T> {
 
         this.dataStore = dataStore;
         this.storeKey = storeKey;
+        this.headKey = storeKey + HEAD_KEY_SUFFIX;
+        this.tailKey = storeKey + TAIL_KEY_SUFFIX;
         this.serializer = serializer;
         this.deserializer = deserializer;
     }
@@ -53,7 +81,10 @@ public class JsonDataStoreQueue<T> {
      */
     public void removeAll() {
         synchronized (storeKey) {
-            dataStore.remove(storeKey);
+            load();
+            PreferenceDataStore.Editor editor = dataStore.edit();
+            clear(editor);
+            editor.apply();
         }
     }
 
@@ -68,12 +99,10 @@ public class JsonDataStoreQueue<T> {
         }
 
         synchronized (storeKey) {
-            List<JsonValue> jsonValues = dataStore.getJsonValue(storeKey).optList().getList();
-            for (T value : values) {
-                jsonValues.add(serializer.apply(value).toJsonValue());
-            }
-            dataStore.put(storeKey, JsonValue.wrapOpt(jsonValues));
-
+            load();
+            PreferenceDataStore.Editor editor = dataStore.edit();
+            append(editor, values);
+            editor.apply();
         }
     }
 
@@ -83,10 +112,28 @@ public class JsonDataStoreQueue<T> {
      * @param value The value.
      */
     public void add(@NonNull T value) {
+        addAll(Collections.singletonList(value));
+    }
+
+    /**
+     * Replaces a value in the queue.
+     *
+     * @param position The position from the head of the queue.
+     * @param value The value.
+     * @throws IndexOutOfBoundsException If the position is not in the queue.
+     */
+    public void set(int position, @NonNull T value) {
         synchronized (storeKey) {
-            List<JsonValue> jsonValues = dataStore.getJsonValue(storeKey).optList().getList();
-            jsonValues.add(serializer.apply(value).toJsonValue());
-            dataStore.put(storeKey, JsonValue.wrapOpt(jsonValues));
+            load();
+            if (position < 0 || position >= size()) {
+                throw new IndexOutOfBoundsException("Position: " + position + ", size: " + size());
+            }
+
+            dataStore.put(entryKey(head + position), serializer.apply(value).toJsonValue());
+            if (position == 0) {
+                cachedHead = value;
+                isHeadCached = true;
+            }
         }
     }
 
@@ -98,19 +145,44 @@ public class JsonDataStoreQueue<T> {
     @Nullable
     public T pop() {
         synchronized (storeKey) {
-            List<JsonValue> jsonValues = dataStore.getJsonValue(storeKey).optList().getList();
-            if (jsonValues.isEmpty()) {
-                return null;
+            List<T> values = pop(1);
+            return values.isEmpty() ? null : values.get(0);
+        }
+    }
+
+    /**
+     * Pops up to {@code count} values off the queue.
+     *
+     * @param count The max number of values to pop.
+     * @return The popped values in queue order.
+     */
+    @NonNull
+    public List<T> pop(int count) {
+        synchronized (storeKey) {
+            List<T> values = peek(count);
+            if (values.isEmpty()) {
+                return values;
             }
 
-            JsonValue value = jsonValues.remove(0);
-            if (jsonValues.isEmpty()) {
-                dataStore.remove(storeKey);
+            PreferenceDataStore.Editor editor = dataStore.edit();
+            if (values.size() == size()) {
+                clear(editor);
             } else {
-                dataStore.put(storeKey, JsonValue.wrapOpt(jsonValues));
+                for (int i = 0; i < values.size(); i++) {
+                    editor.remove(entryKey(head++));
+                }
+                isHeadCached = false;
+                cachedHead = null;
+
+                if (head >= COMPACT_THRESHOLD && head >= size()) {
+                    compact(editor);
+                } else {
+                    editor.put(headKey, head);
+                }
             }
+            editor.apply();
 
-            return deserializer.apply(value);
+            return values;
         }
     }
 
@@ -121,13 +193,38 @@ public class JsonDataStoreQueue<T> {
      */
     @Nullable
     public T peek() {
-        List<JsonValue> jsonValues = dataStore.getJsonValue(storeKey).optList().getList();
-        if (jsonValues.isEmpty()) {
-            return null;
+        synchronized (storeKey) {
+            load();
+            if (head == tail) {
+                return null;
+            }
+
+            if (!isHeadCached) {
+                cachedHead = read(head);
+                isHeadCached = true;
+            }
+
+            return cachedHead;
         }
+    }
 
-        JsonValue value = jsonValues.get(0);
-        return deserializer.apply(value);
+    /**
+     * Peeks up to {@code count} values without removing them.
+     *
+     * @param count The max number of values to peek.
+     * @return The values in queue order.
+     */
+    @NonNull
+    public List<T> peek(int count) {
+        synchronized (storeKey) {
+            load();
+            int size = (int) Math.min(count, size());
+            List<T> values = new ArrayList<>(Math.max(size, 0));
+            for (int i = 0; i < size; i++) {
+                values.add(i == 0 ? peek() : read(head + i));
+            }
+            return values;
+        }
     }
 
     /**
@@ -138,11 +235,8 @@ public class JsonDataStoreQueue<T> {
     @NonNull
     public List<T> getList() {
         synchronized (storeKey) {
-            List<T> values = new ArrayList<>();
-            for (JsonValue value : dataStore.getJsonValue(storeKey).optList()) {
-                values.add(deserializer.apply(value));
-            }
-            return values;
+            load();
+            return peek((int) Math.min(Integer.MAX_VALUE, size()));
         }
     }
 
@@ -153,13 +247,99 @@ public class JsonDataStoreQueue<T> {
      */
     public void apply(Function<List<T>, List<T>> listOperation) {
         synchronized (storeKey) {
-            List<T> values = getList();
-            values = listOperation.apply(values);
-            if (values.isEmpty()) {
-                dataStore.remove(storeKey);
-            } else {
-                dataStore.put(storeKey, JsonValue.wrapOpt(values));
+            List<T> values = listOperation.apply(getList());
+            PreferenceDataStore.Editor editor = dataStore.edit();
+            clear(editor);
+            append(editor, values);
+            editor.apply();
+        }
+    }
+
+    private long size() {
+        return tail - head;
+    }
+
+    @NonNull
+    private String entryKey(long index) {
+        return storeKey + ENTRY_KEY_SUFFIX + index;
+    }
+
+    private T read(long index) {
+        return deserializer.apply(dataStore.getJsonValue(entryKey(index)));
+    }
+
+    private void append(@NonNull PreferenceDataStore.Editor editor, @NonNull List<T> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        for (T value : values) {
+            editor.put(entryKey(tail++), serializer.apply(value).toJsonValue());
+        }
+        editor.put(tailKey, tail);
+    }
+
+    /**
+     * Removes all entries. The indexes restart at 0 so entry keys are reused instead of growing
+     * for the life of the queue.
+     */
+    private void clear(@NonNull PreferenceDataStore.Editor editor) {
+        for (long i = head; i < tail; i++) {
+            editor.remove(entryKey(i));
+        }
+        editor.remove(headKey);
+        editor.remove(tailKey);
+
+        head = 0;
+        tail = 0;
+        isHeadCached = false;
+        cachedHead = null;
+    }
+
+    /**
+     * Moves the entries back to index 0. Only called once the head is at least the size of the
+     * queue, so the old and new keys never overlap and the cost is spread over the pops that
+     * moved the head.
+     */
+    private void compact(@NonNull PreferenceDataStore.Editor editor) {
+        long size = size();
+        for (long i = 0; i < size; i++) {
+            String key = entryKey(head + i);
+            editor.put(entryKey(i), dataStore.getString(key, null));
+            editor.remove(key);
+        }
+
+        head = 0;
+        tail = size;
+        editor.remove(headKey);
+        editor.put(tailKey, tail);
+    }
+
+    /**
+     * Loads the head and tail indexes, migrating a queue stored as a single list if needed.
+     */
+    private void load() {
+        if (isLoaded) {
+            return;
+        }
+
+        isLoaded = true;
+        head = dataStore.getLong(headKey, 0);
+        tail = Math.max(head, dataStore.getLong(tailKey, 0));
+
+        if (dataStore.isSet(storeKey)) {
+            PreferenceDataStore.Editor editor = dataStore.edit();
+            long index = tail;
+            for (JsonValue value : dataStore.getJsonValue(storeKey).optList()) {
+                editor.put(entryKey(index++), value);
+            }
+
+            if (index != tail) {
+                tail = index;
+                editor.put(tailKey, tail);
             }
+            editor.remove(storeKey);
+            editor.apply();
         }
     }
 
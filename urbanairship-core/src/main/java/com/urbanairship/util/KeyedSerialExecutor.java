@@ -0,0 +1,99 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Executes {@link Runnable} on another executor, serially per key. Runnables with different keys
+ * run concurrently, as far as the other executor allows.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class KeyedSerialExecutor {
+
+    private final Executor executor;
+
+    // Runnables waiting on a running runnable with the same key
+    private final Map<String, ArrayDeque<Runnable>> queues = new HashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param executor The executor that performs the runnables.
+     */
+    public KeyedSerialExecutor(@NonNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Executes a runnable after any previously submitted runnables with the same key.
+     *
+     * @param key The key.
+     * @param runnable The runnable.
+     */
+    public void execute(@NonNull String key, @NonNull Runnable runnable) {
+        synchronized (queues) {
+            ArrayDeque<Runnable> queue = queues.get(key);
+            if (queue != null) {
+                queue.offer(runnable);
+                return;
+            }
+            queues.put(key, new ArrayDeque<Runnable>());
+        }
+
+        executor.execute(wrap(key, runnable));
+    }
+
+    /**
+     * Gets an executor that executes runnables with the given key.
+     *
+     * @param key The key.
+     * @return An executor.
+     */
+    @NonNull
+    public Executor forKey(@NonNull final String key) {
+        return new Executor() {
+            @Override
+            public void execute(@NonNull Runnable runnable) {
+                KeyedSerialExecutor.this.execute(key, runnable);
+            }
+        };
+    }
+
+    @NonNull
+    private Runnable wrap(@NonNull final String key, @NonNull final Runnable runnable) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } finally {
+                    next(key);
+                }
+            }
+        };
+    }
+
+    private void next(@NonNull String key) {
+        Runnable next;
+        synchronized (queues) {
+            ArrayDeque<Runnable> queue = queues.get(key);
+            next = queue == null ? null : queue.poll();
+            if (next == null) {
+                queues.remove(key);
+                return;
+            }
+        }
+
+        executor.execute(wrap(key, next));
+    }
+
+}
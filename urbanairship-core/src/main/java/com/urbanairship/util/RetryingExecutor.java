@@ -40,6 +40,7 @@ public class RetryingExecutor implements Executor {
 
     private final Handler scheduler;
     private final Executor executor;
+    private final KeyedSerialExecutor keyedExecutor;
 
     private boolean isPaused = false;
     private final List<Runnable> pendingRunnables = new ArrayList<>();
@@ -53,12 +54,26 @@ public class RetryingExecutor implements Executor {
     public RetryingExecutor(@NonNull Handler scheduler, @NonNull Executor executor) {
         this.scheduler = scheduler;
         this.executor = executor;
+        this.keyedExecutor = new KeyedSerialExecutor(executor);
     }
 
     public static RetryingExecutor newSerialExecutor(Looper looper) {
         return new RetryingExecutor(new Handler(looper), AirshipExecutors.newSerialExecutor());
     }
 
+    /**
+     * Creates a retrying executor that runs at most {@code maxConcurrency} operations at a time
+     * on the shared thread pool. Use {@link #execute(String, Operation...)} to keep operations
+     * that share a key in order.
+     *
+     * @param looper The looper used to schedule retries.
+     * @param maxConcurrency The max number of operations to run at a time.
+     * @return A retrying executor.
+     */
+    public static RetryingExecutor newBoundedExecutor(Looper looper, int maxConcurrency) {
+        return new RetryingExecutor(new Handler(looper), new BoundedExecutor(AirshipExecutors.threadPoolExecutor(), maxConcurrency));
+    }
+
     public static Result retryResult() {
         return new Result(Status.RETRY, -1);
     }
@@ -103,7 +118,34 @@ public class RetryingExecutor implements Executor {
      * @param operations The operations to execute.
      */
     public void execute(@NonNull Operation... operations) {
-        execute(new ChainedOperations(Arrays.asList(operations)));
+        execute(new ChainedOperations(executor, Arrays.asList(operations)));
+    }
+
+    /**
+     * Executes a runnable after any runnables or operations previously submitted with the same
+     * key. The runnable will not be retried.
+     *
+     * @param key The key.
+     * @param runnable The runnable
+     */
+    public void execute(@NonNull String key, @NonNull final Runnable runnable) {
+        execute(keyedExecutor.forKey(key), () -> {
+            runnable.run();
+            return finishedResult();
+        }, INITIAL_BACKOFF_MILLIS);
+    }
+
+    /**
+     * Executes a list of operations in order, after any runnables or operations previously
+     * submitted with the same key. Operations with different keys may run concurrently. Each
+     * operation keeps its own retry backoff.
+     *
+     * @param key The key.
+     * @param operations The operations to execute.
+     */
+    public void execute(@NonNull String key, @NonNull Operation... operations) {
+        Executor keyExecutor = keyedExecutor.forKey(key);
+        execute(keyExecutor, new ChainedOperations(keyExecutor, Arrays.asList(operations)), INITIAL_BACKOFF_MILLIS);
     }
 
     /**
@@ -113,12 +155,17 @@ public class RetryingExecutor implements Executor {
      * @param nextBackOff The next backOff if retrying the operation.
      */
     public void execute(final @NonNull Operation operation, final long nextBackOff) {
+        execute(executor, operation, nextBackOff);
+    }
+
+    private void execute(final @NonNull Executor targetExecutor, final @NonNull Operation operation, final long nextBackOff) {
         final Runnable executeRunnable = new Runnable() {
             @Override
             public void run() {
                 synchronized (pendingRunnables) {
                     if (isPaused) {
-                        pendingRunnables.add(this);
+                        final Runnable runnable = this;
+                        pendingRunnables.add(() -> targetExecutor.execute(runnable));
                         return;
                     }
                 }
@@ -128,13 +175,13 @@ public class RetryingExecutor implements Executor {
                 if (result.status == Status.RETRY) {
                     long backOff = result.nextBackOff >= 0 ? result.nextBackOff : nextBackOff;
                     scheduler.postAtTime(() -> {
-                        execute(operation, calculateBackoff(backOff));
+                        execute(targetExecutor, operation, calculateBackoff(backOff));
                     }, executor, SystemClock.uptimeMillis() + backOff);
                 }
             }
         };
 
-        executor.execute(executeRunnable);
+        targetExecutor.execute(executeRunnable);
     }
 
     private long calculateBackoff(long lastBackOff) {
@@ -162,8 +209,9 @@ public class RetryingExecutor implements Executor {
                 List<Runnable> copy = new ArrayList<>(this.pendingRunnables);
                 this.pendingRunnables.clear();
 
+                // Resubmits each runnable to the executor it was submitted to
                 for (Runnable runnable : copy) {
-                    executor.execute(runnable);
+                    runnable.run();
                 }
             }
         }
@@ -189,9 +237,11 @@ public class RetryingExecutor implements Executor {
      */
     private class ChainedOperations implements Operation {
 
+        private final Executor targetExecutor;
         private final List<? extends Operation> operations;
 
-        ChainedOperations(@NonNull List<? extends Operation> operations) {
+        ChainedOperations(@NonNull Executor targetExecutor, @NonNull List<? extends Operation> operations) {
+            this.targetExecutor = targetExecutor;
             this.operations = new ArrayList<>(operations);
         }
 
@@ -206,7 +256,7 @@ public class RetryingExecutor implements Executor {
 
             if (result.status == Status.FINISHED) {
                 operations.remove(0);
-                execute(this);
+                execute(targetExecutor, this, INITIAL_BACKOFF_MILLIS);
             }
 
             return result;
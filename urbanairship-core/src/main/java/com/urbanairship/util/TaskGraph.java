@@ -0,0 +1,208 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Runs a set of named tasks on an executor. A task starts once every task it depends on has
+ * finished, so tasks that do not depend on each other run in parallel.
+ * <p>
+ * If a task throws, tasks that have not started yet are skipped and the exception is rethrown
+ * from {@link #run()}.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class TaskGraph {
+
+    private final Executor executor;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private volatile Throwable error;
+
+    /**
+     * Default constructor.
+     *
+     * @param executor The executor that runs the tasks.
+     */
+    public TaskGraph(@NonNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a task.
+     *
+     * @param name The task name.
+     * @param task The task.
+     * @param dependencies The names of the tasks that need to finish before this task runs.
+     * @throws IllegalArgumentException If a task with the same name was already added.
+     */
+    public void add(@NonNull String name, @NonNull Runnable task, @NonNull String... dependencies) {
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate task: " + name);
+        }
+        nodes.put(name, new Node(name, task, dependencies));
+    }
+
+    /**
+     * Runs the tasks and blocks until they are finished. A graph can only be run once.
+     *
+     * @throws IllegalStateException If a dependency is missing or the dependencies form a cycle.
+     * @throws RuntimeException If a task throws.
+     */
+    public void run() {
+        List<Node> ready = link();
+
+        final CountDownLatch latch = new CountDownLatch(nodes.size());
+        for (Node node : ready) {
+            submit(node, latch);
+        }
+
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+
+        if (isInterrupted) {
+            // Restore the interrupted status
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable error = this.error;
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    /**
+     * Gets the time each task took to run, in the order the tasks were added. Tasks that did not
+     * run are omitted.
+     *
+     * @return The task durations in milliseconds.
+     */
+    @NonNull
+    public Map<String, Long> getDurations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (Node node : nodes.values()) {
+            if (node.durationNanos >= 0) {
+                durations.put(node.name, TimeUnit.NANOSECONDS.toMillis(node.durationNanos));
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Resolves the dependencies of every task.
+     *
+     * @return The tasks without dependencies.
+     */
+    @NonNull
+    private List<Node> link() {
+        List<Node> ready = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            for (String dependency : node.dependencies) {
+                Node parent = nodes.get(dependency);
+                if (parent == null) {
+                    throw new IllegalStateException("Task " + node.name + " depends on missing task " + dependency);
+                }
+                parent.dependents.add(node);
+            }
+
+            node.pending.set(node.dependencies.length);
+            if (node.dependencies.length == 0) {
+                ready.add(node);
+            }
+        }
+
+        // Make sure every task is reachable before running anything
+        int visited = 0;
+        ArrayDeque<Node> queue = new ArrayDeque<>(ready);
+        Map<Node, Integer> remaining = new LinkedHashMap<>();
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            visited++;
+            for (Node dependent : node.dependents) {
+                Integer count = remaining.get(dependent);
+                count = (count == null ? dependent.dependencies.length : count) - 1;
+                remaining.put(dependent, count);
+                if (count == 0) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        if (visited != nodes.size()) {
+            throw new IllegalStateException("Task dependencies contain a cycle.");
+        }
+
+        return ready;
+    }
+
+    private void submit(@NonNull final Node node, @NonNull final CountDownLatch latch) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (error == null) {
+                    long start = System.nanoTime();
+                    try {
+                        node.task.run();
+                        node.durationNanos = System.nanoTime() - start;
+                    } catch (Throwable e) {
+                        synchronized (TaskGraph.this) {
+                            if (error == null) {
+                                error = e;
+                            }
+                        }
+                    }
+                }
+
+                // Dependents still count down once skipped so run() returns
+                for (Node dependent : node.dependents) {
+                    if (dependent.pending.decrementAndGet() == 0) {
+                        submit(dependent, latch);
+                    }
+                }
+
+                latch.countDown();
+            }
+        });
+    }
+
+    private static class Node {
+
+        final String name;
+        final Runnable task;
+        final String[] dependencies;
+        final List<Node> dependents = new ArrayList<>();
+        final AtomicInteger pending = new AtomicInteger();
+        volatile long durationNanos = -1;
+
+        Node(@NonNull String name, @NonNull Runnable task, @NonNull String[] dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+
+    }
+
+}
@@ -12,7 +12,10 @@ import org.junit.Before;
 import org.junit.Test;
 import org.robolectric.RuntimeEnvironment;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import androidx.annotation.NonNull;
@@ -20,6 +23,7 @@ import androidx.annotation.NonNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class PreferenceDataStoreTest extends BaseTestCase {
@@ -148,4 +152,98 @@ public class PreferenceDataStoreTest extends BaseTestCase {
         assertTrue(testPrefs.getJsonValue("value").isNull());
     }
 
+    /**
+     * Test decoded values are cached and invalidated when the value changes.
+     */
+    @Test
+    public void testDecodedValuesInvalidated() {
+        testPrefs.put("value", "not a number");
+        assertEquals(-1, testPrefs.getLong("value", -1));
+        assertEquals(-1, testPrefs.getInt("value", -1));
+        assertTrue(testPrefs.getJsonValue("value").isNull());
+
+        testPrefs.put("value", 100);
+        assertEquals(100, testPrefs.getLong("value", -1));
+        assertEquals(100, testPrefs.getInt("value", -1));
+
+        JsonValue json = testPrefs.getJsonValue("value");
+        assertEquals(JsonValue.wrap(100), json);
+        assertSame(json, testPrefs.getJsonValue("value"));
+
+        testPrefs.edit().put("value", 200L).apply();
+        assertEquals(200, testPrefs.getLong("value", -1));
+        assertEquals(JsonValue.wrap(200), testPrefs.getJsonValue("value"));
+
+        testPrefs.remove("value");
+        assertEquals(-1, testPrefs.getLong("value", -1));
+        assertTrue(testPrefs.getJsonValue("value").isNull());
+    }
+
+    /**
+     * Test applying a batch of changes with the editor.
+     */
+    @Test
+    public void testEditor() {
+        final List<String> changes = new ArrayList<>();
+        testPrefs.addListener(new PreferenceDataStore.PreferenceChangeListener() {
+            @Override
+            public void onPreferenceChange(@NonNull String key) {
+                changes.add(key);
+            }
+        });
+
+        testPrefs.put("remove", "value");
+        changes.clear();
+
+        testPrefs.edit()
+                 .put("string", "oh hi")
+                 .put("long", 123L)
+                 .put("int", 12)
+                 .put("boolean", true)
+                 .put("json", JsonValue.wrap("json"))
+                 .remove("remove")
+                 .apply();
+
+        assertEquals("oh hi", testPrefs.getString("string", null));
+        assertEquals(123L, testPrefs.getLong("long", -1));
+        assertEquals(12, testPrefs.getInt("int", -1));
+        assertTrue(testPrefs.getBoolean("boolean", false));
+        assertEquals(JsonValue.wrap("json"), testPrefs.getJsonValue("json"));
+        assertFalse(testPrefs.isSet("remove"));
+        assertEquals(Arrays.asList("string", "long", "int", "boolean", "json", "remove"), changes);
+    }
+
+    /**
+     * Test pending writes are coalesced and only the last value is written.
+     */
+    @Test
+    public void testWriteBehind() {
+        PreferenceDataDatabase db = PreferenceDataDatabase.createInMemoryDatabase(context);
+        PreferenceDataStore dataStore = new PreferenceDataStore(db);
+
+        dataStore.put("first", "one");
+        dataStore.put("first", "two");
+        dataStore.put("second", 2);
+        dataStore.put("removed", "value");
+        dataStore.remove("removed");
+
+        dataStore.flushPendingWrites();
+
+        Map<String, String> stored = new HashMap<>();
+        for (PreferenceData data : db.getDao().getPreferences()) {
+            stored.put(data.getKey(), data.getValue());
+        }
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("first", "two");
+        expected.put("second", "2");
+        assertEquals(expected, stored);
+
+        dataStore.remove("first");
+        dataStore.flushPendingWrites();
+        assertEquals(1, db.getDao().getPreferences().size());
+
+        dataStore.tearDown();
+    }
+
 }
@@ -4,6 +4,7 @@ import com.urbanairship.BaseTestCase;
 import com.urbanairship.analytics.Event;
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
 
 import org.junit.After;
 import org.junit.Before;
@@ -11,6 +12,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import androidx.annotation.NonNull;
@@ -82,6 +84,61 @@ public class EventDaoTest extends BaseTestCase {
         assertEquals(0, eventDao.count());
     }
 
+    @Test
+    public void testGetBatchWithinSize() throws JsonException {
+        EventEntity entity1 = EventEntity.create(new TestEvent("event-1"), "session-1");
+        EventEntity entity2 = EventEntity.create(new TestEvent("event-2"), "session-1");
+        EventEntity entity3 = EventEntity.create(new TestEvent("event-3"), "session-1");
+
+        eventDao.insert(entity1);
+        eventDao.insert(entity2);
+        eventDao.insert(entity3);
+
+        // Brackets plus two events and a separator
+        int twoEventPayloadSize = 2 + entity1.eventSize + 1 + entity2.eventSize;
+
+        List<EventEntity.EventIdAndData> batch = eventDao.getBatch(10, twoEventPayloadSize);
+        assertEquals(2, batch.size());
+        assertEquals(entity1.eventId, batch.get(0).eventId);
+        assertEquals(entity2.eventId, batch.get(1).eventId);
+
+        // The exact payload size of the batch matches the budget
+        List<JsonValue> payload = new ArrayList<>();
+        for (EventEntity.EventIdAndData event : batch) {
+            payload.add(event.data);
+        }
+        assertEquals(twoEventPayloadSize, JsonValue.wrapOpt(payload).toString().getBytes(StandardCharsets.UTF_8).length);
+
+        assertEquals(1, eventDao.getBatch(10, twoEventPayloadSize - 1).size());
+        assertEquals(2, eventDao.getBatch(2, Integer.MAX_VALUE).size());
+
+        // Always returns at least one event
+        assertEquals(1, eventDao.getBatch(10, 1).size());
+    }
+
+    @Test
+    public void testDeleteOldest() throws JsonException {
+        EventEntity entity1 = EventEntity.create(new TestEvent("event-1"), "session-1");
+        EventEntity entity2 = EventEntity.create(new TestEvent("event-2"), "session-1");
+        EventEntity entity3 = EventEntity.create(new TestEvent("event-3"), "session-2");
+
+        eventDao.insert(entity1);
+        eventDao.insert(entity2);
+        eventDao.insert(entity3);
+
+        assertEquals(0, eventDao.deleteOldest(0));
+        assertEquals(3, eventDao.count());
+
+        // Deletes whole events until at least the requested bytes are removed
+        int deleted = eventDao.deleteOldest(entity1.eventSize + 1);
+        assertEquals(entity1.eventSize + entity2.eventSize, deleted);
+        assertEquals(1, eventDao.count());
+        assertTrue(entity3.contentEquals(eventDao.get().get(0)));
+
+        assertEquals(entity3.eventSize, eventDao.deleteOldest(Integer.MAX_VALUE));
+        assertEquals(0, eventDao.count());
+    }
+
     @Test
     public void testDatabaseSize() {
         assertEquals(0, eventDao.databaseSize());
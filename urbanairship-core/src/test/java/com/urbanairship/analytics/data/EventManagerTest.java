@@ -21,6 +21,7 @@ import org.mockito.Mockito;
 import org.mockito.internal.verification.Times;
 
 import java.net.HttpURLConnection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -70,8 +71,10 @@ public class EventManagerTest extends BaseTestCase {
         EventEntity entity = EventEntity.create(customEvent, "session");
 
         eventManager.addEvent(customEvent, "session");
+        eventManager.flushPendingEvents();
+
         // Verify we add an event.
-        verify(mockEventDao, new Times(1)).insert(entity);
+        verify(mockEventDao, new Times(1)).insert(Collections.singletonList(entity));
 
         // Check it schedules an upload
         verify(mockDispatcher).dispatch(Mockito.argThat(new ArgumentMatcher<JobInfo>() {
@@ -82,6 +85,98 @@ public class EventManagerTest extends BaseTestCase {
         }));
     }
 
+    /**
+     * Tests the event database is trimmed to the low watermark once it grows past the high watermark.
+     */
+    @Test
+    public void testTrimEventsAtHighWatermark() throws JsonException {
+        dataStore.put(EventManager.MAX_TOTAL_DB_SIZE_KEY, 1000);
+        eventManager.setTrimWatermarks(1.0f, 0.5f);
+
+        CustomEvent customEvent = CustomEvent.newBuilder("event name").build();
+        EventEntity entity = EventEntity.create(customEvent, "session");
+
+        // First insert loads the size, which includes the inserted event
+        when(mockEventDao.databaseSize()).thenReturn(900);
+        eventManager.addEvent(customEvent, "session");
+        eventManager.flushPendingEvents();
+        verify(mockEventDao, never()).deleteOldest(Mockito.anyInt());
+
+        // Second insert goes over the max size
+        long expectedExcess = 900 + entity.eventSize - 500;
+        when(mockEventDao.deleteOldest((int) expectedExcess)).thenReturn((int) expectedExcess);
+        eventManager.addEvent(customEvent, "session");
+        eventManager.flushPendingEvents();
+        verify(mockEventDao).deleteOldest((int) expectedExcess);
+
+        // Size is tracked without scanning the table again
+        verify(mockEventDao, new Times(1)).databaseSize();
+
+        // Back at the low watermark, so the next insert does not trim
+        eventManager.addEvent(customEvent, "session");
+        eventManager.flushPendingEvents();
+        verify(mockEventDao, new Times(1)).deleteOldest(Mockito.anyInt());
+    }
+
+    /**
+     * Tests pending events are committed as a single group with a single upload schedule.
+     */
+    @Test
+    public void testGroupCommit() throws JsonException {
+        CustomEvent first = CustomEvent.newBuilder("first").build();
+        CustomEvent second = CustomEvent.newBuilder("second").build();
+
+        eventManager.addEvent(first, "session");
+        eventManager.addEvent(second, "session");
+
+        // Nothing is stored until the group is committed
+        verify(mockEventDao, never()).insert(Mockito.<EventEntity>anyList());
+        verify(mockDispatcher, never()).dispatch(Mockito.any(JobInfo.class));
+
+        eventManager.flushPendingEvents();
+
+        verify(mockEventDao).insert(Arrays.asList(EventEntity.create(first, "session"), EventEntity.create(second, "session")));
+        verify(mockDispatcher, new Times(1)).dispatch(Mockito.any(JobInfo.class));
+
+        // Flushing again is a no-op
+        eventManager.flushPendingEvents();
+        verify(mockEventDao, new Times(1)).insert(Mockito.<EventEntity>anyList());
+    }
+
+    /**
+     * Tests a high priority event commits the pending group immediately.
+     */
+    @Test
+    public void testHighPriorityEventCommitsGroup() {
+        eventManager.addEvent(CustomEvent.newBuilder("event name").build(), "session");
+
+        RegionEvent regionEvent = RegionEvent.newBuilder()
+                                             .setRegionId("id")
+                                             .setSource("source")
+                                             .setBoundaryEvent(RegionEvent.BOUNDARY_EVENT_ENTER)
+                                             .build();
+        eventManager.addEvent(regionEvent, "session");
+
+        verify(mockEventDao).insert(Mockito.argThat(new ArgumentMatcher<List<EventEntity>>() {
+            @Override
+            public boolean matches(List<EventEntity> argument) {
+                return argument.size() == 2;
+            }
+        }));
+    }
+
+    /**
+     * Test deleting events drops any pending events.
+     */
+    @Test
+    public void testDeleteDropsPendingEvents() {
+        eventManager.addEvent(CustomEvent.newBuilder("event name").build(), "session");
+        eventManager.deleteEvents();
+        eventManager.flushPendingEvents();
+
+        verify(mockEventDao, never()).insert(Mockito.<EventEntity>anyList());
+    }
+
     /**
      * Tests adding an event  before the next send time schedules an upload with the remaining delay.
      */
@@ -95,6 +190,7 @@ public class EventManagerTest extends BaseTestCase {
 
         CustomEvent customEvent = CustomEvent.newBuilder("event name").build();
         eventManager.addEvent(customEvent, "session");
+        eventManager.flushPendingEvents();
 
         // Check it schedules an upload with a time greater than 10 seconds
         verify(mockDispatcher).dispatch(Mockito.argThat(new ArgumentMatcher<JobInfo>() {
@@ -123,12 +219,8 @@ public class EventManagerTest extends BaseTestCase {
         // having it return 2 will make it schedule to upload events in the future
         when(mockEventDao.count()).thenReturn(2);
 
-        // Return 200 bytes in size.  It should only be able to do 100 bytes so only
-        // the first event.
-        when(mockEventDao.databaseSize()).thenReturn(200);
-
-        // Return the event when it asks for 1
-        when(mockEventDao.getBatch(1)).thenReturn(events);
+        // Return the event when it asks for a batch within 100 bytes
+        when(mockEventDao.getBatch(500, 100)).thenReturn(events);
 
         // Set the max batch size to 100
         dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 100);
@@ -177,13 +269,12 @@ public class EventManagerTest extends BaseTestCase {
         dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 100000);
 
         // Fake the resolver to act like it has more than 500 events
-        when(mockEventDao.databaseSize()).thenReturn(100000);
         when(mockEventDao.count()).thenReturn(1000);
 
         eventManager.uploadEvents(Collections.<String, String>emptyMap());
 
-        // Verify it only asked for 500
-        verify(mockEventDao).getBatch(500);
+        // Verify it only asked for 500 within the max batch size
+        verify(mockEventDao).getBatch(500, 100000);
     }
 
     /**
@@ -200,8 +291,7 @@ public class EventManagerTest extends BaseTestCase {
         headers.put("foo", "bar");
 
         when(mockEventDao.count()).thenReturn(1);
-        when(mockEventDao.databaseSize()).thenReturn(100);
-        when(mockEventDao.getBatch(1)).thenReturn(events);
+        when(mockEventDao.getBatch(500, 100)).thenReturn(events);
 
         dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 100);
 
@@ -63,7 +63,10 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.annotation.Config;
 import org.robolectric.annotation.LooperMode;
 
@@ -421,6 +424,80 @@ public class ContactTest extends BaseTestCase {
         verifyNoMoreInteractions(mockContactApiClient);
     }
 
+    @Test
+    public void testUpdatesNotMergedAcrossResolve() throws RequestException {
+        when(mockChannel.getId()).thenReturn(fakeChannelId);
+        testClock.currentTimeMillis = 100;
+
+        Response<ContactIdentity> resolveResponse = new Response.Builder<ContactIdentity>(200).setResult(new ContactIdentity(fakeContactId, true, null)).build();
+        when(mockContactApiClient.resolve(fakeChannelId)).thenReturn(resolveResponse);
+
+        Response<Void> updateResponse = new Response.Builder<Void>(200).build();
+        when(mockContactApiClient.update(eq(fakeContactId), anyList(), anyList(), anyList())).thenReturn(updateResponse);
+
+        contact.editSubscriptionLists().subscribe("foo", Scope.APP).apply();
+
+        // Resolve
+        assertEquals(JobResult.SUCCESS, contact.onPerformJob(UAirship.shared(), updateJob));
+
+        // Resolving again means the contact ID is no longer refreshed, so the updates on either
+        // side of the resolve have to be sent separately
+        contact.resolve();
+        contact.editSubscriptionLists().subscribe("bar", Scope.APP).apply();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(JobResult.SUCCESS, contact.onPerformJob(UAirship.shared(), updateJob));
+        }
+
+        List<ScopedSubscriptionListMutation> fooMutations = Collections.singletonList(ScopedSubscriptionListMutation.newSubscribeMutation("foo", Scope.APP, 100));
+        List<ScopedSubscriptionListMutation> barMutations = Collections.singletonList(ScopedSubscriptionListMutation.newSubscribeMutation("bar", Scope.APP, 100));
+
+        InOrder inOrder = inOrder(mockContactApiClient);
+        inOrder.verify(mockContactApiClient).resolve(fakeChannelId);
+        inOrder.verify(mockContactApiClient).update(fakeContactId, Collections.emptyList(), Collections.emptyList(), fooMutations);
+        inOrder.verify(mockContactApiClient).resolve(fakeChannelId);
+        inOrder.verify(mockContactApiClient).update(fakeContactId, Collections.emptyList(), Collections.emptyList(), barMutations);
+        verifyNoMoreInteractions(mockContactApiClient);
+    }
+
+    @Test
+    public void testUpdateNotMergedIntoInFlightUpdate() throws RequestException {
+        when(mockChannel.getId()).thenReturn(fakeChannelId);
+        testClock.currentTimeMillis = 100;
+
+        Response<ContactIdentity> resolveResponse = new Response.Builder<ContactIdentity>(200).setResult(new ContactIdentity(fakeContactId, true, null)).build();
+        when(mockContactApiClient.resolve(fakeChannelId)).thenReturn(resolveResponse);
+
+        final List<ScopedSubscriptionListMutation> fooMutations = Collections.singletonList(ScopedSubscriptionListMutation.newSubscribeMutation("foo", Scope.APP, 100));
+        List<ScopedSubscriptionListMutation> barMutations = Collections.singletonList(ScopedSubscriptionListMutation.newSubscribeMutation("bar", Scope.APP, 100));
+
+        final Response<Void> updateResponse = new Response.Builder<Void>(200).build();
+        when(mockContactApiClient.update(eq(fakeContactId), anyList(), anyList(), anyList())).thenAnswer(new Answer<Response<Void>>() {
+            @Override
+            public Response<Void> answer(InvocationOnMock invocation) {
+                // Update the contact while the foo request is in flight
+                if (fooMutations.equals(invocation.getArgument(3))) {
+                    contact.editSubscriptionLists().subscribe("bar", Scope.APP).apply();
+                }
+                return updateResponse;
+            }
+        });
+
+        contact.editSubscriptionLists().subscribe("foo", Scope.APP).apply();
+
+        // Resolve, update foo, update bar
+        for (int i = 0; i < 3; i++) {
+            assertEquals(JobResult.SUCCESS, contact.onPerformJob(UAirship.shared(), updateJob));
+        }
+
+        InOrder inOrder = inOrder(mockContactApiClient);
+        inOrder.verify(mockContactApiClient).resolve(fakeChannelId);
+        inOrder.verify(mockContactApiClient).update(fakeContactId, Collections.emptyList(), Collections.emptyList(), fooMutations);
+        inOrder.verify(mockContactApiClient).update(fakeContactId, Collections.emptyList(), Collections.emptyList(), barMutations);
+        verifyNoMoreInteractions(mockContactApiClient);
+        assertTrue(contact.getPendingSubscriptionListUpdates().isEmpty());
+    }
+
     @Test
     public void testIdentifyFailed() throws RequestException {
         when(mockChannel.getId()).thenReturn(fakeChannelId);
@@ -709,6 +786,18 @@ public class ContactTest extends BaseTestCase {
         assertFalse(dataStore.isSet(Contact.LEGACY_ATTRIBUTE_MUTATION_STORE_KEY));
     }
 
+    @Test
+    public void testMigrateStoredOperations() {
+        PreferenceDataStore dataStore = TestApplication.getApplication().preferenceDataStore;
+        dataStore.put("com.urbanairship.contacts.OPERATIONS", JsonValue.wrapOpt(Arrays.asList(
+                ContactOperation.resolve(),
+                ContactOperation.identify("some-named-user")
+        )));
+
+        assertEquals("some-named-user", contact.getNamedUserId());
+        assertFalse(dataStore.isSet("com.urbanairship.contacts.OPERATIONS"));
+    }
+
     @Test
     public void testMigrateAttributesAndTagsDisabled() {
         PreferenceDataStore dataStore = TestApplication.getApplication().preferenceDataStore;
@@ -0,0 +1,142 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.images;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.TestApplication;
+import com.urbanairship.util.FileUtils;
+import com.urbanairship.util.UAStringUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImageDiskCacheTest extends BaseTestCase {
+
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private File directory;
+
+    @Before
+    public void setup() {
+        directory = new File(TestApplication.getApplication().getCacheDir(), "image-disk-cache-test");
+        directory.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void testGet() throws IOException {
+        File file = writeEntry("https://example.com/a.png", 10, 1000);
+
+        ImageDiskCache cache = new ImageDiskCache(directory, 100, executor);
+        assertEquals(file, cache.get("https://example.com/a.png"));
+        assertNull(cache.get("https://example.com/b.png"));
+    }
+
+    @Test
+    public void testGetBeforeLoad() throws IOException {
+        File file = writeEntry("https://example.com/a.png", 10, 1000);
+
+        final List<Runnable> pending = new ArrayList<>();
+        ImageDiskCache cache = new ImageDiskCache(directory, 100, new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                pending.add(runnable);
+            }
+        });
+
+        // Lookups do not wait for the index
+        assertNull(cache.get("https://example.com/a.png"));
+
+        pending.get(0).run();
+        assertEquals(file, cache.get("https://example.com/a.png"));
+    }
+
+    @Test
+    public void testDeletesLegacyCache() throws IOException {
+        File legacyDirectory = new File(TestApplication.getApplication().getCacheDir(), "image-disk-cache-test-legacy");
+        legacyDirectory.mkdirs();
+        File legacyFile = new File(legacyDirectory, "journal");
+        new FileOutputStream(legacyFile).close();
+
+        new ImageDiskCache(directory, 100, executor, legacyDirectory);
+
+        assertFalse(legacyFile.exists());
+        assertFalse(legacyDirectory.exists());
+    }
+
+    @Test
+    public void testTrimsLeastRecentlyUsed() throws IOException {
+        File a = writeEntry("https://example.com/a.png", 10, 1000);
+        File b = writeEntry("https://example.com/b.png", 10, 2000);
+        File c = writeEntry("https://example.com/c.png", 10, 3000);
+
+        ImageDiskCache cache = new ImageDiskCache(directory, 25, executor);
+
+        assertNull(cache.get("https://example.com/a.png"));
+        assertNotNull(cache.get("https://example.com/b.png"));
+        assertNotNull(cache.get("https://example.com/c.png"));
+
+        assertFalse(a.exists());
+        assertTrue(b.exists());
+        assertTrue(c.exists());
+    }
+
+    @Test
+    public void testFetchCachedEntry() throws IOException {
+        writeEntry("https://example.com/a.png", 10, 1000);
+
+        ImageDiskCache cache = new ImageDiskCache(directory, 100, executor);
+        FileUtils.DownloadResult result = cache.fetch("https://example.com/a.png");
+        assertTrue(result.isSuccess);
+    }
+
+    @Test
+    public void testRemovesTempFiles() throws IOException {
+        File temp = new File(directory, UAStringUtil.sha256("https://example.com/a.png") + ".tmp");
+        write(temp, 10);
+
+        ImageDiskCache cache = new ImageDiskCache(directory, 100, executor);
+        assertFalse(temp.exists());
+        assertNull(cache.get("https://example.com/a.png"));
+    }
+
+    @NonNull
+    private File writeEntry(@NonNull String url, int bytes, long lastModified) throws IOException {
+        File file = new File(directory, UAStringUtil.sha256(url));
+        write(file, bytes);
+        file.setLastModified(lastModified);
+        return file;
+    }
+
+    private static void write(@NonNull File file, int bytes) throws IOException {
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(new byte[bytes]);
+        }
+    }
+
+}
@@ -2,11 +2,14 @@
 
 package com.urbanairship.job;
 
+import android.os.Looper;
+
 import com.urbanairship.BaseTestCase;
 import com.urbanairship.TestApplication;
 import com.urbanairship.push.PushManager;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import java.util.concurrent.TimeUnit;
 
@@ -15,11 +18,14 @@ import androidx.core.util.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 public class JobDispatcherTest extends BaseTestCase {
 
@@ -136,6 +142,79 @@ public class JobDispatcherTest extends BaseTestCase {
         verify(mockScheduler).schedule(context, jobInfo, 100);
     }
 
+    @Test
+    public void testCoalesceDispatch() throws SchedulerException {
+        JobDispatcher coalescingDispatcher = new JobDispatcher(context, mockScheduler, jobRunner, mockRateLimiter, 100, Looper.getMainLooper());
+
+        JobInfo keep = JobInfo.newBuilder()
+                              .setAction("keep_action")
+                              .setAirshipComponent(PushManager.class)
+                              .setConflictStrategy(JobInfo.KEEP)
+                              .build();
+
+        JobInfo replace = JobInfo.newBuilder()
+                                 .setAction("replace_action")
+                                 .setAirshipComponent(PushManager.class)
+                                 .setConflictStrategy(JobInfo.REPLACE)
+                                 .build();
+
+        JobInfo latestReplace = JobInfo.newBuilder()
+                                       .setAction("replace_action")
+                                       .setAirshipComponent(PushManager.class)
+                                       .setConflictStrategy(JobInfo.REPLACE)
+                                       .setMinDelay(10, TimeUnit.MILLISECONDS)
+                                       .build();
+
+        coalescingDispatcher.dispatch(keep);
+        coalescingDispatcher.dispatch(replace);
+        coalescingDispatcher.dispatch(keep);
+        coalescingDispatcher.dispatch(latestReplace);
+
+        // Nothing is scheduled until the window passes
+        verifyNoInteractions(mockScheduler);
+
+        shadowOf(Looper.getMainLooper()).idleFor(100, TimeUnit.MILLISECONDS);
+
+        verify(mockScheduler, times(1)).schedule(context, keep, 0);
+        verify(mockScheduler, never()).schedule(context, replace, 0);
+        verify(mockScheduler, times(1)).schedule(context, latestReplace, 10);
+
+        JobDispatcher.Metrics metrics = coalescingDispatcher.getMetrics();
+        assertEquals(2, metrics.getDispatchedCount());
+        assertEquals(2, metrics.getCoalescedCount());
+        assertEquals(0, metrics.getRateLimitedCount());
+    }
+
+    @Test
+    public void testAppendDispatchSchedulesImmediately() throws SchedulerException {
+        JobDispatcher coalescingDispatcher = new JobDispatcher(context, mockScheduler, jobRunner, mockRateLimiter, 100, Looper.getMainLooper());
+
+        JobInfo keep = JobInfo.newBuilder()
+                              .setAction("keep_action")
+                              .setAirshipComponent(PushManager.class)
+                              .setConflictStrategy(JobInfo.KEEP)
+                              .build();
+
+        JobInfo append = JobInfo.newBuilder()
+                                .setAction("append_action")
+                                .setAirshipComponent(PushManager.class)
+                                .setConflictStrategy(JobInfo.APPEND)
+                                .build();
+
+        coalescingDispatcher.dispatch(keep);
+        verifyNoInteractions(mockScheduler);
+
+        // Scheduled without waiting for the window, after the held job
+        coalescingDispatcher.dispatch(append);
+
+        InOrder inOrder = inOrder(mockScheduler);
+        inOrder.verify(mockScheduler).schedule(context, keep, 0);
+        inOrder.verify(mockScheduler).schedule(context, append, 0);
+
+        shadowOf(Looper.getMainLooper()).idleFor(100, TimeUnit.MILLISECONDS);
+        verify(mockScheduler, times(1)).schedule(context, keep, 0);
+    }
+
     private static class TestJobRunner implements JobRunner {
 
         public JobResult result = JobResult.SUCCESS;
@@ -2,7 +2,11 @@
 
 package com.urbanairship.job;
 
+import android.content.Context;
+import android.content.SharedPreferences;
+
 import com.urbanairship.BaseTestCase;
+import com.urbanairship.TestApplication;
 import com.urbanairship.TestClock;
 
 import org.junit.Test;
@@ -108,4 +112,33 @@ public class RateLimiterTest extends BaseTestCase {
         assertEquals(RateLimiter.LimitStatus.OVER, rateLimiter.status("foo").getLimitStatus());
         assertEquals(1, rateLimiter.status("bar").getNextAvailable(TimeUnit.MILLISECONDS));
     }
+
+    @Test
+    public void testPersistedHits() {
+        SharedPreferences preferences = TestApplication.getApplication().getSharedPreferences("rate-limiter-test", Context.MODE_PRIVATE);
+        RateLimiter persistingLimiter = new RateLimiter(clock, preferences);
+        persistingLimiter.setLimit("foo", 2, 10, TimeUnit.MILLISECONDS);
+
+        persistingLimiter.track("foo");
+        clock.currentTimeMillis += 5;
+        persistingLimiter.track("foo");
+        assertEquals(RateLimiter.LimitStatus.OVER, persistingLimiter.status("foo").getLimitStatus());
+
+        // Restored hits should still count against the limit
+        RateLimiter restoredLimiter = new RateLimiter(clock, preferences);
+        restoredLimiter.setLimit("foo", 2, 10, TimeUnit.MILLISECONDS);
+        assertEquals(RateLimiter.LimitStatus.OVER, restoredLimiter.status("foo").getLimitStatus());
+        assertEquals(5, restoredLimiter.status("foo").getNextAvailable(TimeUnit.MILLISECONDS));
+
+        // Expired hits are dropped when restored
+        clock.currentTimeMillis += 5;
+        restoredLimiter = new RateLimiter(clock, preferences);
+        restoredLimiter.setLimit("foo", 2, 10, TimeUnit.MILLISECONDS);
+        assertEquals(RateLimiter.LimitStatus.UNDER, restoredLimiter.status("foo").getLimitStatus());
+
+        restoredLimiter.track("foo");
+        assertEquals(RateLimiter.LimitStatus.OVER, restoredLimiter.status("foo").getLimitStatus());
+        assertEquals(5, restoredLimiter.status("foo").getNextAvailable(TimeUnit.MILLISECONDS));
+    }
+
 }
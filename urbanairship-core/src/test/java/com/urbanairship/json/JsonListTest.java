@@ -8,6 +8,9 @@ import org.json.JSONException;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
@@ -32,6 +35,20 @@ public class JsonListTest extends BaseTestCase {
         assertTrue(emptyList.isEmpty());
     }
 
+    /**
+     * Test the public constructor copies the list and the owning constructor does not.
+     */
+    @Test
+    public void testCopy() {
+        List<JsonValue> list = new ArrayList<>();
+        JsonList copied = new JsonList(list);
+        JsonList owned = new JsonList(list, false);
+
+        list.add(JsonValue.wrap("value"));
+        assertTrue(copied.isEmpty());
+        assertEquals(1, owned.size());
+    }
+
     /**
      * Test toString produces a JSON encoded String.
      */
@@ -44,6 +44,20 @@ public class JsonMapTest extends BaseTestCase {
         assertNull(emptyMap.get("Not in map"));
     }
 
+    /**
+     * Test the public constructor copies the map and the owning constructor does not.
+     */
+    @Test
+    public void testCopy() {
+        Map<String, JsonValue> map = new HashMap<>();
+        JsonMap copied = new JsonMap(map);
+        JsonMap owned = new JsonMap(map, false);
+
+        map.put("key", JsonValue.wrap("value"));
+        assertTrue(copied.isEmpty());
+        assertEquals("value", owned.opt("key").getString());
+    }
+
     /**
      * Test getting an optional value returns a null JsonValue instead of null.
      */
@@ -432,4 +432,103 @@ public class JsonPredicateTest extends BaseTestCase {
         Assert.assertTrue(predicate.apply(versionObject));
     }
 
+    /**
+     * Test reordering and/or children by cost does not change the result.
+     */
+    @Test
+    public void testMixedCostChildren() {
+        JsonMatcher versionMatcher = JsonMatcher.newBuilder()
+                                                .setKey("version")
+                                                .setValueMatcher(ValueMatcher.newVersionMatcher("[1.0, 2.0["))
+                                                .build();
+
+        JsonMatcher rangeMatcher = JsonMatcher.newBuilder()
+                                              .setKey("legs")
+                                              .setValueMatcher(ValueMatcher.newNumberRangeMatcher(3.0, 4.0))
+                                              .build();
+
+        JsonMatcher presenceMatcher = JsonMatcher.newBuilder()
+                                                 .setKey("name")
+                                                 .setValueMatcher(ValueMatcher.newIsPresentMatcher())
+                                                 .build();
+
+        JsonPredicate and = JsonPredicate.newBuilder()
+                                         .setPredicateType(JsonPredicate.AND_PREDICATE_TYPE)
+                                         .addMatcher(versionMatcher)
+                                         .addMatcher(rangeMatcher)
+                                         .addMatcher(presenceMatcher)
+                                         .build();
+
+        JsonPredicate or = JsonPredicate.newBuilder()
+                                        .setPredicateType(JsonPredicate.OR_PREDICATE_TYPE)
+                                        .addMatcher(versionMatcher)
+                                        .addMatcher(rangeMatcher)
+                                        .build();
+
+        JsonMap matching = JsonMap.newBuilder()
+                                  .put("version", "1.5")
+                                  .put("legs", 4)
+                                  .put("name", "mittens")
+                                  .build();
+
+        JsonMap wrongVersion = JsonMap.newBuilder()
+                                      .put("version", "2.0")
+                                      .put("legs", 4)
+                                      .put("name", "mittens")
+                                      .build();
+
+        JsonMap wrongLegs = JsonMap.newBuilder()
+                                   .put("version", "2.0")
+                                   .put("legs", 5)
+                                   .build();
+
+        assertTrue(and.apply(matching));
+        assertFalse(and.apply(wrongVersion));
+        assertTrue(or.apply(wrongVersion));
+        assertFalse(or.apply(wrongLegs));
+
+        // Apply again to hit the cached version results
+        assertTrue(and.apply(matching));
+        assertFalse(and.apply(wrongVersion));
+
+        // Serialization keeps the authored order
+        assertEquals(versionMatcher.toJsonValue(), and.toJsonValue().optMap().opt(JsonPredicate.AND_PREDICATE_TYPE).optList().get(0));
+    }
+
+    /**
+     * Test nested not predicates.
+     */
+    @Test
+    public void testNestedNot() {
+        JsonPredicate notLegs = JsonPredicate.newBuilder()
+                                             .setPredicateType(JsonPredicate.NOT_PREDICATE_TYPE)
+                                             .addMatcher(legMatcher)
+                                             .build();
+
+        JsonPredicate notNotLegs = JsonPredicate.newBuilder()
+                                                .setPredicateType(JsonPredicate.NOT_PREDICATE_TYPE)
+                                                .addPredicate(notLegs)
+                                                .build();
+
+        assertFalse(notLegs.apply(catJson));
+        assertTrue(notNotLegs.apply(catJson));
+        assertFalse(notNotLegs.apply(JsonMap.EMPTY_MAP));
+    }
+
+    /**
+     * Test scopes that resolve to a non-map value do not match.
+     */
+    @Test
+    public void testScopeOnNonMapValue() {
+        JsonPredicate predicate = JsonPredicate.newBuilder()
+                                               .addMatcher(JsonMatcher.newBuilder()
+                                                                      .setScope(Arrays.asList("name", "first"))
+                                                                      .setValueMatcher(ValueMatcher.newIsAbsentMatcher())
+                                                                      .build())
+                                               .build();
+
+        assertTrue(predicate.apply(catJson));
+        assertTrue(predicate.apply(null));
+    }
+
 }
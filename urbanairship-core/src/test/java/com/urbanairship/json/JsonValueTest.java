@@ -14,6 +14,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -330,6 +332,55 @@ public class JsonValueTest extends BaseTestCase {
         assertEquals(JsonValue.wrap(jsonArray), JsonValue.parseString(jsonArray.toString()));
     }
 
+    /**
+     * Test parsing strings with escape sequences and nested nulls.
+     */
+    @Test
+    public void testParseStringEscapesAndNulls() throws JsonException {
+        JsonValue parsed = JsonValue.parseString("{\"key\":\"a\\\"b\\/c\\n\\u00e9\",\"null\":null,\"list\":[1,null,2]}");
+
+        assertEquals("a\"b/c\n\u00e9", parsed.optMap().opt("key").getString());
+        assertFalse(parsed.optMap().containsKey("null"));
+        assertEquals(JsonValue.wrapOpt(Arrays.asList(1, 2)), parsed.optMap().opt("list"));
+    }
+
+    /**
+     * Test parsing invalid JSON throws a JsonException.
+     */
+    @Test
+    public void testParseInvalidString() throws JsonException {
+        exception.expect(JsonException.class);
+        JsonValue.parseString("{\"key\":[1,2}");
+    }
+
+    /**
+     * Test parsing JSON with trailing content throws a JsonException.
+     */
+    @Test
+    public void testParseTrailingContent() throws JsonException {
+        exception.expect(JsonException.class);
+        JsonValue.parseString("{} {}");
+    }
+
+    /**
+     * Test writing directly to a Writer matches toString.
+     */
+    @Test
+    public void testWrite() throws IOException {
+        Map<String, Object> map = new HashMap<>(primitiveMap);
+        map.put("map", primitiveMap);
+        map.put("collection", primitiveList);
+        map.put("escaped", "\"/\\\u0001");
+
+        JsonValue value = JsonValue.wrapOpt(map);
+
+        StringWriter writer = new StringWriter();
+        value.write(writer);
+
+        assertEquals(value.toString(), writer.toString());
+        assertEquals("\"\\\"\\/\\\\\\u0001\"", JsonValue.wrap("\"/\\\u0001").toString());
+    }
+
     /**
      * Test trying to wrap Double.NaN throws an exception.
      */
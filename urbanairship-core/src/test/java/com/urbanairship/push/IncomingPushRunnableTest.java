@@ -29,6 +29,7 @@ import com.urbanairship.util.PendingIntentCompat;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -37,15 +38,21 @@ import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowPendingIntent;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
 import androidx.annotation.NonNull;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNotSame;
 import static junit.framework.Assert.assertSame;
 import static junit.framework.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -176,6 +183,77 @@ public class IncomingPushRunnableTest extends BaseTestCase {
         verify(pushManager).onNotificationPosted(message, TEST_NOTIFICATION_ID, "testNotificationTag");
     }
 
+    /**
+     * Test a text only notification is posted when the notification is not built within the processing budget.
+     */
+    @Test
+    public void testProcessingBudgetFallback() {
+        when(pushManager.isComponentEnabled()).thenReturn(true);
+        when(pushManager.isPushEnabled()).thenReturn(true);
+        when(pushManager.isOptIn()).thenReturn(true);
+        when(pushManager.isUniqueCanonicalId("testPushID")).thenReturn(true);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        notificationProvider = new TestNotificationProvider() {
+            @NonNull
+            @Override
+            public NotificationResult onCreateNotification(@NonNull Context context, @NonNull NotificationArguments arguments) {
+                try {
+                    latch.await();
+                } catch (InterruptedException ignored) {
+                }
+                return super.onCreateNotification(context, arguments);
+            }
+        };
+        notificationProvider.notification = createNotification();
+        notificationProvider.tag = "testNotificationTag";
+
+        pushRunnable = new IncomingPushRunnable.Builder(TestApplication.getApplication())
+                .setProviderClass(testPushProvider.getClass().toString())
+                .setMessage(new PushMessage(pushBundle))
+                .setNotificationManager(notificationManager)
+                .setLongRunning(false)
+                .setJobDispatcher(jobDispatcher)
+                .setActivityMonitor(activityMonitor)
+                .setExecutor(Executors.newCachedThreadPool())
+                .setProcessingBudget(50)
+                .build();
+
+        pushRunnable.run();
+        latch.countDown();
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationManager).notify(eq("testNotificationTag"), eq(TEST_NOTIFICATION_ID), captor.capture());
+        assertNotSame(notificationProvider.notification, captor.getValue());
+        assertEquals("Test Push Alert!", captor.getValue().extras.getString(NotificationCompat.EXTRA_TEXT));
+        verify(pushManager).onPushReceived(message, true);
+    }
+
+    /**
+     * Test the processing listener is notified of each stage.
+     */
+    @Test
+    public void testProcessingListener() {
+        when(pushManager.isComponentEnabled()).thenReturn(true);
+        when(pushManager.isPushEnabled()).thenReturn(true);
+        when(pushManager.isOptIn()).thenReturn(true);
+        when(pushManager.isUniqueCanonicalId("testPushID")).thenReturn(true);
+
+        PushProcessingListener listener = mock(PushProcessingListener.class);
+        when(pushManager.getPushProcessingListener()).thenReturn(listener);
+
+        notificationProvider.notification = createNotification();
+        notificationProvider.tag = "testNotificationTag";
+
+        pushRunnable.run();
+
+        verify(listener).onStageFinished(eq(message), eq(PushProcessingListener.STAGE_ACTIONS), anyLong());
+        verify(listener).onStageFinished(eq(message), eq(PushProcessingListener.STAGE_NOTIFICATION_ARGUMENTS), anyLong());
+        verify(listener).onStageFinished(eq(message), eq(PushProcessingListener.STAGE_NOTIFICATION_BUILD), anyLong());
+        verify(listener).onStageFinished(eq(message), eq(PushProcessingListener.STAGE_NOTIFICATION_CHANNEL), anyLong());
+        verify(listener).onStageFinished(eq(message), eq(PushProcessingListener.STAGE_NOTIFICATION_POST), anyLong());
+    }
+
     /**
      * Test ignoring push from other vendors.
      */
@@ -188,6 +188,88 @@ public class ObservableTest extends BaseTestCase {
         validateObservable(filtered, expectedInts, 3, 1, 0);
     }
 
+    @Test
+    public void testFusedMapFilter() {
+        Observable<Integer> obs = Observable.from(Arrays.asList(1, 2, 3, 4, 5, 6));
+
+        Observable<String> fused = obs.filter(new Predicate<Integer>() {
+            @Override
+            public boolean apply(Integer value) {
+                return value % 2 == 0;
+            }
+        }).map(new Function<Integer, Integer>() {
+            @NonNull
+            @Override
+            public Integer apply(@NonNull Integer value) {
+                return value * 10;
+            }
+        }).filter(new Predicate<Integer>() {
+            @Override
+            public boolean apply(Integer value) {
+                return value > 20;
+            }
+        }).map(new Function<Integer, String>() {
+            @NonNull
+            @Override
+            public String apply(@NonNull Integer value) {
+                return value.toString();
+            }
+        });
+
+        validateObservable(fused, Arrays.asList("40", "60"), 2, 1, 0);
+    }
+
+    @Test
+    public void testFusedMapError() {
+        final Exception exception = new Exception("Oh no");
+        Observable<String> mapped = Observable.<Integer>error(exception).map(new Function<Integer, String>() {
+            @NonNull
+            @Override
+            public String apply(@NonNull Integer value) {
+                return value.toString();
+            }
+        });
+
+        validateObservable(mapped, exception, new ArrayList<String>(), 0, 0, 1);
+    }
+
+    @Test
+    public void testObserveOnSerialScheduler() {
+        List<Integer> ints = Arrays.asList(1, 2, 3, 4, 5);
+        Observable<Integer> obs = Observable.from(ints).observeOn(Schedulers.serial(backgroundThread.getLooper()));
+
+        validateObservable(obs, backgroundThread.getLooper(), ints, 5, 1, 0);
+    }
+
+    @Test
+    public void testSerialSchedulerCancel() {
+        Scheduler scheduler = Schedulers.serial(backgroundThread.getLooper());
+        final List<Integer> ran = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            final int value = i;
+            Subscription subscription = scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    ran.add(value);
+                }
+            });
+
+            if (i == 1) {
+                subscription.cancel();
+            }
+        }
+
+        Shadows.shadowOf(backgroundThread.getLooper()).runToEndOfTasks();
+        Assert.assertEquals(Arrays.asList(0, 2), ran);
+    }
+
+    @Test
+    public void testLooperSchedulerShared() {
+        Assert.assertSame(Schedulers.looper(backgroundThread.getLooper()), Schedulers.looper(backgroundThread.getLooper()));
+        Assert.assertSame(Schedulers.main(), Schedulers.looper(Looper.getMainLooper()));
+    }
+
     @Test
     public void testObserveOnMyLooper() {
         Observable<Integer> three = Observable.just(3);
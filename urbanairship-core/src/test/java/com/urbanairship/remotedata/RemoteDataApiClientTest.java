@@ -274,6 +274,21 @@ public class RemoteDataApiClientTest extends BaseTestCase {
         assertEquals("Response status should be 501", HttpURLConnection.HTTP_NOT_IMPLEMENTED, response.getStatus());
     }
 
+    /**
+     * Test the entity tag is sent as a conditional header.
+     */
+    @Test
+    public void testFetchRemoteDataNotModified() throws RequestException {
+        testRequest.responseStatus = 304;
+
+        Response<RemoteDataApiClient.Result> response = client.fetchRemoteDataPayloads(null, "\"some-etag\"", new Locale("en"), payloadParser);
+
+        assertEquals("\"some-etag\"", testRequest.getRequestHeaders().get("If-None-Match"));
+        assertNull(testRequest.getRequestHeaders().get("If-Modified-Since"));
+        assertEquals(304, response.getStatus());
+        assertNull(response.getResult());
+    }
+
     private static class TestPushProvider implements PushProvider {
         private final String deliveryType;
 
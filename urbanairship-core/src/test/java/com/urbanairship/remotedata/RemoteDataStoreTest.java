@@ -12,6 +12,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -72,6 +73,81 @@ public class RemoteDataStoreTest extends BaseTestCase {
         Assert.assertEquals("type", savedPayloads.iterator().next().getType());
     }
 
+    /**
+     * Test saving payloads only updates the changed types.
+     */
+    @Test
+    public void testSavePayloadsUpdatedTypes() {
+        Set<String> updatedTypes = new HashSet<>();
+        Assert.assertTrue(dataStore.savePayloads(payloads, updatedTypes));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("type", "otherType")), updatedTypes);
+
+        updatedTypes.clear();
+        Assert.assertTrue(dataStore.savePayloads(payloads, updatedTypes));
+        Assert.assertTrue(updatedTypes.isEmpty());
+
+        RemoteDataPayload updated = RemoteDataPayload.newBuilder()
+                                                     .setType("type")
+                                                     .setTimeStamp(456)
+                                                     .setData(JsonMap.newBuilder()
+                                                                     .put("foo", "updated")
+                                                                     .build())
+                                                     .build();
+
+        updatedTypes.clear();
+        Assert.assertTrue(dataStore.savePayloads(Collections.singleton(updated), updatedTypes));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("type", "otherType")), updatedTypes);
+        Assert.assertEquals(Collections.singleton(updated), dataStore.getPayloads(Arrays.asList("type", "otherType")));
+    }
+
+    /**
+     * Test saving payloads that only changed metadata updates the metadata in place.
+     */
+    @Test
+    public void testSavePayloadsMetadataChange() {
+        RemoteDataPayload payload = RemoteDataPayload.newBuilder()
+                                                     .setType("type")
+                                                     .setTimeStamp(123)
+                                                     .setMetadata(JsonMap.newBuilder().put("url", "https://airship.com/en").build())
+                                                     .setData(JsonMap.newBuilder()
+                                                                     .put("foo", "bar")
+                                                                     .build())
+                                                     .build();
+
+        RemoteDataPayload relocalized = RemoteDataPayload.newBuilder()
+                                                         .setType("type")
+                                                         .setTimeStamp(123)
+                                                         .setMetadata(JsonMap.newBuilder().put("url", "https://airship.com/de").build())
+                                                         .setData(JsonMap.newBuilder()
+                                                                         .put("foo", "bar")
+                                                                         .build())
+                                                         .build();
+
+        Assert.assertTrue(dataStore.savePayloads(Collections.singleton(payload)));
+
+        Set<String> updatedTypes = new HashSet<>();
+        Assert.assertTrue(dataStore.savePayloads(Collections.singleton(relocalized), updatedTypes));
+        Assert.assertEquals(Collections.singleton("type"), updatedTypes);
+        Assert.assertEquals(Collections.singleton(relocalized), dataStore.getPayloads(Collections.singleton("type")));
+
+        dataStore.close();
+        dataStore = new RemoteDataStore(TestApplication.getApplication(), "appKey", "test");
+        Assert.assertEquals(Collections.singleton(relocalized), dataStore.getPayloads(Collections.singleton("type")));
+    }
+
+    /**
+     * Test payloads read from a new store match the saved payloads.
+     */
+    @Test
+    public void testGetPayloadsFromDatabase() {
+        dataStore.savePayloads(payloads);
+        dataStore.close();
+
+        dataStore = new RemoteDataStore(TestApplication.getApplication(), "appKey", "test");
+        Assert.assertEquals(payloads, dataStore.getPayloads(Arrays.asList("type", "otherType", "missing")));
+        Assert.assertEquals(payloads, dataStore.getPayloads());
+    }
+
     /**
      * Test deleting payloads.
      */
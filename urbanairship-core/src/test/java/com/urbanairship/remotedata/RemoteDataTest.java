@@ -39,6 +39,8 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.annotation.LooperMode;
@@ -444,7 +446,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResponseHeaders(headers)
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), eq(locale), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), eq(locale), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -455,7 +457,34 @@ public class RemoteDataTest extends BaseTestCase {
         assertEquals(JobResult.SUCCESS, remoteData.onPerformJob(UAirship.shared(), jobInfo));
         runLooperTasks();
 
-        verify(mockClient).fetchRemoteDataPayloads(eq("lastModifiedResponse"), eq(locale), any(RemoteDataApiClient.PayloadParser.class));
+        verify(mockClient).fetchRemoteDataPayloads(eq("lastModifiedResponse"), nullable(String.class), eq(locale), any(RemoteDataApiClient.PayloadParser.class));
+    }
+
+    @Test
+    public void testETag() throws RequestException {
+        Locale locale = Locale.forLanguageTag("en-US");
+        localeManager.setLocaleOverride(locale);
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("ETag", Collections.singletonList("\"etag\""));
+
+        Response<RemoteDataApiClient.Result> response = new Response.Builder<RemoteDataApiClient.Result>(200)
+                .setResult(new RemoteDataApiClient.Result(Uri.parse("https://airship.com"), asSet(payload)))
+                .setResponseHeaders(headers)
+                .build();
+
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), eq(locale), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+
+        // Perform the update
+        JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
+        assertEquals(JobResult.SUCCESS, remoteData.onPerformJob(UAirship.shared(), jobInfo));
+        runLooperTasks();
+
+        // Perform the update
+        assertEquals(JobResult.SUCCESS, remoteData.onPerformJob(UAirship.shared(), jobInfo));
+        runLooperTasks();
+
+        verify(mockClient).fetchRemoteDataPayloads(nullable(String.class), eq("\"etag\""), eq(locale), any(RemoteDataApiClient.PayloadParser.class));
     }
 
     /**
@@ -478,7 +507,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResponseHeaders(headers)
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(eq((String) null), eq(locale), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(eq((String) null), nullable(String.class), eq(locale), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -487,7 +516,7 @@ public class RemoteDataTest extends BaseTestCase {
 
         localeManager.setLocaleOverride(otherLocale);
 
-        when(mockClient.fetchRemoteDataPayloads(eq((String) null), eq(otherLocale), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(eq((String) null), nullable(String.class), eq(otherLocale), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         assertEquals(JobResult.SUCCESS, remoteData.onPerformJob(UAirship.shared(), jobInfo));
@@ -495,6 +524,85 @@ public class RemoteDataTest extends BaseTestCase {
     }
 
 
+    /**
+     * Test a refresh that only changes one type and the Last-Modified header does not update the
+     * other types.
+     */
+    @Test
+    public void testLastModifiedChangeOnlyUpdatesChangedTypes() throws RequestException {
+        final List<RemoteDataPayload> typePayloads = new ArrayList<>();
+        remoteData.payloadsForType("type").subscribe(new Subscriber<RemoteDataPayload>() {
+            @Override
+            public void onNext(@NonNull RemoteDataPayload value) {
+                typePayloads.add(value);
+            }
+        });
+
+        final List<RemoteDataPayload> otherTypePayloads = new ArrayList<>();
+        remoteData.payloadsForType("otherType").subscribe(new Subscriber<RemoteDataPayload>() {
+            @Override
+            public void onNext(@NonNull RemoteDataPayload value) {
+                otherTypePayloads.add(value);
+            }
+        });
+
+        runLooperTasks();
+        typePayloads.clear();
+        otherTypePayloads.clear();
+
+        refreshWithParser("2017-01-01T12:00:00", "2017-01-01T12:00:00");
+        assertEquals(1, typePayloads.size());
+        assertEquals(1, otherTypePayloads.size());
+
+        // Only the type payload and the Last-Modified header change
+        refreshWithParser("2018-01-01T12:00:00", "2018-01-01T12:00:00");
+        assertEquals(2, typePayloads.size());
+        assertEquals(1, otherTypePayloads.size());
+        assertTrue(remoteData.isMetadataCurrent(otherTypePayloads.get(0).getMetadata()));
+    }
+
+    /**
+     * Refreshes with payloads that are parsed by the refresh's payload parser.
+     *
+     * @param lastModified The Last-Modified header.
+     * @param typeTimestamp The timestamp of the "type" payload.
+     */
+    private void refreshWithParser(@NonNull final String lastModified, @NonNull final String typeTimestamp) throws RequestException {
+        final Uri url = mockClient.getRemoteDataUrl(localeManager.getLocale());
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenAnswer(new Answer<Response<RemoteDataApiClient.Result>>() {
+            @Override
+            public Response<RemoteDataApiClient.Result> answer(InvocationOnMock invocation) {
+                RemoteDataApiClient.PayloadParser parser = invocation.getArgument(3);
+
+                JsonList payloads = new JsonList(Arrays.asList(
+                        JsonMap.newBuilder()
+                               .put("type", "type")
+                               .put("timestamp", typeTimestamp)
+                               .put("data", JsonMap.newBuilder().put("foo", typeTimestamp).build())
+                               .build()
+                               .toJsonValue(),
+                        JsonMap.newBuilder()
+                               .put("type", "otherType")
+                               .put("timestamp", "2017-01-01T12:00:00")
+                               .put("data", JsonMap.newBuilder().put("bar", "baz").build())
+                               .build()
+                               .toJsonValue()));
+
+                Map<String, List<String>> headers = new HashMap<>();
+                headers.put("Last-Modified", Collections.singletonList(lastModified));
+
+                return new Response.Builder<RemoteDataApiClient.Result>(200)
+                        .setResult(new RemoteDataApiClient.Result(url, parser.parse(headers, url, payloads)))
+                        .setResponseHeaders(headers)
+                        .build();
+            }
+        });
+
+        JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
+        assertEquals(JobResult.SUCCESS, remoteData.onPerformJob(UAirship.shared(), jobInfo));
+        runLooperTasks();
+    }
+
     /**
      * Test parsing remote-data responses.
      */
@@ -505,12 +613,12 @@ public class RemoteDataTest extends BaseTestCase {
         Response<RemoteDataApiClient.Result> response = new Response.Builder<RemoteDataApiClient.Result>(304)
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
         remoteData.onPerformJob(UAirship.shared(), jobInfo);
 
-        verify(mockClient).fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), parserArgumentCaptor.capture());
+        verify(mockClient).fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), parserArgumentCaptor.capture());
 
         RemoteDataApiClient.PayloadParser parser = parserArgumentCaptor.getValue();
 
@@ -531,7 +639,6 @@ public class RemoteDataTest extends BaseTestCase {
 
         JsonMap metadata = JsonMap.newBuilder()
                                   .put("url", url.toString())
-                                  .putOpt("last_modified", "2017-01-01T12:00:00")
                                   .build();
         assertEquals(RemoteDataPayload.parsePayloads(payloads, metadata), parsed);
     }
@@ -545,7 +652,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResult(new RemoteDataApiClient.Result(Uri.parse("https://airship.com"), asSet(payload)))
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -572,7 +679,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResult(new RemoteDataApiClient.Result(Uri.parse("https://airship.com"), asSet(payload)))
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -588,7 +695,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResult(new RemoteDataApiClient.Result(Uri.parse("https://airship.com"), asSet(payload)))
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -604,7 +711,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResult(new RemoteDataApiClient.Result(Uri.parse("https://airship.com"), asSet(payload)))
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -626,7 +733,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResult(new RemoteDataApiClient.Result(Uri.parse("https://airship.com"), asSet(payload)))
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -657,7 +764,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResult(new RemoteDataApiClient.Result(Uri.parse("https://airship.com"), asSet(payload)))
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -678,7 +785,7 @@ public class RemoteDataTest extends BaseTestCase {
         Response<RemoteDataApiClient.Result> response = new Response.Builder<RemoteDataApiClient.Result>(400)
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -703,7 +810,7 @@ public class RemoteDataTest extends BaseTestCase {
                 .setResult(new RemoteDataApiClient.Result(mockClient.getRemoteDataUrl(localeManager.getLocale()), asSet(payloads)))
                 .build();
 
-        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
+        when(mockClient.fetchRemoteDataPayloads(nullable(String.class), nullable(String.class), any(Locale.class), any(RemoteDataApiClient.PayloadParser.class))).thenReturn(response);
 
         // Perform the update
         JobInfo jobInfo = JobInfo.newBuilder().setAction(RemoteData.ACTION_REFRESH).build();
@@ -0,0 +1,50 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedExecutorTest extends BaseTestCase {
+
+    @Test
+    public void testMaxConcurrency() throws InterruptedException {
+        Executor executor = new BoundedExecutor(Executors.newFixedThreadPool(8), 2);
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    int count = running.incrementAndGet();
+                    maxRunning.set(Math.max(maxRunning.get(), count));
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(0, running.get());
+    }
+
+}
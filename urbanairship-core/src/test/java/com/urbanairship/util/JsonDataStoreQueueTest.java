@@ -3,6 +3,7 @@
 package com.urbanairship.util;
 
 import com.urbanairship.BaseTestCase;
+import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.TestApplication;
 import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
@@ -16,6 +17,7 @@ import java.util.List;
 import androidx.arch.core.util.Function;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -25,7 +27,11 @@ public class JsonDataStoreQueueTest extends BaseTestCase {
 
     @Before
     public void setup() {
-        queue = new JsonDataStoreQueue<>(TestApplication.getApplication().preferenceDataStore, "some-key", new Function<JsonValue, JsonSerializable>() {
+        queue = createQueue();
+    }
+
+    private static JsonDataStoreQueue<JsonValue> createQueue() {
+        return new JsonDataStoreQueue<>(TestApplication.getApplication().preferenceDataStore, "some-key", new Function<JsonValue, JsonSerializable>() {
             @Override
             public JsonSerializable apply(JsonValue input) {
                 return input;
@@ -104,4 +110,52 @@ public class JsonDataStoreQueueTest extends BaseTestCase {
         assertEquals("what?", queue.peek().getString());
     }
 
+    @Test
+    public void testBatchPeekAndPop() {
+        queue.addAll(Arrays.asList(JsonValue.wrapOpt("one"), JsonValue.wrapOpt("two"), JsonValue.wrapOpt("three")));
+
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("one"), JsonValue.wrapOpt("two")), queue.peek(2));
+        assertEquals(3, queue.getList().size());
+
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("one"), JsonValue.wrapOpt("two")), queue.pop(2));
+        assertEquals("three", queue.peek().getString());
+
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("three")), queue.pop(5));
+        assertTrue(queue.pop(5).isEmpty());
+        assertNull(queue.peek());
+    }
+
+    @Test
+    public void testReusesEntryKeys() {
+        PreferenceDataStore dataStore = TestApplication.getApplication().preferenceDataStore;
+        queue.add(JsonValue.wrapOpt(0));
+        queue.add(JsonValue.wrapOpt(1));
+
+        // The queue never drains, so the head keeps moving
+        for (int i = 2; i < 1000; i++) {
+            queue.add(JsonValue.wrapOpt(i));
+            assertEquals(i - 2, queue.pop().getInt(-1));
+        }
+
+        assertTrue(dataStore.getLong("some-key.TAIL", 0) <= 102);
+        assertFalse(dataStore.isSet("some-key.ENTRY.500"));
+        assertFalse(dataStore.isSet("some-key.ENTRY.999"));
+
+        assertEquals(Arrays.asList(JsonValue.wrapOpt(998), JsonValue.wrapOpt(999)), createQueue().getList());
+    }
+
+    @Test
+    public void testMigratesStoredList() {
+        PreferenceDataStore dataStore = TestApplication.getApplication().preferenceDataStore;
+        dataStore.put("some-key", JsonValue.wrapOpt(Arrays.asList("neat", "rad")));
+
+        queue.add(JsonValue.wrapOpt("cool"));
+
+        assertFalse(dataStore.isSet("some-key"));
+        assertEquals("neat", queue.pop().getString());
+        assertEquals("rad", queue.pop().getString());
+        assertEquals("cool", queue.pop().getString());
+        assertNull(queue.pop());
+    }
+
 }
@@ -0,0 +1,84 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyedSerialExecutorTest extends BaseTestCase {
+
+    @Test
+    public void testOrderPerKey() throws InterruptedException {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor(Executors.newFixedThreadPool(4));
+
+        final List<Integer> first = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> second = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> expected = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(200);
+
+        for (int i = 1; i <= 100; i++) {
+            final int count = i;
+            expected.add(count);
+            executor.execute("first", new Runnable() {
+                @Override
+                public void run() {
+                    first.add(count);
+                    latch.countDown();
+                }
+            });
+            executor.execute("second", new Runnable() {
+                @Override
+                public void run() {
+                    second.add(count);
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+    }
+
+    @Test
+    public void testKeysRunConcurrently() throws InterruptedException {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor(Executors.newFixedThreadPool(2));
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch other = new CountDownLatch(1);
+
+        executor.execute("slow", new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        executor.execute("fast", new Runnable() {
+            @Override
+            public void run() {
+                other.countDown();
+            }
+        });
+
+        // The second key is not blocked by the first
+        assertTrue(other.await(10, TimeUnit.SECONDS));
+        blocked.countDown();
+    }
+
+}
@@ -158,6 +158,30 @@ public class RetryingExecutorTest extends BaseTestCase {
         assertEquals(5, operation.runCount);
     }
 
+    @Test
+    public void testExecuteKeyedOperations() {
+        TestOperation firstOperation = new TestOperation(RetryingExecutor.finishedResult());
+        TestOperation secondOperation = new TestOperation(RetryingExecutor.retryResult());
+        TestOperation otherOperation = new TestOperation(RetryingExecutor.finishedResult());
+
+        executor.execute("first", firstOperation, secondOperation);
+        executor.execute("other", otherOperation);
+
+        assertEquals(1, firstOperation.runCount);
+        assertEquals(1, secondOperation.runCount);
+        assertEquals(1, otherOperation.runCount);
+
+        // The retry keeps its own backoff
+        advanceLooper(30000);
+        assertEquals(1, firstOperation.runCount);
+        assertEquals(2, secondOperation.runCount);
+
+        secondOperation.result = RetryingExecutor.finishedResult();
+        advanceLooper(60000);
+        assertEquals(3, secondOperation.runCount);
+        assertEquals(1, otherOperation.runCount);
+    }
+
     @Test
     public void testPause() {
         TestOperation operation = new TestOperation(RetryingExecutor.retryResult());
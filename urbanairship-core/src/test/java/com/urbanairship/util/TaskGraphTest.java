@@ -0,0 +1,127 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TaskGraphTest extends BaseTestCase {
+
+    private final Executor executor = Executors.newFixedThreadPool(4);
+
+    @Test
+    public void testRunsAfterDependencies() {
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+
+        TaskGraph graph = new TaskGraph(executor);
+        graph.add("c", record(order, "c"), "a", "b");
+        graph.add("a", record(order, "a"));
+        graph.add("b", record(order, "b"), "a");
+        graph.add("d", record(order, "d"), "c");
+        graph.run();
+
+        assertEquals(Arrays.asList("a", "b", "c", "d"), order);
+        assertEquals(Arrays.asList("c", "a", "b", "d"), new ArrayList<>(graph.getDurations().keySet()));
+    }
+
+    @Test
+    public void testIndependentTasksRunInParallel() {
+        final CountDownLatch latch = new CountDownLatch(2);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+                try {
+                    // Only finishes if the other task runs at the same time
+                    assertTrue(latch.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+
+        TaskGraph graph = new TaskGraph(executor);
+        graph.add("a", task);
+        graph.add("b", task);
+        graph.run();
+
+        assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    public void testFailureSkipsDependents() {
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+
+        TaskGraph graph = new TaskGraph(executor);
+        graph.add("a", new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalArgumentException("failed");
+            }
+        });
+        graph.add("b", record(order, "b"), "a");
+
+        try {
+            graph.run();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("failed", e.getMessage());
+        }
+
+        assertTrue(order.isEmpty());
+        assertTrue(graph.getDurations().isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingDependency() {
+        TaskGraph graph = new TaskGraph(executor);
+        graph.add("a", record(new ArrayList<String>(), "a"), "b");
+        graph.run();
+    }
+
+    @Test
+    public void testCycle() {
+        List<String> order = new ArrayList<>();
+
+        TaskGraph graph = new TaskGraph(executor);
+        graph.add("a", record(order, "a"));
+        graph.add("b", record(order, "b"), "a", "c");
+        graph.add("c", record(order, "c"), "b");
+
+        try {
+            graph.run();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        assertFalse(order.contains("a"));
+    }
+
+    @NonNull
+    private static Runnable record(@NonNull final List<String> order, @NonNull final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(name);
+            }
+        };
+    }
+
+}
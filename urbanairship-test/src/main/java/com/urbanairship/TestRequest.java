@@ -55,6 +55,9 @@ public class TestRequest extends Request {
      * @return The request body.
      */
     public String getRequestBody() {
+        if (jsonBody != null) {
+            return jsonBody.toJsonValue().toString();
+        }
         return body;
     }
 